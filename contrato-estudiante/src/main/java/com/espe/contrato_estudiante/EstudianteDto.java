@@ -1,9 +1,16 @@
-package com.espe.micro_cursos.model.entity;
+package com.espe.contrato_estudiante;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
-import jakarta.persistence.*;
 import java.util.Date;
 
-public class Estudiante {
+/**
+ * Representación de un estudiante en la API de micro-estudiante, tanto en las respuestas como en
+ * los cuerpos de creación y actualización. Los campos desconocidos se ignoran para que agregar
+ * uno nuevo en el servicio no rompa a los clientes que aún usan una versión anterior del contrato.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class EstudianteDto {
 
     private Long id;
     private String nombre;
@@ -12,26 +19,23 @@ public class Estudiante {
     private Date fechaNacimiento;
     private String telefono;
     private Date creadoEn;
+    private long version;
 
-    // Constructor vacío (obligatorio para JPA)
-    public Estudiante() {}
+    public EstudianteDto() {
+    }
 
-    // Constructor con parámetros
-    public Estudiante(String nombre, String apellido, String email, Date fechaNacimiento, String telefono, Date creadoEn) {
+    public EstudianteDto(Long id, String nombre, String apellido, String email, Date fechaNacimiento,
+                         String telefono, Date creadoEn, long version) {
+        this.id = id;
         this.nombre = nombre;
         this.apellido = apellido;
         this.email = email;
         this.fechaNacimiento = fechaNacimiento;
         this.telefono = telefono;
         this.creadoEn = creadoEn;
+        this.version = version;
     }
-    // Método para inicializar creadoEn antes de persistir
-    protected void prePersist() {
-        if (this.creadoEn == null) {
-            this.creadoEn = new Date();
-        }
-    }
-    // Getters y Setters
+
     public Long getId() {
         return id;
     }
@@ -87,4 +91,12 @@ public class Estudiante {
     public void setCreadoEn(Date creadoEn) {
         this.creadoEn = creadoEn;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
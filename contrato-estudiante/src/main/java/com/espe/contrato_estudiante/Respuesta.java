@@ -0,0 +1,52 @@
+package com.espe.contrato_estudiante;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Sobre de respuesta de la API de estudiantes: {@code {"message": ..., "data": ...}}.
+ * Mismo JSON que el {@code HashMap} que usaban los controladores, pero con {@code data} tipado
+ * para que el cliente lo deserialice directamente sin pasar por un mapa intermedio.
+ * Las respuestas de error solo llevan {@code message}.
+ *
+ * @param <T> tipo de {@code data}
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Respuesta<T> {
+
+    private String message;
+    private T data;
+
+    public Respuesta() {
+    }
+
+    public Respuesta(String message, T data) {
+        this.message = message;
+        this.data = data;
+    }
+
+    public static <T> Respuesta<T> de(String message, T data) {
+        return new Respuesta<>(message, data);
+    }
+
+    public static <T> Respuesta<T> mensaje(String message) {
+        return new Respuesta<>(message, null);
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public T getData() {
+        return data;
+    }
+
+    public void setData(T data) {
+        this.data = data;
+    }
+}
@@ -233,7 +233,7 @@ spec:
         - containerPort: 8003
         env:
         - name: SPRING_DATASOURCE_URL
-          value: \"jdbc:mysql://mysql-micro-curso:3306/microcursos\"
+          value: \"jdbc:mysql://mysql-micro-curso:3306/microcursos?rewriteBatchedStatements=true&useCursorFetch=true\"
         - name: SPRING_DATASOURCE_USERNAME
           value: \"root\"
         - name: SPRING_DATASOURCE_PASSWORD
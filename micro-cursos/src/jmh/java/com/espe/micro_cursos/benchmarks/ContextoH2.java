@@ -0,0 +1,75 @@
+package com.espe.micro_cursos.benchmarks;
+
+import com.espe.micro_cursos.MicroCursosApplication;
+import com.espe.micro_cursos.model.entity.Curso;
+import com.espe.micro_cursos.repositories.CursoEstudianteRepository;
+import com.espe.micro_cursos.repositories.CursoRepository;
+import org.h2.tools.Server;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.SQLException;
+import java.util.stream.LongStream;
+
+/**
+ * Arranca micro-cursos sin servidor web sobre un H2 en memoria en modo MySQL, para que los
+ * benchmarks de repositorio usen las mismas consultas JPQL y SQL nativo que en producción
+ * sin depender de MySQL ni de micro-estudiante.
+ */
+final class ContextoH2 {
+
+    private ContextoH2() {
+    }
+
+    private static final String OPCIONES = ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_ON_EXIT=FALSE";
+
+    static ConfigurableApplicationContext iniciar(String baseDeDatos) {
+        return iniciarEn("jdbc:h2:mem:" + baseDeDatos + OPCIONES);
+    }
+
+    /**
+     * Igual que {@link #iniciar(String)}, pero la base se abre a través de un servidor TCP de H2 en este proceso:
+     * cada sentencia cuesta una ida y vuelta por la interfaz de loopback, como contra un MySQL remoto.
+     */
+    static ConfigurableApplicationContext iniciarPorTcp(Server servidor, String baseDeDatos) {
+        return iniciarEn("jdbc:h2:tcp://localhost:" + servidor.getPort() + "/mem:" + baseDeDatos + OPCIONES);
+    }
+
+    /**
+     * Servidor TCP de H2 en un puerto libre que admite crear bases en memoria; cerrarlo con {@code stop()}.
+     */
+    static Server servidorTcp() throws SQLException {
+        return Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+    }
+
+    private static ConfigurableApplicationContext iniciarEn(String url) {
+        return new SpringApplicationBuilder(MicroCursosApplication.class)
+                .profiles("test")
+                // Como argumentos de línea de comandos para que tengan precedencia sobre application.properties
+                .run("--spring.main.web-application-type=none",
+                        "--spring.datasource.url=" + url,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        // Nunca se llama: los benchmarks no pasan por el cliente Feign
+                        "--cursos.estudiantes.url=http://localhost:1");
+    }
+
+    /**
+     * Crea un curso con los estudiantes 1..inscritos inscritos.
+     *
+     * @return ID del curso creado
+     */
+    static long sembrarCurso(ConfigurableApplicationContext contexto, String nombre, int inscritos) {
+        Curso curso = new Curso();
+        curso.setNombre(nombre);
+        curso.setDescripcion("Curso sembrado para los benchmarks de repositorio");
+        curso.setCreditos(4);
+        long cursoId = contexto.getBean(CursoRepository.class).save(curso).getId();
+        if (inscritos > 0) {
+            contexto.getBean(CursoEstudianteRepository.class)
+                    .insertarEnLote(cursoId, LongStream.rangeClosed(1, inscritos).boxed().toList());
+        }
+        return cursoId;
+    }
+}
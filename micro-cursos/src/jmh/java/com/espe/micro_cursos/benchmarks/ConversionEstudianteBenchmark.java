@@ -0,0 +1,90 @@
+package com.espe.micro_cursos.benchmarks;
+
+import com.espe.contrato_estudiante.EstudianteDto;
+import com.espe.contrato_estudiante.Respuesta;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodificación de las respuestas de micro-estudiante. Antes Feign decodificaba a
+ * {@code Map<String, Object>} y CursoServiceImpl y EstudianteCache convertían el "data" con
+ * {@code objectMapper.convertValue}; ahora el cliente lee los bytes directamente al sobre tipado
+ * del contrato. Con {@code -prof gc} se comparan también los bytes asignados por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionEstudianteBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAPA = new TypeReference<>() {};
+    private static final TypeReference<List<EstudianteDto>> LISTA_ESTUDIANTES = new TypeReference<>() {};
+
+    @Param({"1", "50"})
+    private int estudiantes;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private byte[] cuerpo;
+    private ObjectReader lectorSobre;
+
+    @Setup
+    public void preparar() throws IOException {
+        List<Map<String, Object>> data = new ArrayList<>();
+        for (long id = 1; id <= estudiantes; id++) {
+            Map<String, Object> estudiante = new LinkedHashMap<>();
+            estudiante.put("id", id);
+            estudiante.put("nombre", "Estudiante " + id);
+            estudiante.put("apellido", "Benchmark");
+            estudiante.put("email", "estudiante" + id + "@universidad.edu");
+            estudiante.put("fechaNacimiento", "2001-05-17T00:00:00.000+00:00");
+            estudiante.put("telefono", "0991234567");
+            estudiante.put("creadoEn", "2024-09-01T12:30:00.000+00:00");
+            estudiante.put("version", 3);
+            data.add(estudiante);
+        }
+        // Mismo JSON que enviaría micro-estudiante en POST /api/estudiantes/por-ids
+        cuerpo = objectMapper.writeValueAsBytes(Map.of("message", "Estudiantes obtenidos exitosamente.", "data", data));
+        // Igual que el decodificador de Feign para ResponseEntity<Respuesta<List<EstudianteDto>>>
+        lectorSobre = objectMapper.readerFor(new TypeReference<Respuesta<List<EstudianteDto>>>() {});
+    }
+
+    /** Camino anterior: Feign decodifica a mapa y luego se convierte "data" con convertValue. */
+    @Benchmark
+    public List<EstudianteDto> decodificarMapaYConvertir() throws IOException {
+        Map<String, Object> respuesta = objectMapper.readValue(cuerpo, MAPA);
+        return objectMapper.convertValue(respuesta.get("data"), LISTA_ESTUDIANTES);
+    }
+
+    /** Solo el paso convertValue, con el mapa ya decodificado fuera de la medición. */
+    @Benchmark
+    public List<EstudianteDto> soloConvertValue(MapaDecodificado mapa) {
+        return objectMapper.convertValue(mapa.data, LISTA_ESTUDIANTES);
+    }
+
+    /** Camino actual: los bytes se deserializan directamente a {@code Respuesta<List<EstudianteDto>>}. */
+    @Benchmark
+    public List<EstudianteDto> decodificarSobreTipado() throws IOException {
+        Respuesta<List<EstudianteDto>> respuesta = lectorSobre.readValue(cuerpo);
+        return respuesta.getData();
+    }
+
+    @State(Scope.Benchmark)
+    public static class MapaDecodificado {
+        private Object data;
+
+        @Setup
+        public void preparar(ConversionEstudianteBenchmark benchmark) throws IOException {
+            data = benchmark.objectMapper.readValue(benchmark.cuerpo, MAPA).get("data");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.espe.micro_cursos.benchmarks;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filas por segundo al persistir cursos con Hibernate en una transacción, antes y después del generador pooled:
+ * - identityFilaPorFila: {@link CursoIdentity} (IDENTITY), un INSERT por persist con lectura de la clave generada.
+ * - pooledEnLote: {@link CursoPooled}, IDs de generadores_id e INSERT en lotes de hibernate.jdbc.batch_size.
+ * Con conexion=memoria H2 corre en el mismo proceso y una sentencia no cuesta una ida y vuelta de red, así que
+ * solo se compara el trabajo de Hibernate; con conexion=tcp cada ida y vuelta pasa por loopback, más cerca de MySQL.
+ * Resultado en filas por segundo (ops/s con @OperationsPerInvocation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 6, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreacionEnLoteBenchmark {
+
+    private static final int FILAS = 500;
+
+    @Param({"memoria", "tcp"})
+    private String conexion;
+
+    private Server servidor;
+    private ConfigurableApplicationContext contexto;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws SQLException {
+        if ("tcp".equals(conexion)) {
+            servidor = ContextoH2.servidorTcp();
+            contexto = ContextoH2.iniciarPorTcp(servidor, "creacion-lote");
+        } else {
+            contexto = ContextoH2.iniciar("creacion-lote");
+        }
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(contexto.getBean(EntityManagerFactory.class));
+        transactionTemplate = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+        if (servidor != null) {
+            servidor.stop();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public List<CursoIdentity> identityFilaPorFila() {
+        return transactionTemplate.execute(transaccion -> {
+            List<CursoIdentity> cursos = new ArrayList<>(FILAS);
+            for (int i = 0; i < FILAS; i++) {
+                CursoIdentity curso = new CursoIdentity("Curso " + i, "Curso creado durante el benchmark", 3);
+                entityManager.persist(curso);
+                cursos.add(curso);
+            }
+            return cursos;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public List<CursoPooled> pooledEnLote() {
+        return transactionTemplate.execute(transaccion -> {
+            List<CursoPooled> cursos = new ArrayList<>(FILAS);
+            for (int i = 0; i < FILAS; i++) {
+                CursoPooled curso = new CursoPooled("Curso " + i, "Curso creado durante el benchmark", 3);
+                entityManager.persist(curso);
+                cursos.add(curso);
+            }
+            return cursos;
+        });
+    }
+}
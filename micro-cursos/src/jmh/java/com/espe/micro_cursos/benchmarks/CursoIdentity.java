@@ -0,0 +1,48 @@
+package com.espe.micro_cursos.benchmarks;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+
+/**
+ * La tabla cursos mapeada como antes del generador pooled (IDENTITY), solo para comparar en
+ * {@link CreacionEnLoteBenchmark} con {@link CursoPooled}. Sin caché de segundo nivel ni inscripciones.
+ */
+@Entity
+@Table(name = "cursos")
+public class CursoIdentity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String nombre;
+
+    @Column(nullable = false)
+    private String descripcion;
+
+    @Column(nullable = false)
+    private int creditos;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date creadoEn = new Date();
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "total_inscritos", nullable = false)
+    private long totalInscritos;
+
+    public CursoIdentity() {
+    }
+
+    public CursoIdentity(String nombre, String descripcion, int creditos) {
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+        this.creditos = creditos;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
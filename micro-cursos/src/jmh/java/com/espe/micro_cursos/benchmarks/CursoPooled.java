@@ -0,0 +1,50 @@
+package com.espe.micro_cursos.benchmarks;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+
+/**
+ * La tabla cursos con el mismo generador pooled que {@link com.espe.micro_cursos.model.entity.Curso}; por lo demás
+ * igual a {@link CursoIdentity}, para que {@link CreacionEnLoteBenchmark} compare solo la generación de IDs.
+ */
+@Entity
+@Table(name = "cursos")
+public class CursoPooled {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "curso_pooled_id")
+    @TableGenerator(name = "curso_pooled_id", table = "generadores_id", pkColumnName = "entidad", valueColumnName = "siguiente",
+            pkColumnValue = "cursos", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String nombre;
+
+    @Column(nullable = false)
+    private String descripcion;
+
+    @Column(nullable = false)
+    private int creditos;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date creadoEn = new Date();
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "total_inscritos", nullable = false)
+    private long totalInscritos;
+
+    public CursoPooled() {
+    }
+
+    public CursoPooled(String nombre, String descripcion, int creditos) {
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+        this.creditos = creditos;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
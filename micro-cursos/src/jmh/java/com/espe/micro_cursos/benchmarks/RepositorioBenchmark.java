@@ -0,0 +1,88 @@
+package com.espe.micro_cursos.benchmarks;
+
+import com.espe.micro_cursos.model.entity.Curso;
+import com.espe.micro_cursos.repositories.CursoEstudianteRepository;
+import com.espe.micro_cursos.repositories.CursoRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Llamadas de repositorio de micro-cursos contra H2 en modo MySQL: lectura por ID, lectura de
+ * solo la versión (If-None-Match), página por keyset, inserción de un curso e inscripción por lotes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositorioBenchmark {
+
+    private static final int CURSOS = 1000;
+    private static final int TAMANO_PAGINA = 50;
+    private static final int TAMANO_LOTE = 50;
+
+    private ConfigurableApplicationContext contexto;
+    private CursoRepository cursoRepository;
+    private CursoEstudianteRepository cursoEstudianteRepository;
+    private long primerId;
+    private long cursoId;
+    // Cada lote usa IDs de estudiante nuevos para no violar la restricción única
+    private final AtomicLong siguienteEstudiante = new AtomicLong(1);
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoH2.iniciar("repositorio");
+        cursoRepository = contexto.getBean(CursoRepository.class);
+        cursoEstudianteRepository = contexto.getBean(CursoEstudianteRepository.class);
+        primerId = ContextoH2.sembrarCurso(contexto, "Curso 0", 0);
+        for (int i = 1; i < CURSOS; i++) {
+            ContextoH2.sembrarCurso(contexto, "Curso " + i, 0);
+        }
+        cursoId = primerId + CURSOS / 2;
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Optional<Curso> buscarPorId() {
+        return cursoRepository.findById(cursoId);
+    }
+
+    @Benchmark
+    public Optional<Long> versionPorId() {
+        return cursoRepository.findVersionById(cursoId);
+    }
+
+    @Benchmark
+    public List<Curso> paginaPorKeyset() {
+        List<Long> ids = cursoRepository.findIdsDespuesDe(cursoId, Limit.of(TAMANO_PAGINA + 1));
+        return cursoRepository.findByIdInOrderByIdAsc(ids.subList(0, Math.min(TAMANO_PAGINA, ids.size())));
+    }
+
+    @Benchmark
+    public Curso guardarCurso() {
+        Curso curso = new Curso();
+        curso.setNombre("Curso nuevo");
+        curso.setDescripcion("Curso creado durante el benchmark");
+        curso.setCreditos(3);
+        return cursoRepository.save(curso);
+    }
+
+    @Benchmark
+    public void inscribirEnLote() {
+        long desde = siguienteEstudiante.getAndAdd(TAMANO_LOTE);
+        cursoEstudianteRepository.insertarEnLote(primerId,
+                LongStream.range(desde, desde + TAMANO_LOTE).boxed().toList());
+    }
+}
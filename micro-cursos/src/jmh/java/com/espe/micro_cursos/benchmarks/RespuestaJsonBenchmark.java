@@ -0,0 +1,80 @@
+package com.espe.micro_cursos.benchmarks;
+
+import com.espe.micro_cursos.model.entity.Curso;
+import com.espe.micro_cursos.model.entity.CursoEstudiante;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización con Jackson del sobre {@code HashMap} "message"/"data" que devuelven todos los
+ * controladores, con un curso (GET /api/cursos/{id}) y con una página de cursos (GET /api/cursos).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RespuestaJsonBenchmark {
+
+    @Param({"1", "20", "100"})
+    private int cursos;
+
+    @Param({"0", "10"})
+    private int inscritosPorCurso;
+
+    // Mismos valores por defecto que el ObjectMapper autoconfigurado por Spring Boot
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Map<String, Object> sobreCurso;
+    private Map<String, Object> sobreLista;
+
+    @Setup
+    public void preparar() {
+        List<Curso> lista = new ArrayList<>();
+        for (int i = 1; i <= cursos; i++) {
+            lista.add(curso(i, inscritosPorCurso));
+        }
+
+        sobreCurso = new HashMap<>();
+        sobreCurso.put("message", "Curso encontrado exitosamente.");
+        sobreCurso.put("data", lista.get(0));
+
+        sobreLista = new HashMap<>();
+        sobreLista.put("message", "Cursos obtenidos exitosamente.");
+        sobreLista.put("data", lista);
+        sobreLista.put("nextCursor", "MTAw");
+    }
+
+    @Benchmark
+    public byte[] sobreConCurso() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(sobreCurso);
+    }
+
+    @Benchmark
+    public byte[] sobreConLista() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(sobreLista);
+    }
+
+    private static Curso curso(long id, int inscritos) {
+        Curso curso = new Curso();
+        curso.setId(id);
+        curso.setNombre("Programación Java " + id);
+        curso.setDescripcion("Curso completo de Java: colecciones, streams, concurrencia y JPA");
+        curso.setCreditos(4);
+        curso.setCreadoEn(new Date());
+        for (long e = 1; e <= inscritos; e++) {
+            CursoEstudiante inscripcion = new CursoEstudiante();
+            inscripcion.setId(id * 1000 + e);
+            inscripcion.setCursoId(id);
+            inscripcion.setEstudianteId(e);
+            curso.addCursoEstudiante(inscripcion);
+        }
+        return curso;
+    }
+}
@@ -0,0 +1,76 @@
+package com.espe.micro_cursos.benchmarks;
+
+import com.espe.micro_cursos.model.entity.CursoEstudiante;
+import com.espe.micro_cursos.repositories.CursoEstudianteRepository;
+import com.espe.micro_cursos.repositories.CursoRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda de la inscripción a eliminar en removerEstudiante sobre H2 en modo MySQL.
+ * {@code escanearRoster} reproduce la versión original (cargar {@code curso.getCursoEstudiantes()}
+ * y recorrerla buscando el estudiante); las otras dos miden el camino actual por clave
+ * (curso_id, estudiante_id), que usa la restricción única en lugar de leer todo el roster.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RosterBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int inscritos;
+
+    private ConfigurableApplicationContext contexto;
+    private CursoRepository cursoRepository;
+    private CursoEstudianteRepository cursoEstudianteRepository;
+    private TransactionTemplate soloLectura;
+    private long cursoId;
+    private long estudianteId;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoH2.iniciar("roster-" + inscritos);
+        cursoRepository = contexto.getBean(CursoRepository.class);
+        cursoEstudianteRepository = contexto.getBean(CursoEstudianteRepository.class);
+        soloLectura = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        soloLectura.setReadOnly(true);
+        cursoId = ContextoH2.sembrarCurso(contexto, "Curso con roster", inscritos);
+        // El último inscrito: el peor caso del recorrido lineal
+        estudianteId = inscritos;
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Optional<CursoEstudiante> escanearRoster() {
+        return soloLectura.execute(estado -> cursoRepository.findById(cursoId).orElseThrow()
+                .getCursoEstudiantes().stream()
+                .filter(ce -> ce.getEstudianteId().equals(estudianteId) && ce.getCursoId().equals(cursoId))
+                .findFirst());
+    }
+
+    @Benchmark
+    public List<Long> buscarPorClave() {
+        return cursoEstudianteRepository.findEstudianteIdsInscritos(cursoId, List.of(estudianteId));
+    }
+
+    /** DELETE por clave como en removerEstudiante; se vuelve a inscribir para no agotar el roster. */
+    @Benchmark
+    public int desinscribirPorClave() {
+        int eliminadas = cursoEstudianteRepository.desinscribir(cursoId, estudianteId);
+        cursoEstudianteRepository.insertarEnLote(cursoId, List.of(estudianteId));
+        return eliminadas;
+    }
+}
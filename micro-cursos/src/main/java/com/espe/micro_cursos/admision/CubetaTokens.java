@@ -0,0 +1,36 @@
+package com.espe.micro_cursos.admision;
+
+/**
+ * Cubeta de tokens de un cliente: admite ráfagas de hasta {@code capacidad} solicitudes y se recarga
+ * a {@code solicitudesPorSegundo}. Empieza llena.
+ */
+final class CubetaTokens {
+
+    private final double capacidad;
+    private final double tokensPorNano;
+    private double tokens;
+    private long ultimaRecarga;
+
+    CubetaTokens(double capacidad, double solicitudesPorSegundo, long ahora) {
+        this.capacidad = capacidad;
+        this.tokensPorNano = solicitudesPorSegundo / 1e9;
+        this.tokens = capacidad;
+        this.ultimaRecarga = ahora;
+    }
+
+    /**
+     * Toma un token si hay uno disponible.
+     *
+     * @param ahora instante actual en nanosegundos (System.nanoTime)
+     * @return 0 si se tomó el token; si no, nanosegundos hasta que haya uno
+     */
+    synchronized long tomar(long ahora) {
+        tokens = Math.min(capacidad, tokens + (ahora - ultimaRecarga) * tokensPorNano);
+        ultimaRecarga = ahora;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPorNano);
+    }
+}
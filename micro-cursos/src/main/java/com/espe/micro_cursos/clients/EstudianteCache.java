@@ -0,0 +1,198 @@
+package com.espe.micro_cursos.clients;
+
+import com.espe.contrato_estudiante.EstudianteDto;
+import com.espe.contrato_estudiante.Respuesta;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import feign.FeignException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché de lectura (read-through) de estudiantes delante de {@link EstudianteClient}.
+ * Guarda también los IDs inexistentes (404) con un TTL más corto para no repetir la llamada.
+ * Las consultas concurrentes de un mismo ID que no está en caché se agrupan (single-flight):
+ * solo una sale hacia micro-estudiante y las demás esperan su resultado o su error.
+ */
+@Component
+public class EstudianteCache implements MeterBinder {
+
+    private final EstudianteClient estudianteClient;
+    private final Cache<Long, Optional<EstudianteDto>> cache;
+    private final Map<Long, CompletableFuture<Optional<EstudianteDto>>> enCurso = new ConcurrentHashMap<>();
+    private final LongAdder colapsadas = new LongAdder();
+    // Consultas a micro-estudiante que terminaron en error (no 404). Caffeine no las cuenta porque la
+    // llamada se hace fuera de sus loaders
+    private final LongAdder fallosConsulta = new LongAdder();
+
+    public EstudianteCache(EstudianteClient estudianteClient,
+                           @Value("${cursos.cache-estudiantes.tamano-maximo:10000}") long tamanoMaximo,
+                           @Value("${cursos.cache-estudiantes.ttl:5m}") Duration ttl,
+                           @Value("${cursos.cache-estudiantes.ttl-negativo:30s}") Duration ttlNegativo) {
+        this.estudianteClient = estudianteClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanoMaximo)
+                .expireAfter(new Expiry<Long, Optional<EstudianteDto>>() {
+                    @Override
+                    public long expireAfterCreate(Long id, Optional<EstudianteDto> valor, long ahora) {
+                        return (valor.isPresent() ? ttl : ttlNegativo).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, Optional<EstudianteDto> valor, long ahora, long restante) {
+                        return expireAfterCreate(id, valor, ahora);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, Optional<EstudianteDto> valor, long ahora, long restante) {
+                        return restante;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Obtiene el estudiante desde la caché o, si no está, desde micro-estudiante.
+     * Los errores distintos de 404 se propagan y no se guardan.
+     * La llamada HTTP se hace fuera de {@code Cache.get(id, loader)}: ese loader corre dentro de un
+     * bloque synchronized de ConcurrentHashMap y, con hilos virtuales, fijaría el hilo portador
+     * durante toda la llamada. Si ya hay una consulta en curso para el mismo ID, se espera esa.
+     *
+     * @param id ID del estudiante
+     * @return el estudiante, o vacío si micro-estudiante respondió 404
+     */
+    public Optional<EstudianteDto> obtener(Long id) {
+        Optional<EstudianteDto> cacheado = cache.getIfPresent(id);
+        if (cacheado != null) {
+            return cacheado;
+        }
+        CompletableFuture<Optional<EstudianteDto>> propia = new CompletableFuture<>();
+        CompletableFuture<Optional<EstudianteDto>> enVuelo = enCurso.putIfAbsent(id, propia);
+        if (enVuelo != null) {
+            colapsadas.increment();
+            return esperar(enVuelo);
+        }
+        try {
+            // Otra consulta pudo terminar entre el primer getIfPresent y el putIfAbsent: su resultado ya
+            // está en la caché y no hace falta volver a llamar al servicio (sin contar otro fallo)
+            Optional<EstudianteDto> recienGuardado = cache.policy().getIfPresentQuietly(id);
+            if (recienGuardado != null) {
+                propia.complete(recienGuardado);
+                return recienGuardado;
+            }
+            Optional<EstudianteDto> consultado = consultar(id);
+            // Se guarda antes de liberar a los que esperan: quien llegue después encuentra la caché
+            cache.put(id, consultado);
+            propia.complete(consultado);
+            return consultado;
+        } catch (RuntimeException | Error e) {
+            fallosConsulta.increment();
+            propia.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(id, propia);
+        }
+    }
+
+    // Propaga el mismo error que recibió la consulta compartida (p. ej. FeignException)
+    private static Optional<EstudianteDto> esperar(CompletableFuture<Optional<EstudianteDto>> enVuelo) {
+        try {
+            return enVuelo.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Devuelve solo las entradas que ya están en la caché, sin consultar micro-estudiante.
+     *
+     * @param ids IDs buscados
+     * @return mapa con los IDs presentes; un Optional vacío indica un 404 cacheado
+     */
+    public Map<Long, Optional<EstudianteDto>> obtenerPresentes(Collection<Long> ids) {
+        return cache.getAllPresent(ids);
+    }
+
+    /**
+     * Registra en la caché el resultado de una consulta por lotes.
+     *
+     * @param solicitados IDs consultados
+     * @param encontrados estudiantes devueltos por micro-estudiante
+     */
+    public void registrar(Collection<Long> solicitados, Collection<EstudianteDto> encontrados) {
+        Map<Long, Optional<EstudianteDto>> entradas = new HashMap<>();
+        solicitados.forEach(id -> entradas.put(id, Optional.empty()));
+        encontrados.forEach(e -> entradas.put(e.getId(), Optional.of(e)));
+        cache.putAll(entradas);
+    }
+
+    public void invalidar(Long id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidarTodo() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Contadores de la caché desde el arranque del servicio.
+     *
+     * @return aciertos, fallos, desalojos, consultas con error, consultas agrupadas y tamaño actual
+     */
+    public Map<String, Object> estadisticas() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> estadisticas = new LinkedHashMap<>();
+        estadisticas.put("hits", stats.hitCount());
+        estadisticas.put("misses", stats.missCount());
+        estadisticas.put("hitRate", stats.hitRate());
+        estadisticas.put("evictions", stats.evictionCount());
+        estadisticas.put("loadFailures", fallosConsulta.sum());
+        estadisticas.put("collapsed", colapsadas.sum());
+        estadisticas.put("size", cache.estimatedSize());
+        return estadisticas;
+    }
+
+    /**
+     * Publica en Micrometer el número de consultas que se unieron a otra en curso
+     * (llamadas a micro-estudiante ahorradas).
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("estudiantes.consultas.colapsadas", colapsadas, LongAdder::sum)
+                .description("Consultas de estudiantes que compartieron una llamada en curso a micro-estudiante")
+                .register(registry);
+    }
+
+    private Optional<EstudianteDto> consultar(Long id) {
+        try {
+            ResponseEntity<Respuesta<EstudianteDto>> response = estudianteClient.obtenerEstudiante(id);
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null
+                    && response.getBody().getData() != null) {
+                return Optional.of(response.getBody().getData());
+            }
+            return Optional.empty();
+        } catch (FeignException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+}
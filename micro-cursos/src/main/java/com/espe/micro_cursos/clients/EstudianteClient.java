@@ -1,27 +1,38 @@
 package com.espe.micro_cursos.clients;
 
-import com.espe.micro_cursos.model.entity.Estudiante;
+import com.espe.contrato_estudiante.EstudianteDto;
+import com.espe.contrato_estudiante.Respuesta;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Map;
+import java.util.Collection;
+import java.util.List;
 
-@FeignClient(name="micro-estudiante", url = "micro-estudiante:8002/api/estudiantes")
+/**
+ * Cliente de micro-estudiante. Las respuestas se decodifican directamente al sobre tipado del
+ * contrato compartido, sin pasar por {@code Map<String, Object>}.
+ * La URL base sale de spring.cloud.openfeign.client.config.micro-estudiante.url (cursos.estudiantes.url)
+ * y se lee al arrancar, también con AOT, donde una URL en la anotación quedaría fija al compilar.
+ */
+@FeignClient(name = "micro-estudiante", path = "/api/estudiantes")
 public interface EstudianteClient {
 
     @GetMapping
-    public ResponseEntity<Map<String, Object>> listarEstudiantes();
+    public ResponseEntity<Respuesta<List<EstudianteDto>>> listarEstudiantes();
 
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> obtenerEstudiante(@PathVariable Long id);
+    public ResponseEntity<Respuesta<EstudianteDto>> obtenerEstudiante(@PathVariable Long id);
+
+    @PostMapping("/por-ids")
+    public ResponseEntity<Respuesta<List<EstudianteDto>>> obtenerEstudiantesPorIds(@RequestBody Collection<Long> ids);
 
     @PostMapping
-    public ResponseEntity<Map<String, Object>> crearEstudiante(@RequestBody Estudiante estudiante);
+    public ResponseEntity<Respuesta<EstudianteDto>> crearEstudiante(@RequestBody EstudianteDto estudiante);
 
     @PutMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> actualizarEstudiante(@PathVariable Long id, @RequestBody Estudiante estudiante);
+    public ResponseEntity<Respuesta<EstudianteDto>> actualizarEstudiante(@PathVariable Long id, @RequestBody EstudianteDto estudiante);
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> eliminarEstudiante(@PathVariable Long id);
+    public ResponseEntity<Respuesta<Void>> eliminarEstudiante(@PathVariable Long id);
 }
@@ -0,0 +1,11 @@
+package com.espe.micro_cursos.clients;
+
+/**
+ * El estudiante no existe en micro-estudiante (respuesta 404, posiblemente servida desde la caché).
+ */
+public class EstudianteNoEncontradoException extends RuntimeException {
+
+    public EstudianteNoEncontradoException(Long id) {
+        super("Estudiante no encontrado con ID: " + id);
+    }
+}
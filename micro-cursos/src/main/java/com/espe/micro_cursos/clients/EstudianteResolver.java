@@ -0,0 +1,116 @@
+package com.espe.micro_cursos.clients;
+
+import com.espe.contrato_estudiante.EstudianteDto;
+import com.espe.contrato_estudiante.Respuesta;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resuelve listas de IDs de estudiantes contra micro-estudiante en lotes concurrentes.
+ * Primero usa la caché; lo que falta se reparte en lotes que se consultan en paralelo
+ * con un número máximo de llamadas simultáneas. Los lotes que no responden antes del
+ * plazo quedan pendientes y el resultado se entrega parcial.
+ * Con {@code spring.threads.virtual.enabled=true} (Java 21) las consultas corren en hilos virtuales;
+ * el tamaño fijo del pool sigue limitando las llamadas simultáneas a micro-estudiante.
+ */
+@Component
+public class EstudianteResolver {
+
+    private final EstudianteClient estudianteClient;
+    private final EstudianteCache estudianteCache;
+    private final ExecutorService executor;
+    private final int tamanoLote;
+    private final Duration plazo;
+
+    public EstudianteResolver(EstudianteClient estudianteClient,
+                              EstudianteCache estudianteCache,
+                              @Value("${cursos.roster.concurrencia-maxima:8}") int concurrenciaMaxima,
+                              @Value("${cursos.roster.tamano-lote:25}") int tamanoLote,
+                              @Value("${cursos.roster.plazo:2s}") Duration plazo,
+                              Environment environment) {
+        this.estudianteClient = estudianteClient;
+        this.estudianteCache = estudianteCache;
+        this.tamanoLote = tamanoLote;
+        this.plazo = plazo;
+        this.executor = Executors.newFixedThreadPool(concurrenciaMaxima, fabricaDeHilos(environment));
+    }
+
+    private static ThreadFactory fabricaDeHilos(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("roster-estudiantes-").getVirtualThreadFactory();
+        }
+        AtomicInteger contador = new AtomicInteger();
+        return r -> {
+            Thread hilo = new Thread(r, "roster-estudiantes-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+    }
+
+    /**
+     * Resuelve los IDs indicados.
+     *
+     * @param ids IDs de estudiantes
+     * @return mapa con los IDs resueltos; un Optional vacío indica que el estudiante no existe.
+     *         Los IDs ausentes del mapa no se pudieron resolver dentro del plazo.
+     */
+    public Map<Long, Optional<EstudianteDto>> resolver(Collection<Long> ids) {
+        Map<Long, Optional<EstudianteDto>> resueltos = new HashMap<>(estudianteCache.obtenerPresentes(ids));
+        List<Long> faltantes = ids.stream().distinct().filter(id -> !resueltos.containsKey(id)).toList();
+        if (faltantes.isEmpty()) {
+            return resueltos;
+        }
+
+        List<Future<Map<Long, Optional<EstudianteDto>>>> futuros = new ArrayList<>();
+        for (int i = 0; i < faltantes.size(); i += tamanoLote) {
+            List<Long> lote = faltantes.subList(i, Math.min(i + tamanoLote, faltantes.size()));
+            futuros.add(executor.submit(() -> consultarLote(lote)));
+        }
+
+        long limite = System.nanoTime() + plazo.toNanos();
+        for (Future<Map<Long, Optional<EstudianteDto>>> futuro : futuros) {
+            try {
+                long restante = Math.max(0, limite - System.nanoTime());
+                resueltos.putAll(futuro.get(restante, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                // El lote queda pendiente; no se bloquea el resto de la página
+                futuro.cancel(true);
+            } catch (ExecutionException e) {
+                // Un lote fallido también queda pendiente
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return resueltos;
+    }
+
+    private Map<Long, Optional<EstudianteDto>> consultarLote(List<Long> lote) {
+        ResponseEntity<Respuesta<List<EstudianteDto>>> response = estudianteClient.obtenerEstudiantesPorIds(lote);
+        List<EstudianteDto> encontrados = new ArrayList<>();
+        if (response.getBody() != null && response.getBody().getData() != null) {
+            encontrados = response.getBody().getData();
+        }
+        estudianteCache.registrar(lote, encontrados);
+
+        Map<Long, Optional<EstudianteDto>> resultado = new HashMap<>();
+        lote.forEach(id -> resultado.put(id, Optional.empty()));
+        encontrados.forEach(e -> resultado.put(e.getId(), Optional.of(e)));
+        return resultado;
+    }
+
+    @PreDestroy
+    void cerrar() {
+        executor.shutdownNow();
+    }
+}
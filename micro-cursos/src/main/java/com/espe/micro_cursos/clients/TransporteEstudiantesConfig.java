@@ -0,0 +1,51 @@
+package com.espe.micro_cursos.clients;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Ajustes del transporte HTTP de {@link EstudianteClient}. El pool de Apache HttpClient 5 lo crea
+ * Spring Cloud OpenFeign (tamaño y timeouts en spring.cloud.openfeign.*); aquí se limita el keep-alive
+ * y se publican las métricas del pool. Los tiempos por solicitud los registra feign-micrometer
+ * como http.client.requests.
+ */
+@Configuration
+public class TransporteEstudiantesConfig {
+
+    /**
+     * Cierra las conexiones inactivas antes de que lo haga Tomcat en micro-estudiante (20 s por defecto),
+     * para no reutilizar una conexión que el servidor ya cerró.
+     */
+    @Bean
+    @ConditionalOnProperty(value = "spring.cloud.openfeign.httpclient.hc5.enabled", matchIfMissing = true)
+    public HttpClient5FeignConfiguration.HttpClientBuilderCustomizer keepAliveEstudiantes(
+            @Value("${cursos.estudiantes.http.keep-alive:15s}") Duration keepAlive) {
+        TimeValue limite = TimeValue.ofMilliseconds(keepAlive.toMillis());
+        return builder -> builder
+                .setKeepAliveStrategy((respuesta, contexto) -> limite)
+                .evictIdleConnections(limite);
+    }
+
+    /**
+     * Conexiones del pool (máximo, en uso, disponibles y solicitudes esperando una conexión).
+     */
+    @Bean
+    public MeterBinder metricasPoolEstudiantes(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registry -> connectionManager.ifAvailable(manager -> {
+            if (manager instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "micro-estudiante").bindTo(registry);
+            }
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package com.espe.micro_cursos.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Entrega conexiones de la réplica dentro de las transacciones de solo lectura y del primario en
+ * cualquier otro caso (escrituras y código sin transacción). Si la réplica no está disponible, o falla
+ * al entregar una conexión, la lectura se hace en el primario.
+ * <p>
+ * Va detrás de un LazyConnectionDataSourceProxy: la conexión física se pide al ejecutar la primera
+ * sentencia, cuando Spring ya marcó la transacción como de solo lectura.
+ */
+public class DataSourceEnrutado extends AbstractDataSource {
+
+    private final DataSource primario;
+    private final MonitorReplica monitorReplica;
+    private final LongAdder conexionesPrimario = new LongAdder();
+    private final LongAdder conexionesReplica = new LongAdder();
+
+    public DataSourceEnrutado(DataSource primario, MonitorReplica monitorReplica) {
+        this.primario = primario;
+        this.monitorReplica = monitorReplica;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && monitorReplica.isDisponible()) {
+            try {
+                Connection conexion = monitorReplica.getReplica().getConnection();
+                conexionesReplica.increment();
+                return conexion;
+            } catch (SQLException e) {
+                monitorReplica.marcarNoDisponible(e);
+            }
+        }
+        Connection conexion = primario.getConnection();
+        conexionesPrimario.increment();
+        return conexion;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Igual que HikariDataSource: las credenciales son las de cada pool
+        throw new SQLFeatureNotSupportedException("Las credenciales se configuran en cada pool");
+    }
+
+    long getConexionesPrimario() {
+        return conexionesPrimario.sum();
+    }
+
+    long getConexionesReplica() {
+        return conexionesReplica.sum();
+    }
+}
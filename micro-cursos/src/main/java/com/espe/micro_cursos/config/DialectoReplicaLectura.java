@@ -0,0 +1,60 @@
+package com.espe.micro_cursos.config;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * Con réplica configurada, las transacciones de solo lectura usan CacheStoreMode.BYPASS (CacheMode.GET en
+ * Hibernate): leen de la caché de segundo nivel pero no guardan en ella lo que cargan. Las inscripciones por
+ * JDBC desalojan el curso y su colección, y la siguiente lectura puede ir a una réplica atrasada; si esa fila
+ * entrara en la caché, seguiría atrasada hasta el TTL de la región en vez de hasta que la réplica se ponga al
+ * día. La caché la llenan las escrituras y las lecturas hechas en transacciones de escritura (primario).
+ * <p>
+ * No depende de que la réplica esté disponible al empezar la transacción: la conexión se elige después,
+ * con la primera sentencia, y el monitor puede cambiar de estado entre medio.
+ */
+public class DialectoReplicaLectura extends HibernateJpaDialect {
+
+    private final ObjectProvider<MonitorReplica> monitorReplica;
+
+    public DialectoReplicaLectura(ObjectProvider<MonitorReplica> monitorReplica) {
+        this.monitorReplica = monitorReplica;
+    }
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        Object datos = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly() || !monitorReplica.getObject().isConfigurada()) {
+            return datos;
+        }
+        // EntityManager.find aplica la propiedad de la sesión, no solo su CacheMode
+        Object anterior = entityManager.getProperties().get(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE);
+        entityManager.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        return new DatosLecturaReplica(datos, entityManager, anterior);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof DatosLecturaReplica datos) {
+            // Con open-in-view la sesión sigue abierta para las transacciones siguientes de la solicitud
+            if (datos.entityManager().isOpen()) {
+                datos.entityManager().setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE,
+                        datos.modoAnterior() != null ? datos.modoAnterior() : CacheStoreMode.USE);
+            }
+            super.cleanupTransaction(datos.datosHibernate());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    private record DatosLecturaReplica(Object datosHibernate, EntityManager entityManager, Object modoAnterior) {
+    }
+}
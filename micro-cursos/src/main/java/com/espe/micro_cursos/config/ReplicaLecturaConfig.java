@@ -0,0 +1,125 @@
+package com.espe.micro_cursos.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+
+/**
+ * Réplica de lectura: las transacciones de solo lectura ({@code @Transactional(readOnly = true)}, también
+ * las de los métodos de lectura de Spring Data) usan el pool de la réplica; las escrituras y el código sin
+ * transacción, el primario de spring.datasource.*. En esas transacciones Spring deja la sesión de Hibernate
+ * en FlushMode.MANUAL y sus entidades en solo lectura, sin copia para el dirty checking; con réplica
+ * configurada, además, sin guardar en la caché de segundo nivel lo que leen (ver DialectoReplicaLectura).
+ * <p>
+ * La réplica se configura con cursos.datasource.replica.* (url vacía = sin réplica, todo va al primario).
+ * Requiere hibernate.connection.handling_mode=DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION: con
+ * open-in-view la sesión retendría la conexión de la primera transacción (p. ej. la de la réplica) para
+ * las escrituras posteriores de la misma solicitud.
+ */
+@Configuration
+public class ReplicaLecturaConfig {
+
+    private static final String PREFIJO = "cursos.datasource.replica.";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propiedades) {
+        return propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public MonitorReplica monitorReplica(Environment environment, DataSourceProperties primario,
+                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(environment);
+        String url = binder.bind(PREFIJO + "url", String.class).orElse("");
+        HikariDataSource replica = StringUtils.hasText(url) ? crearReplica(binder, url, primario, meterRegistry) : null;
+        return new MonitorReplica(replica,
+                binder.bind(PREFIJO + "intervalo-verificacion", Duration.class).orElse(Duration.ofSeconds(5)),
+                binder.bind(PREFIJO + "retraso-maximo", Duration.class).orElse(Duration.ofSeconds(5)),
+                binder.bind(PREFIJO + "consulta-retraso", String.class).orElse(""));
+    }
+
+    private static HikariDataSource crearReplica(Binder binder, String url, DataSourceProperties primario,
+                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(binder.bind(PREFIJO + "username", String.class).orElse(primario.determineUsername()))
+                .password(binder.bind(PREFIJO + "password", String.class).orElse(primario.determinePassword()))
+                .build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        binder.bind(PREFIJO + "hikari", Bindable.ofInstance(replica));
+        // Mismas métricas hikaricp.* que el pool primario, con pool="replica"
+        meterRegistry.ifAvailable(registry -> replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        return replica;
+    }
+
+    /**
+     * Pone DialectoReplicaLectura en la fábrica de EntityManager antes de inicializarla; el
+     * JpaTransactionManager toma el dialecto de la fábrica.
+     */
+    @Bean
+    public static BeanPostProcessor dialectoReplicaLectura(ObjectProvider<MonitorReplica> monitorReplica) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean fabrica) {
+                    fabrica.setJpaDialect(new DialectoReplicaLectura(monitorReplica));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @Primary
+    public LazyConnectionDataSourceProxy dataSource(HikariDataSource dataSourcePrimario, MonitorReplica monitorReplica) {
+        return new LazyConnectionDataSourceProxy(new DataSourceEnrutado(dataSourcePrimario, monitorReplica));
+    }
+
+    /**
+     * Conexiones entregadas por destino (datasource.conexiones, destino=primario|replica),
+     * disponibilidad de la réplica (1/0) y su último retraso medido en segundos.
+     */
+    @Bean
+    public MeterBinder metricasReplicaLectura(LazyConnectionDataSourceProxy dataSource, MonitorReplica monitorReplica) {
+        DataSourceEnrutado enrutado = (DataSourceEnrutado) dataSource.getTargetDataSource();
+        return registry -> {
+            FunctionCounter.builder("datasource.conexiones", enrutado, DataSourceEnrutado::getConexionesPrimario)
+                    .description("Conexiones físicas pedidas por destino")
+                    .tag("destino", "primario")
+                    .register(registry);
+            FunctionCounter.builder("datasource.conexiones", enrutado, DataSourceEnrutado::getConexionesReplica)
+                    .description("Conexiones físicas pedidas por destino")
+                    .tag("destino", "replica")
+                    .register(registry);
+            Gauge.builder("datasource.replica.disponible", monitorReplica, m -> m.isDisponible() ? 1 : 0)
+                    .description("1 si las lecturas van a la réplica, 0 si van al primario")
+                    .register(registry);
+            Gauge.builder("datasource.replica.retraso", monitorReplica, MonitorReplica::getRetrasoSegundos)
+                    .description("Último retraso medido de la réplica")
+                    .baseUnit("seconds")
+                    .register(registry);
+        };
+    }
+}
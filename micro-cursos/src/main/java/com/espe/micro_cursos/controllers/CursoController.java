@@ -1,13 +1,25 @@
 package com.espe.micro_cursos.controllers;
 
+import com.espe.contrato_estudiante.EstudianteDto;
+import com.espe.micro_cursos.clients.EstudianteNoEncontradoException;
+import com.espe.micro_cursos.export.FormatoExportacion;
+import com.espe.micro_cursos.model.dto.EstudianteInscrito;
+import com.espe.micro_cursos.model.dto.CursoResumen;
+import com.espe.micro_cursos.model.dto.InscripcionMasiva;
+import com.espe.micro_cursos.model.dto.ResultadoBusqueda;
 import com.espe.micro_cursos.model.entity.Curso;
-import com.espe.micro_cursos.model.entity.Estudiante;
+import com.espe.micro_cursos.pagination.KeysetCursor;
+import com.espe.micro_cursos.pagination.KeysetPage;
+import com.espe.micro_cursos.services.CursoModificadoException;
 import com.espe.micro_cursos.services.CursoService;
 import feign.FeignException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.beans.factory.annotation.Value;
 
 
@@ -15,7 +27,7 @@ import java.util.*;
 
 @RestController
 @RequestMapping("/api/cursos")
-@CrossOrigin(origins = "${CORS_ALLOWED_ORIGINS:*}")
+@CrossOrigin(origins = "${CORS_ALLOWED_ORIGINS:*}", exposedHeaders = HttpHeaders.ETAG)
 public class CursoController {
 
     @Value("${CORS_ALLOWED_ORIGINS:*}")
@@ -24,36 +36,163 @@ public class CursoController {
     @Autowired
     private CursoService cursoService;
 
+    @Value("${cursos.paginacion.limite-por-defecto:50}")
+    private int limitePorDefecto;
+
+    @Value("${cursos.paginacion.limite-maximo:500}")
+    private int limiteMaximo;
+
+    @Value("${cursos.creacion-masiva.maximo-cursos:1000}")
+    private int maximoCreacionMasiva;
+
+    @Value("${cursos.inscripcion-masiva.maximo-estudiantes:5000}")
+    private int maximoInscripcionMasiva;
+
     /**
-     * Endpoint para listar todos los cursos.
+     * Endpoint para listar los cursos por páginas (paginación por keyset sobre el ID).
      *
-     * @return ResponseEntity con la lista de cursos y mensaje
+     * @param limit Número máximo de cursos a devolver
+     * @param after Cursor opaco devuelto como nextCursor en la página anterior
+     * @return ResponseEntity con la página de cursos, el cursor siguiente y mensaje
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> listarCursos() {
-        List<Curso> cursos = cursoService.listarTodos();
+    public ResponseEntity<Map<String, Object>> listarCursos(@RequestParam(required = false) Integer limit,
+                                                            @RequestParam(required = false) String after) {
         Map<String, Object> response = new HashMap<>();
+        long despuesDeId;
+        try {
+            despuesDeId = KeysetCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            response.put("message", "Cursor de paginación inválido.");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+        int limite = KeysetPage.resolverLimite(limit, limitePorDefecto, limiteMaximo);
+        KeysetPage<Curso> pagina = cursoService.listarPagina(despuesDeId, limite);
         response.put("message", "Cursos obtenidos exitosamente 222.");
-        response.put("data", cursos);
+        response.put("data", pagina.getItems());
+        response.put("limit", limite);
+        response.put("nextCursor", pagina.getNextCursor());
         response.put("origins", "${CORS_ALLOWED_ORIGINS}");
         response.put("allowedOrigins", allowedOrigins);
         return ResponseEntity.ok(response);
     }
 
     /**
-     * Endpoint para obtener un curso por su ID.
+     * Endpoint para listar los cursos en forma resumida (ID, nombre y créditos), sin inscripciones.
+     * Pensado para listas desplegables; usa la misma paginación por keyset que el listado completo.
+     *
+     * @param limit Número máximo de cursos a devolver
+     * @param after Cursor opaco devuelto como nextCursor en la página anterior
+     * @return ResponseEntity con la página de resúmenes y el cursor siguiente, o 400 si el cursor no es válido
+     */
+    @GetMapping("/resumen")
+    public ResponseEntity<Map<String, Object>> listarResumenes(@RequestParam(required = false) Integer limit,
+                                                               @RequestParam(required = false) String after) {
+        Map<String, Object> response = new HashMap<>();
+        long despuesDeId;
+        try {
+            despuesDeId = KeysetCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            response.put("message", "Cursor de paginación inválido.");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+        int limite = KeysetPage.resolverLimite(limit, limitePorDefecto, limiteMaximo);
+        KeysetPage<CursoResumen> pagina = cursoService.listarResumenes(despuesDeId, limite);
+        response.put("message", "Cursos obtenidos exitosamente.");
+        response.put("data", pagina.getItems());
+        response.put("limit", limite);
+        response.put("nextCursor", pagina.getNextCursor());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint para buscar cursos en forma resumida por nombre y/o créditos, ordenados por nombre.
+     *
+     * @param nombre Texto que debe contener el nombre (sin distinguir mayúsculas)
+     * @param creditos Número de créditos
+     * @param limit Número máximo de cursos a devolver
+     * @return ResponseEntity con los resúmenes encontrados
+     */
+    @GetMapping("/resumen/buscar")
+    public ResponseEntity<Map<String, Object>> buscarResumenes(@RequestParam(required = false) String nombre,
+                                                               @RequestParam(required = false) Integer creditos,
+                                                               @RequestParam(required = false) Integer limit) {
+        int limite = KeysetPage.resolverLimite(limit, limitePorDefecto, limiteMaximo);
+        String texto = nombre == null || nombre.isBlank() ? null : nombre.trim();
+        List<CursoResumen> cursos = cursoService.buscarResumenes(texto, creditos, limite);
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Cursos encontrados.");
+        response.put("data", cursos);
+        response.put("limit", limite);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint para listar los cursos ordenados por número de inscritos, para tableros.
+     * Lee el contador mantenido en cada curso; no recorre la tabla de inscripciones.
+     *
+     * @param orden desc (más inscritos primero, por defecto) o asc
+     * @param limit Número máximo de cursos a devolver
+     * @return ResponseEntity con los cursos y su total de inscritos, o 400 si el orden no es válido
+     */
+    @GetMapping("/mas-inscritos")
+    public ResponseEntity<Map<String, Object>> listarMasInscritos(@RequestParam(defaultValue = "desc") String orden,
+                                                                  @RequestParam(required = false) Integer limit) {
+        Map<String, Object> response = new HashMap<>();
+        if (!orden.equalsIgnoreCase("desc") && !orden.equalsIgnoreCase("asc")) {
+            response.put("message", "Orden inválido. Use asc o desc.");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+        int limite = KeysetPage.resolverLimite(limit, limitePorDefecto, limiteMaximo);
+        List<CursoResumen> cursos = cursoService.listarPorInscritos(orden.equalsIgnoreCase("desc"), limite);
+        response.put("message", "Cursos ordenados por número de inscritos.");
+        response.put("data", cursos);
+        response.put("limit", limite);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint para exportar todos los cursos en streaming, sin armar la lista en memoria.
+     * Las inscripciones se exportan aparte en /api/curso-estudiante/export.
+     *
+     * @param format ndjson (un curso por línea) o json (arreglo)
+     * @return ResponseEntity cuyo cuerpo se escribe a medida que se leen los cursos, o 400 si el formato no es válido
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportarCursos(@RequestParam(defaultValue = "ndjson") String format) {
+        FormatoExportacion formato;
+        try {
+            formato = FormatoExportacion.desde(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody cuerpo = salida -> cursoService.exportarCursos(formato, salida);
+        return ResponseEntity.ok().contentType(formato.getMediaType()).body(cuerpo);
+    }
+
+    /**
+     * Endpoint para obtener un curso por su ID. Responde con un ETag basado en la versión del curso;
+     * si el cliente envía If-None-Match con ese ETag se devuelve 304 sin cargar ni serializar el curso.
      *
      * @param id ID del curso
-     * @return ResponseEntity con el curso encontrado o error 404 si no existe
+     * @param ifNoneMatch ETag(s) que el cliente ya tiene en caché
+     * @return ResponseEntity con el curso encontrado, 304 si no cambió o error 404 si no existe
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> obtenerCurso(@PathVariable Long id) {
+    public ResponseEntity<Map<String, Object>> obtenerCurso(@PathVariable Long id,
+                                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         Map<String, Object> response = new HashMap<>();
+        if (ifNoneMatch != null) {
+            Optional<Long> version = cursoService.obtenerVersion(id);
+            if (version.isPresent() && ETags.coincide(ifNoneMatch, ETags.de(version.get()), false)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.de(version.get())).build();
+            }
+        }
         try {
             Curso curso = cursoService.obtenerPorId(id);
             response.put("message", "Curso encontrado exitosamente.");
             response.put("data", curso);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(ETags.de(curso.getVersion())).body(response);
         } catch (RuntimeException e) {
             response.put("message", "Curso no encontrado con ID: " + id);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
@@ -72,28 +211,54 @@ public class CursoController {
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Curso creado exitosamente.");
         response.put("data", cursoCreado);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.de(cursoCreado.getVersion())).body(response);
+    }
+
+    /**
+     * Endpoint para crear varios cursos en una sola transacción; Hibernate envía los INSERT en lotes JDBC.
+     *
+     * @param cursos Cursos a crear
+     * @return ResponseEntity con los cursos creados y mensaje, o 413 si superan el máximo por solicitud
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> crearCursos(@RequestBody List<Curso> cursos) {
+        Map<String, Object> response = new HashMap<>();
+        if (cursos.size() > maximoCreacionMasiva) {
+            response.put("message", "Se permiten como máximo " + maximoCreacionMasiva + " cursos por solicitud.");
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(response);
+        }
+        List<Curso> cursosCreados = cursoService.guardarCursos(cursos);
+        response.put("message", cursosCreados.size() + " cursos creados exitosamente.");
+        response.put("data", cursosCreados);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     /**
-     * Endpoint para actualizar un curso existente.
+     * Endpoint para actualizar un curso existente. Si se envía If-Match, el curso solo se actualiza
+     * cuando su versión actual coincide con el ETag indicado; si no, se responde 412.
      *
      * @param id ID del curso a actualizar
      * @param curso Objeto Curso con los datos actualizados
-     * @return ResponseEntity con el curso actualizado o error 404 si no existe
+     * @param ifMatch ETag de la versión sobre la que el cliente hizo sus cambios
+     * @return ResponseEntity con el curso actualizado, 412 si la versión no coincide o error 404 si no existe
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> actualizarCurso(@PathVariable Long id, @RequestBody Curso curso) {
+    public ResponseEntity<Map<String, Object>> actualizarCurso(@PathVariable Long id, @RequestBody Curso curso,
+                                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Map<String, Object> response = new HashMap<>();
         try {
-            Curso cursoExistente = cursoService.obtenerPorId(id);
-            cursoExistente.setNombre(curso.getNombre());
-            cursoExistente.setDescripcion(curso.getDescripcion());
-            cursoExistente.setCreditos(curso.getCreditos());
-            Curso cursoActualizado = cursoService.guardarCurso(cursoExistente);
+            Optional<Curso> cursoActualizado = cursoService.actualizarCurso(id, curso,
+                    version -> ifMatch == null || ETags.coincide(ifMatch, ETags.de(version), true));
+            if (cursoActualizado.isEmpty()) {
+                response.put("message", "Curso no encontrado con ID: " + id);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
             response.put("message", "Curso actualizado exitosamente.");
-            response.put("data", cursoActualizado);
-            return ResponseEntity.ok(response);
+            response.put("data", cursoActualizado.get());
+            return ResponseEntity.ok().eTag(ETags.de(cursoActualizado.get().getVersion())).body(response);
+        } catch (CursoModificadoException e) {
+            response.put("message", "El curso fue modificado por otra solicitud; obtenga la versión actual.");
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(ETags.de(e.getVersionActual())).body(response);
         } catch (RuntimeException e) {
             response.put("message", "Curso no encontrado con ID: " + id);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
@@ -171,13 +336,36 @@ public class CursoController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Endpoint para buscar cursos por texto en el nombre y la descripción, ordenados por relevancia.
+     * Todos los términos deben aparecer (como palabra o fragmento) en el curso.
+     *
+     * @param q Términos a buscar separados por espacios
+     * @param limit Número máximo de cursos a devolver
+     * @param offset Número de resultados a omitir
+     * @return ResponseEntity con los cursos encontrados y el total de coincidencias
+     */
+    @GetMapping("/buscar")
+    public ResponseEntity<Map<String, Object>> buscar(@RequestParam String q,
+                                                      @RequestParam(required = false) Integer limit,
+                                                      @RequestParam(defaultValue = "0") int offset) {
+        int limite = KeysetPage.resolverLimite(limit, limitePorDefecto, limiteMaximo);
+        ResultadoBusqueda resultado = cursoService.buscarPorTexto(q, Math.max(0, offset), limite);
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Cursos encontrados para '" + q + "'.");
+        response.put("data", resultado.getItems());
+        response.put("total", resultado.getTotal());
+        response.put("limit", limite);
+        response.put("offset", Math.max(0, offset));
+        return ResponseEntity.ok(response);
+    }
 
     @PutMapping("asignar-estudiante/{cursoId}")
-    public ResponseEntity<?> asignarUsuario(@RequestBody Estudiante estudiante, @PathVariable Long cursoId) {
-        Optional<Estudiante> o;
+    public ResponseEntity<?> asignarUsuario(@RequestBody EstudianteDto estudiante, @PathVariable Long cursoId) {
+        Optional<EstudianteDto> o;
         try {
             o = cursoService.addEstudiante(estudiante, cursoId);
-        } catch (FeignException e) {
+        } catch (FeignException | EstudianteNoEncontradoException e) {
             return  ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Collections.singletonMap("mensaje", "No existe el usuario por el id: " + estudiante.getId() +", Error: " + e.getMessage()));
         }
@@ -189,13 +377,88 @@ public class CursoController {
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * Endpoint para inscribir varios estudiantes en un curso en una sola operación.
+     *
+     * @param cursoId ID del curso
+     * @param estudianteIds IDs de los estudiantes a inscribir
+     * @return ResponseEntity con el resultado por estudiante o error 404 si el curso no existe
+     */
+    @PutMapping("/{cursoId}/estudiantes:bulk")
+    public ResponseEntity<Map<String, Object>> asignarEstudiantes(@PathVariable Long cursoId, @RequestBody List<Long> estudianteIds) {
+        Map<String, Object> response = new HashMap<>();
+        if (estudianteIds.size() > maximoInscripcionMasiva) {
+            response.put("message", "Se permiten como máximo " + maximoInscripcionMasiva + " estudiantes por solicitud.");
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(response);
+        }
+
+        Optional<InscripcionMasiva> resultado;
+        try {
+            resultado = cursoService.addEstudiantes(estudianteIds, cursoId);
+        } catch (FeignException e) {
+            response.put("message", "No se pudo validar los estudiantes en micro-estudiante, Error: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(response);
+        } catch (DataIntegrityViolationException e) {
+            response.put("message", "El curso cambió mientras se procesaba la inscripción; vuelva a intentarlo.");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+
+        if (resultado.isEmpty()) {
+            response.put("message", "Curso no encontrado con ID: " + cursoId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        response.put("message", "Inscripción masiva procesada.");
+        response.put("data", resultado.get());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint para listar los estudiantes inscritos en un curso con sus datos.
+     * Si micro-estudiante no responde a tiempo, la página se entrega parcial y los
+     * estudiantes sin resolver aparecen con estado PENDIENTE.
+     *
+     * @param cursoId ID del curso
+     * @param limit Número máximo de inscripciones a devolver
+     * @param after Cursor opaco devuelto como nextCursor en la página anterior
+     * @return ResponseEntity con la página de estudiantes o error 404 si el curso no existe
+     */
+    @GetMapping("/{cursoId}/estudiantes")
+    public ResponseEntity<Map<String, Object>> listarEstudiantes(@PathVariable Long cursoId,
+                                                                 @RequestParam(required = false) Integer limit,
+                                                                 @RequestParam(required = false) String after) {
+        Map<String, Object> response = new HashMap<>();
+        long despuesDeId;
+        try {
+            despuesDeId = KeysetCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            response.put("message", "Cursor de paginación inválido.");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+        int limite = KeysetPage.resolverLimite(limit, limitePorDefecto, limiteMaximo);
+        Optional<KeysetPage<EstudianteInscrito>> pagina = cursoService.listarEstudiantes(cursoId, despuesDeId, limite);
+        if (pagina.isEmpty()) {
+            response.put("message", "Curso no encontrado con ID: " + cursoId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        List<Long> pendientes = pagina.get().getItems().stream()
+                .filter(e -> e.getEstado() == EstudianteInscrito.Estado.PENDIENTE)
+                .map(EstudianteInscrito::getEstudianteId)
+                .toList();
+        response.put("message", "Estudiantes del curso obtenidos exitosamente.");
+        response.put("data", pagina.get().getItems());
+        response.put("limit", limite);
+        response.put("nextCursor", pagina.get().getNextCursor());
+        response.put("parcial", !pendientes.isEmpty());
+        response.put("pendientes", pendientes);
+        return ResponseEntity.ok(response);
+    }
 
     @DeleteMapping("remover-estudiante/{cursoId}")
-    public ResponseEntity<?> removerEstudiante(@RequestBody Estudiante estudiante, @PathVariable Long cursoId) {
+    public ResponseEntity<?> removerEstudiante(@RequestBody EstudianteDto estudiante, @PathVariable Long cursoId) {
         boolean o;
         try {
             o = cursoService.removerEstudiante(estudiante, cursoId);
-        } catch (FeignException e) {
+        } catch (FeignException | EstudianteNoEncontradoException e) {
             return  ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body  (Collections.singletonMap("mensaje", "No existe el estudiante por el id: " + estudiante.getId() +", Error: " + e.getMessage()));
         }
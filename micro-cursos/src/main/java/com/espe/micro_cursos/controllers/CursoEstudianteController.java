@@ -1,48 +1,148 @@
 package com.espe.micro_cursos.controllers;
 
+import com.espe.micro_cursos.export.ExportadorJson;
+import com.espe.micro_cursos.export.FormatoExportacion;
+import com.espe.micro_cursos.inscripcion.InscripcionDiferida;
+import com.espe.micro_cursos.model.dto.SeguimientoInscripcion;
 import com.espe.micro_cursos.model.entity.CursoEstudiante;
+import com.espe.micro_cursos.pagination.KeysetCursor;
+import com.espe.micro_cursos.pagination.KeysetPage;
 import com.espe.micro_cursos.repositories.CursoEstudianteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/curso-estudiante")
-@CrossOrigin(origins = "${CORS_ALLOWED_ORIGINS:*}")
+@CrossOrigin(origins = "${CORS_ALLOWED_ORIGINS:*}", exposedHeaders = CursoEstudianteController.NEXT_CURSOR_HEADER)
 public class CursoEstudianteController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private CursoEstudianteRepository cursoEstudianteRepository;
 
+    @Autowired
+    private ExportadorJson exportadorJson;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InscripcionDiferida inscripcionDiferida;
+
+    @Value("${cursos.paginacion.limite-por-defecto:50}")
+    private int limitePorDefecto;
+
+    @Value("${cursos.paginacion.limite-maximo:500}")
+    private int limiteMaximo;
+
+    /**
+     * Crea la relación. Con la inscripción diferida habilitada responde 202 con el seguimiento (Location apunta a
+     * su estado) y la escribe después en lote; si la cola está llena, o sin el modo diferido, la crea en el acto (201).
+     * Las escrituras ajustan el total de inscritos y la versión del curso afectado en la misma transacción.
+     */
     @PostMapping
-    public ResponseEntity<CursoEstudiante> asignarEstudianteACurso(@RequestBody CursoEstudiante cursoEstudiante) {
+    @Transactional
+    public ResponseEntity<?> asignarEstudianteACurso(@RequestBody CursoEstudiante cursoEstudiante) {
+        Optional<SeguimientoInscripcion> diferida =
+                inscripcionDiferida.encolar(cursoEstudiante.getCursoId(), cursoEstudiante.getEstudianteId());
+        if (diferida.isPresent()) {
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/curso-estudiante/inscripciones/" + diferida.get().getId()))
+                    .body(diferida.get());
+        }
         CursoEstudiante nuevaRelacion = cursoEstudianteRepository.save(cursoEstudiante);
+        cursoEstudianteRepository.actualizarInscritosCurso(nuevaRelacion.getCursoId(), 1);
         return ResponseEntity.status(HttpStatus.CREATED).body(nuevaRelacion);
     }
 
+    /**
+     * Estado de una inscripción diferida: PENDIENTE hasta que el escritor la procesa y luego su resultado.
+     * 404 si el ID no existe o su resultado ya venció.
+     */
+    @GetMapping("/inscripciones/{id}")
+    public ResponseEntity<SeguimientoInscripcion> obtenerInscripcionDiferida(@PathVariable UUID id) {
+        return inscripcionDiferida.consultar(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Lista las relaciones por páginas (keyset sobre el ID). El cuerpo sigue siendo un arreglo;
+     * el cursor de la página siguiente viaja en la cabecera X-Next-Cursor.
+     */
     @GetMapping
-    public ResponseEntity<List<CursoEstudiante>> obtenerRelaciones() {
-        List<CursoEstudiante> relaciones = cursoEstudianteRepository.findAll();
-        return ResponseEntity.ok(relaciones);
+    public ResponseEntity<List<CursoEstudiante>> obtenerRelaciones(@RequestParam(required = false) Integer limit,
+                                                                   @RequestParam(required = false) String after) {
+        long despuesDeId;
+        try {
+            despuesDeId = KeysetCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int limite = KeysetPage.resolverLimite(limit, limitePorDefecto, limiteMaximo);
+        List<CursoEstudiante> filas = cursoEstudianteRepository.findByIdGreaterThanOrderByIdAsc(despuesDeId, Limit.of(limite + 1));
+        KeysetPage<CursoEstudiante> pagina = KeysetPage.of(filas, limite, CursoEstudiante::getId);
+        if (pagina.hasNext()) {
+            return ResponseEntity.ok().header(NEXT_CURSOR_HEADER, pagina.getNextCursor()).body(pagina.getItems());
+        }
+        return ResponseEntity.ok(pagina.getItems());
+    }
+
+    /**
+     * Exporta todas las relaciones en streaming (NDJSON o arreglo JSON) sin armar la lista en memoria.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportarRelaciones(@RequestParam(defaultValue = "ndjson") String format) {
+        FormatoExportacion formato;
+        try {
+            formato = FormatoExportacion.desde(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody cuerpo = salida -> exportadorJson.exportar(cursoEstudianteRepository::streamTodas,
+                objectMapper.writerFor(CursoEstudiante.class), formato, salida);
+        return ResponseEntity.ok().contentType(formato.getMediaType()).body(cuerpo);
     }
 
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<Void> eliminarRelacion(@PathVariable Long id) {
+        Optional<CursoEstudiante> relacion = cursoEstudianteRepository.findById(id);
         cursoEstudianteRepository.deleteById(id);
+        relacion.ifPresent(r -> cursoEstudianteRepository.actualizarInscritosCurso(r.getCursoId(), -1));
         return ResponseEntity.noContent().build();
     }
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<CursoEstudiante> actualizarRelacion(
             @PathVariable Long id, 
             @RequestBody CursoEstudiante detallesActualizados) {
         return cursoEstudianteRepository.findById(id)
                 .map(relacionExistente -> {
+                    Long cursoAnterior = relacionExistente.getCursoId();
                     relacionExistente.setEstudianteId(detallesActualizados.getEstudianteId());
                     relacionExistente.setCursoId(detallesActualizados.getCursoId());
                     CursoEstudiante relacionActualizada = cursoEstudianteRepository.save(relacionExistente);
+                    if (cursoAnterior.equals(relacionActualizada.getCursoId())) {
+                        cursoEstudianteRepository.actualizarInscritosCurso(cursoAnterior, 0);
+                    } else {
+                        // La inscripción se mueve de un curso a otro
+                        cursoEstudianteRepository.actualizarInscritosCurso(cursoAnterior, -1);
+                        cursoEstudianteRepository.actualizarInscritosCurso(relacionActualizada.getCursoId(), 1);
+                    }
                     return ResponseEntity.ok(relacionActualizada);
                 })
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
@@ -0,0 +1,50 @@
+package com.espe.micro_cursos.controllers;
+
+/**
+ * Utilidades para ETags fuertes basados en la columna de versión de las entidades.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * ETag fuerte para la versión indicada.
+     *
+     * @param version valor de la columna @Version
+     * @return ETag entre comillas
+     */
+    public static String de(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Comprueba si una cabecera If-None-Match / If-Match contiene el ETag.
+     *
+     * @param cabecera valor de la cabecera, puede contener varios ETags separados por comas o "*"
+     * @param etag ETag actual del recurso
+     * @param fuerte true para If-Match (comparación fuerte), false para If-None-Match (comparación débil)
+     * @return true si alguno de los ETags de la cabecera coincide
+     */
+    public static boolean coincide(String cabecera, String etag, boolean fuerte) {
+        if (cabecera == null || cabecera.isBlank()) {
+            return false;
+        }
+        for (String candidato : cabecera.split(",")) {
+            String valor = candidato.trim();
+            if (valor.equals("*")) {
+                return true;
+            }
+            if (valor.startsWith("W/")) {
+                if (fuerte) {
+                    continue;
+                }
+                valor = valor.substring(2);
+            }
+            if (valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
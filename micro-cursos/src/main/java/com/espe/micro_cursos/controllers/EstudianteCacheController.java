@@ -0,0 +1,58 @@
+package com.espe.micro_cursos.controllers;
+
+import com.espe.micro_cursos.clients.EstudianteCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache/estudiantes")
+@CrossOrigin(origins = "${CORS_ALLOWED_ORIGINS:*}")
+public class EstudianteCacheController {
+
+    @Autowired
+    private EstudianteCache estudianteCache;
+
+    /**
+     * Endpoint para consultar los contadores de la caché de estudiantes.
+     *
+     * @return ResponseEntity con aciertos, fallos, desalojos y tamaño
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> obtenerEstadisticas() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Estadísticas de la caché de estudiantes.");
+        response.put("data", estudianteCache.estadisticas());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint para invalidar un estudiante de la caché, por ejemplo tras modificarlo en micro-estudiante.
+     *
+     * @param id ID del estudiante
+     * @return ResponseEntity con mensaje de confirmación
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> invalidar(@PathVariable Long id) {
+        estudianteCache.invalidar(id);
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Estudiante " + id + " eliminado de la caché.");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint para vaciar por completo la caché de estudiantes.
+     *
+     * @return ResponseEntity con mensaje de confirmación
+     */
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> invalidarTodo() {
+        estudianteCache.invalidarTodo();
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Caché de estudiantes vaciada.");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,79 @@
+package com.espe.micro_cursos.export;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Escribe directamente en la respuesta las filas leídas en streaming desde JPA, como NDJSON o arreglo JSON.
+ * Cada entidad se separa del contexto de persistencia después de serializarla y no se guarda en la caché
+ * de segundo nivel, de modo que la memoria usada no depende del tamaño de la tabla.
+ */
+@Component
+public class ExportadorJson {
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Recorre la consulta y serializa cada fila en la salida. Abre su propia transacción de solo lectura
+     * porque se invoca desde el hilo asíncrono del {@code StreamingResponseBody}, fuera de la solicitud.
+     *
+     * @param consulta consulta del repositorio que devuelve un Stream (requiere transacción abierta)
+     * @param escritor ObjectWriter configurado para el tipo de fila
+     * @param formato NDJSON o arreglo JSON
+     * @param salida cuerpo de la respuesta; no se cierra
+     * @return número de filas escritas
+     * @throws IOException si el cliente cierra la conexión o falla la escritura
+     */
+    @Transactional(readOnly = true)
+    public <T> long exportar(Supplier<Stream<T>> consulta, ObjectWriter escritor,
+                             FormatoExportacion formato, OutputStream salida) throws IOException {
+        OutputStream buffer = new BufferedOutputStream(salida, TAMANO_BUFFER);
+        long filas = 0;
+        if (formato == FormatoExportacion.JSON) {
+            buffer.write('[');
+        }
+        // Las filas no pasan por la caché de segundo nivel. La sugerencia CACHE_MODE de la consulta no alcanza:
+        // Hibernate restaura el modo de la sesión al devolver el Stream, antes de leer las filas
+        Session sesion = entityManager.unwrap(Session.class);
+        CacheMode modoAnterior = sesion.getCacheMode();
+        sesion.setCacheMode(CacheMode.IGNORE);
+        try (Stream<T> stream = consulta.get()) {
+            Iterator<T> iterador = stream.iterator();
+            while (iterador.hasNext()) {
+                T fila = iterador.next();
+                if (formato == FormatoExportacion.JSON && filas > 0) {
+                    buffer.write(',');
+                }
+                // writeValue(OutputStream) cerraría la salida; se serializa a bytes y se escribe en el buffer
+                buffer.write(escritor.writeValueAsBytes(fila));
+                if (formato == FormatoExportacion.NDJSON) {
+                    buffer.write('\n');
+                }
+                entityManager.detach(fila);
+                filas++;
+            }
+        } finally {
+            sesion.setCacheMode(modoAnterior);
+        }
+        if (formato == FormatoExportacion.JSON) {
+            buffer.write(']');
+        }
+        buffer.flush();
+        return filas;
+    }
+}
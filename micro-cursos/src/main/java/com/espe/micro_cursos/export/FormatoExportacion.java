@@ -0,0 +1,36 @@
+package com.espe.micro_cursos.export;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Formatos de salida de las exportaciones en streaming.
+ */
+public enum FormatoExportacion {
+    // Un objeto JSON por línea
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    // Un único arreglo JSON
+    JSON(MediaType.APPLICATION_JSON);
+
+    private final MediaType mediaType;
+
+    FormatoExportacion(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Obtiene el formato a partir del parámetro {@code format} de la solicitud.
+     *
+     * @param valor "ndjson" o "json", sin distinguir mayúsculas
+     * @return formato correspondiente
+     * @throws IllegalArgumentException si el formato no es soportado
+     */
+    public static FormatoExportacion desde(String valor) {
+        return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+    }
+}
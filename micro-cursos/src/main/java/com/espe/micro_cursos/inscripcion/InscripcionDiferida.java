@@ -0,0 +1,270 @@
+package com.espe.micro_cursos.inscripcion;
+
+import com.espe.micro_cursos.model.dto.EstadoInscripcion;
+import com.espe.micro_cursos.model.dto.SeguimientoInscripcion;
+import com.espe.micro_cursos.repositories.CursoEstudianteRepository;
+import com.espe.micro_cursos.repositories.CursoRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Inscripción diferida (write-behind) de POST /api/curso-estudiante, activa con cursos.inscripcion-diferida.habilitada.
+ * La solicitud se encola en memoria y se responde 202 con un ID de seguimiento; un único hilo escritor vacía la
+ * cola en lotes de hasta tamano-lote relaciones, descarta las que ya existen según la restricción única
+ * (estudiante_id, curso_id) y las de cursos inexistentes, e inserta el resto con un solo batch JDBC.
+ * Si la cola está llena, {@link #encolar} devuelve vacío y el controlador inscribe de forma síncrona:
+ * la contrapresión se traduce en latencia y no en inscripciones perdidas.
+ * La cola vive solo en memoria: al detenerse normalmente se escribe lo pendiente, pero una caída abrupta lo pierde.
+ */
+@Component
+public class InscripcionDiferida implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(InscripcionDiferida.class);
+
+    private final CursoEstudianteRepository cursoEstudianteRepository;
+    private final CursoRepository cursoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitada;
+    private final int tamanoLote;
+    private final BlockingQueue<SeguimientoInscripcion> cola;
+    private final Cache<UUID, SeguimientoInscripcion> seguimientos;
+    private final Map<EstadoInscripcion, LongAdder> resultados = new EnumMap<>(EstadoInscripcion.class);
+    private final LongAdder sincronas = new LongAdder();
+    private final LongAdder lotes = new LongAdder();
+    private final Thread escritor;
+    private volatile boolean activa = true;
+
+    public InscripcionDiferida(CursoEstudianteRepository cursoEstudianteRepository, CursoRepository cursoRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${cursos.inscripcion-diferida.habilitada:false}") boolean habilitada,
+                               @Value("${cursos.inscripcion-diferida.capacidad:10000}") int capacidad,
+                               @Value("${cursos.inscripcion-diferida.tamano-lote:500}") int tamanoLote,
+                               @Value("${cursos.inscripcion-diferida.retencion:1h}") Duration retencion,
+                               @Value("${cursos.inscripcion-diferida.seguimientos-maximos:100000}") long seguimientosMaximos) {
+        this.cursoEstudianteRepository = cursoEstudianteRepository;
+        this.cursoRepository = cursoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.habilitada = habilitada;
+        this.tamanoLote = tamanoLote;
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        // Las pendientes también ocupan un lugar: el máximo se suma a la capacidad para no descartarlas antes de escribirlas
+        this.seguimientos = Caffeine.newBuilder()
+                .maximumSize(capacidad + seguimientosMaximos)
+                .expireAfterWrite(retencion)
+                .build();
+        for (EstadoInscripcion estado : EstadoInscripcion.values()) {
+            resultados.put(estado, new LongAdder());
+        }
+        if (habilitada) {
+            escritor = new Thread(this::escribir, "inscripcion-diferida");
+            escritor.setDaemon(true);
+            escritor.start();
+        } else {
+            escritor = null;
+        }
+    }
+
+    /**
+     * Encola la inscripción para el escritor.
+     *
+     * @return el seguimiento en estado PENDIENTE, o vacío si el modo diferido está deshabilitado, se está
+     * deteniendo o la cola está llena (en ese caso hay que inscribir de forma síncrona)
+     */
+    public Optional<SeguimientoInscripcion> encolar(Long cursoId, Long estudianteId) {
+        if (!habilitada || !activa || cursoId == null || estudianteId == null) {
+            return Optional.empty();
+        }
+        SeguimientoInscripcion seguimiento =
+                new SeguimientoInscripcion(UUID.randomUUID(), cursoId, estudianteId, EstadoInscripcion.PENDIENTE);
+        // Se registra antes de encolar para que el escritor no encuentre el resultado pisado por el estado PENDIENTE
+        seguimientos.put(seguimiento.getId(), seguimiento);
+        if (!cola.offer(seguimiento)) {
+            seguimientos.invalidate(seguimiento.getId());
+            sincronas.increment();
+            return Optional.empty();
+        }
+        return Optional.of(seguimiento);
+    }
+
+    /**
+     * Estado actual de una inscripción diferida; vacío si el ID no existe o su resultado ya venció (retencion).
+     */
+    public Optional<SeguimientoInscripcion> consultar(UUID id) {
+        return Optional.ofNullable(seguimientos.getIfPresent(id));
+    }
+
+    private void escribir() {
+        List<SeguimientoInscripcion> lote = new ArrayList<>(tamanoLote);
+        while (activa) {
+            try {
+                SeguimientoInscripcion primera = cola.poll(200, TimeUnit.MILLISECONDS);
+                if (primera != null) {
+                    lote.add(primera);
+                    cola.drainTo(lote, tamanoLote - 1);
+                    procesar(lote);
+                    lote.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Deja de aceptar inscripciones y escribe las que quedan en la cola antes de que se cierre el pool de conexiones.
+     */
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        activa = false;
+        if (escritor != null) {
+            escritor.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        List<SeguimientoInscripcion> restantes = new ArrayList<>(tamanoLote);
+        while (cola.drainTo(restantes, tamanoLote) > 0) {
+            procesar(restantes);
+            restantes.clear();
+        }
+    }
+
+    void procesar(List<SeguimientoInscripcion> lote) {
+        lotes.increment();
+        // Primera solicitud de cada par (curso, estudiante); ordenadas para que los INSERT sigan siempre el mismo orden
+        SortedMap<Long, SortedMap<Long, SeguimientoInscripcion>> porCurso = new TreeMap<>();
+        List<SeguimientoInscripcion> repetidas = new ArrayList<>();
+        for (SeguimientoInscripcion seguimiento : lote) {
+            if (porCurso.computeIfAbsent(seguimiento.getCursoId(), cursoId -> new TreeMap<>())
+                    .putIfAbsent(seguimiento.getEstudianteId(), seguimiento) != null) {
+                repetidas.add(seguimiento);
+            }
+        }
+
+        Map<UUID, EstadoInscripcion> estados;
+        try {
+            estados = escribirConReintento(porCurso);
+        } catch (RuntimeException e) {
+            log.error("No se pudo escribir un lote de {} inscripciones diferidas", lote.size(), e);
+            estados = new HashMap<>();
+            for (SeguimientoInscripcion seguimiento : lote) {
+                estados.put(seguimiento.getId(), EstadoInscripcion.ERROR);
+            }
+        }
+
+        for (SortedMap<Long, SeguimientoInscripcion> solicitudes : porCurso.values()) {
+            for (SeguimientoInscripcion seguimiento : solicitudes.values()) {
+                registrar(seguimiento, estados.get(seguimiento.getId()));
+            }
+        }
+        // Una repetición dentro del lote corre la suerte de la primera, salvo que esta la haya inscrito
+        for (SeguimientoInscripcion repetida : repetidas) {
+            SeguimientoInscripcion primera = porCurso.get(repetida.getCursoId()).get(repetida.getEstudianteId());
+            EstadoInscripcion estado = estados.get(primera.getId());
+            registrar(repetida, estado == EstadoInscripcion.INSCRITO ? EstadoInscripcion.YA_INSCRITO : estado);
+        }
+    }
+
+    // Una inscripción síncrona (u otra instancia) puede insertar un par entre la verificación y el INSERT:
+    // se repite el lote una vez con los inscritos releídos y, si vuelve a chocar, se escribe de a una
+    private Map<UUID, EstadoInscripcion> escribirConReintento(SortedMap<Long, SortedMap<Long, SeguimientoInscripcion>> porCurso) {
+        try {
+            return escribirLote(porCurso);
+        } catch (DataIntegrityViolationException primera) {
+            try {
+                return escribirLote(porCurso);
+            } catch (DataIntegrityViolationException segunda) {
+                return escribirDeAUna(porCurso);
+            }
+        }
+    }
+
+    private Map<UUID, EstadoInscripcion> escribirDeAUna(SortedMap<Long, SortedMap<Long, SeguimientoInscripcion>> porCurso) {
+        Map<UUID, EstadoInscripcion> estados = new HashMap<>();
+        porCurso.forEach((cursoId, solicitudes) -> solicitudes.forEach((estudianteId, seguimiento) -> {
+            SortedMap<Long, SortedMap<Long, SeguimientoInscripcion>> una = new TreeMap<>();
+            una.put(cursoId, new TreeMap<>(Map.of(estudianteId, seguimiento)));
+            try {
+                estados.putAll(escribirLote(una));
+            } catch (DataIntegrityViolationException e) {
+                log.warn("No se pudo inscribir al estudiante {} en el curso {}", estudianteId, cursoId, e);
+                estados.put(seguimiento.getId(), EstadoInscripcion.ERROR);
+            }
+        }));
+        return estados;
+    }
+
+    // Verificación e INSERT en la misma transacción de escritura, es decir, contra el primario y no la réplica
+    private Map<UUID, EstadoInscripcion> escribirLote(SortedMap<Long, SortedMap<Long, SeguimientoInscripcion>> porCurso) {
+        return transactionTemplate.execute(transaccion -> {
+            Map<UUID, EstadoInscripcion> estados = new HashMap<>();
+            Set<Long> cursosExistentes = new HashSet<>(cursoRepository.findIdsExistentes(porCurso.keySet()));
+            Map<Long, List<Long>> nuevas = new LinkedHashMap<>();
+            porCurso.forEach((cursoId, solicitudes) -> {
+                if (!cursosExistentes.contains(cursoId)) {
+                    solicitudes.values().forEach(s -> estados.put(s.getId(), EstadoInscripcion.CURSO_INEXISTENTE));
+                    return;
+                }
+                Set<Long> inscritos = new HashSet<>(
+                        cursoEstudianteRepository.findEstudianteIdsInscritos(cursoId, solicitudes.keySet()));
+                solicitudes.forEach((estudianteId, seguimiento) -> {
+                    if (inscritos.contains(estudianteId)) {
+                        estados.put(seguimiento.getId(), EstadoInscripcion.YA_INSCRITO);
+                    } else {
+                        nuevas.computeIfAbsent(cursoId, id -> new ArrayList<>()).add(estudianteId);
+                        estados.put(seguimiento.getId(), EstadoInscripcion.INSCRITO);
+                    }
+                });
+            });
+            cursoEstudianteRepository.insertarEnLote(nuevas);
+            return estados;
+        });
+    }
+
+    private void registrar(SeguimientoInscripcion seguimiento, EstadoInscripcion estado) {
+        resultados.get(estado).increment();
+        seguimientos.put(seguimiento.getId(), seguimiento.conEstado(estado));
+    }
+
+    /**
+     * inscripciones.diferidas.cola (pendientes), inscripciones.diferidas.resultados{estado},
+     * inscripciones.diferidas.lotes (resultados / lotes = tamaño medio del lote) e
+     * inscripciones.diferidas.sincronas (rechazadas por cola llena e inscritas de forma síncrona).
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("inscripciones.diferidas.cola", cola, Collection::size)
+                .description("Inscripciones diferidas a la espera del escritor")
+                .register(registry);
+        for (EstadoInscripcion estado : EnumSet.of(EstadoInscripcion.INSCRITO, EstadoInscripcion.YA_INSCRITO,
+                EstadoInscripcion.CURSO_INEXISTENTE, EstadoInscripcion.ERROR)) {
+            FunctionCounter.builder("inscripciones.diferidas.resultados", resultados.get(estado), LongAdder::sum)
+                    .description("Inscripciones diferidas escritas, por resultado")
+                    .tag("estado", estado.name())
+                    .register(registry);
+        }
+        FunctionCounter.builder("inscripciones.diferidas.lotes", lotes, LongAdder::sum)
+                .description("Lotes escritos por el escritor de inscripciones diferidas")
+                .register(registry);
+        FunctionCounter.builder("inscripciones.diferidas.sincronas", sincronas, LongAdder::sum)
+                .description("Inscripciones que encontraron la cola llena y se escribieron de forma síncrona")
+                .register(registry);
+    }
+}
@@ -0,0 +1,44 @@
+package com.espe.micro_cursos.model.dto;
+
+import java.util.Date;
+
+/**
+ * Copia de los campos de un curso que guarda el índice de búsqueda en memoria.
+ * No incluye las inscripciones, por eso puede devolverse sin consultar la base de datos.
+ */
+public class CursoIndexado {
+
+    private final long id;
+    private final String nombre;
+    private final String descripcion;
+    private final int creditos;
+    private final Date creadoEn;
+
+    public CursoIndexado(long id, String nombre, String descripcion, int creditos, Date creadoEn) {
+        this.id = id;
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+        this.creditos = creditos;
+        this.creadoEn = creadoEn;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public int getCreditos() {
+        return creditos;
+    }
+
+    public Date getCreadoEn() {
+        return creadoEn;
+    }
+}
@@ -0,0 +1,36 @@
+package com.espe.micro_cursos.model.dto;
+
+/**
+ * Resumen de un curso para listas desplegables, selectores y tableros: ID, nombre, créditos y total de inscritos.
+ * Se lee como proyección, sin cargar la entidad ni sus inscripciones.
+ */
+public class CursoResumen {
+
+    private final long id;
+    private final String nombre;
+    private final int creditos;
+    private final long totalInscritos;
+
+    public CursoResumen(long id, String nombre, int creditos, long totalInscritos) {
+        this.id = id;
+        this.nombre = nombre;
+        this.creditos = creditos;
+        this.totalInscritos = totalInscritos;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int getCreditos() {
+        return creditos;
+    }
+
+    public long getTotalInscritos() {
+        return totalInscritos;
+    }
+}
@@ -0,0 +1,19 @@
+package com.espe.micro_cursos.model.dto;
+
+/**
+ * Resultado de inscribir un estudiante dentro de una inscripción masiva o diferida.
+ */
+public enum EstadoInscripcion {
+    // La relación se creó en esta operación
+    INSCRITO,
+    // El estudiante ya estaba inscrito en el curso
+    YA_INSCRITO,
+    // micro-estudiante no conoce el ID enviado
+    ESTUDIANTE_INEXISTENTE,
+    // Inscripción diferida aceptada que todavía no se escribió
+    PENDIENTE,
+    // El curso no existe
+    CURSO_INEXISTENTE,
+    // La escritura falló por un motivo distinto de los anteriores
+    ERROR
+}
@@ -0,0 +1,46 @@
+package com.espe.micro_cursos.model.dto;
+
+import com.espe.contrato_estudiante.EstudianteDto;
+
+/**
+ * Inscripción de un curso junto con los datos del estudiante obtenidos de micro-estudiante.
+ */
+public class EstudianteInscrito {
+
+    public enum Estado {
+        // Datos del estudiante disponibles
+        RESUELTO,
+        // micro-estudiante no conoce el ID
+        INEXISTENTE,
+        // No se obtuvo respuesta dentro del plazo
+        PENDIENTE
+    }
+
+    private final Long inscripcionId;
+    private final Long estudianteId;
+    private final Estado estado;
+    private final EstudianteDto estudiante;
+
+    public EstudianteInscrito(Long inscripcionId, Long estudianteId, Estado estado, EstudianteDto estudiante) {
+        this.inscripcionId = inscripcionId;
+        this.estudianteId = estudianteId;
+        this.estado = estado;
+        this.estudiante = estudiante;
+    }
+
+    public Long getInscripcionId() {
+        return inscripcionId;
+    }
+
+    public Long getEstudianteId() {
+        return estudianteId;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public EstudianteDto getEstudiante() {
+        return estudiante;
+    }
+}
@@ -0,0 +1,36 @@
+package com.espe.micro_cursos.model.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resultado por estudiante de una inscripción masiva, en el orden en que se recibieron los IDs.
+ */
+public class InscripcionMasiva {
+
+    private final Map<Long, EstadoInscripcion> resultados = new LinkedHashMap<>();
+
+    public void registrar(Long estudianteId, EstadoInscripcion estado) {
+        resultados.put(estudianteId, estado);
+    }
+
+    public Map<Long, EstadoInscripcion> getResultados() {
+        return resultados;
+    }
+
+    public long getInscritos() {
+        return contar(EstadoInscripcion.INSCRITO);
+    }
+
+    public long getYaInscritos() {
+        return contar(EstadoInscripcion.YA_INSCRITO);
+    }
+
+    public long getInexistentes() {
+        return contar(EstadoInscripcion.ESTUDIANTE_INEXISTENTE);
+    }
+
+    private long contar(EstadoInscripcion estado) {
+        return resultados.values().stream().filter(estado::equals).count();
+    }
+}
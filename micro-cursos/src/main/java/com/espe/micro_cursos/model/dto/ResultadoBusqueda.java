@@ -0,0 +1,25 @@
+package com.espe.micro_cursos.model.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados de una búsqueda ordenada por relevancia.
+ */
+public class ResultadoBusqueda {
+
+    private final long total;
+    private final List<CursoIndexado> items;
+
+    public ResultadoBusqueda(long total, List<CursoIndexado> items) {
+        this.total = total;
+        this.items = items;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public List<CursoIndexado> getItems() {
+        return items;
+    }
+}
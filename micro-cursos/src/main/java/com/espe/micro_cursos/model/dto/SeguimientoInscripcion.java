@@ -0,0 +1,41 @@
+package com.espe.micro_cursos.model.dto;
+
+import java.util.UUID;
+
+/**
+ * Estado de una inscripción diferida, consultable por su ID de seguimiento.
+ */
+public class SeguimientoInscripcion {
+
+    private final UUID id;
+    private final Long cursoId;
+    private final Long estudianteId;
+    private final EstadoInscripcion estado;
+
+    public SeguimientoInscripcion(UUID id, Long cursoId, Long estudianteId, EstadoInscripcion estado) {
+        this.id = id;
+        this.cursoId = cursoId;
+        this.estudianteId = estudianteId;
+        this.estado = estado;
+    }
+
+    public SeguimientoInscripcion conEstado(EstadoInscripcion nuevoEstado) {
+        return new SeguimientoInscripcion(id, cursoId, estudianteId, nuevoEstado);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Long getCursoId() {
+        return cursoId;
+    }
+
+    public Long getEstudianteId() {
+        return estudianteId;
+    }
+
+    public EstadoInscripcion getEstado() {
+        return estado;
+    }
+}
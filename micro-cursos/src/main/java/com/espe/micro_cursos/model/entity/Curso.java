@@ -1,16 +1,26 @@
 package com.espe.micro_cursos.model.entity;
 
+import com.espe.micro_cursos.config.CacheSegundoNivelConfig;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name = "Cursos")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGION_CURSO)
+@Table(name = "Cursos", indexes = @Index(name = "idx_cursos_total_inscritos", columnList = "total_inscritos"))
 public class Curso {
+    // Generador de tabla pooled (generadores_id): reserva de a 50 IDs y permite agrupar los INSERT en lotes,
+    // cosa que IDENTITY impide porque Hibernate necesita el ID generado por la base al persistir cada fila
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "curso_id")
+    @TableGenerator(name = "curso_id", table = "generadores_id", pkColumnName = "entidad", valueColumnName = "siguiente",
+            pkColumnValue = "cursos", allocationSize = 50)
     private long id;
 
     @Column(nullable = false)
@@ -25,7 +35,22 @@ public class Curso {
     @Temporal(TemporalType.TIMESTAMP)
     private Date creadoEn;
 
+    // Se incrementa en cada actualización del curso o de sus inscripciones; base del ETag
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    // Número de inscripciones, mantenido por las escrituras de CursoEstudianteRepository en la misma transacción.
+    // Hibernate nunca lo escribe al actualizar el curso, así un valor leído antes no pisa los cambios concurrentes.
+    @Column(name = "total_inscritos", nullable = false, updatable = false)
+    private long totalInscritos;
+
+    // En caché solo se guardan los IDs de las relaciones; cada una se lee de la región de CursoEstudiante.
+    // Solo lectura en JSON: las inscripciones se crean con los endpoints de estudiantes, que mantienen
+    // total_inscritos; guardadas en cascada desde el cuerpo de un POST dejarían el contador en 0.
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGION_INSCRIPCIONES)
     @JoinColumn(name = "curso_id")
     private List<CursoEstudiante> cursoEstudiantes;
 
@@ -95,4 +120,16 @@ public class Curso {
     public void setCreadoEn(Date creadoEn) {
         this.creadoEn = creadoEn;
     }
+
+    public long getTotalInscritos() {
+        return totalInscritos;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -1,13 +1,21 @@
 package com.espe.micro_cursos.model.entity;
 
+import com.espe.micro_cursos.config.CacheSegundoNivelConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGION_CURSO_ESTUDIANTE)
 @Table(name="cursos_estudiante",
         uniqueConstraints = @UniqueConstraint(columnNames = {"estudiante_id", "curso_id"}))
 public class CursoEstudiante {
+    // Generador de tabla pooled (generadores_id); las inserciones JDBC de CursoEstudianteRepository toman sus IDs de aquí
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "curso_estudiante_id")
+    @TableGenerator(name = "curso_estudiante_id", table = "generadores_id", pkColumnName = "entidad", valueColumnName = "siguiente",
+            pkColumnValue = "cursos_estudiante", allocationSize = 500)
     private Long id;
 
     @Column(name = "estudiante_id", nullable = false)
@@ -0,0 +1,75 @@
+package com.espe.micro_cursos.pagination;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Página de resultados obtenida por keyset junto con el cursor de la página siguiente.
+ *
+ * @param <T> tipo de los elementos
+ */
+public class KeysetPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    private KeysetPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Construye la página a partir de una consulta que pidió {@code limite + 1} filas.
+     * Si llegó la fila extra existe una página siguiente y se descarta de la respuesta.
+     *
+     * @param filas filas leídas, ordenadas por ID ascendente
+     * @param limite tamaño de página solicitado
+     * @param id función que extrae el ID de cada elemento
+     * @return página con a lo sumo {@code limite} elementos
+     */
+    public static <T> KeysetPage<T> of(List<T> filas, int limite, ToLongFunction<T> id) {
+        if (filas.size() <= limite) {
+            return new KeysetPage<>(filas, null);
+        }
+        List<T> items = filas.subList(0, limite);
+        return new KeysetPage<>(items, KeysetCursor.encode(id.applyAsLong(items.get(limite - 1))));
+    }
+
+    /**
+     * Crea una página con elementos ya transformados conservando el cursor de la página original.
+     *
+     * @param items elementos de la página
+     * @param nextCursor cursor de la página siguiente, o nulo si es la última
+     * @return página con los elementos indicados
+     */
+    public static <T> KeysetPage<T> conItems(List<T> items, String nextCursor) {
+        return new KeysetPage<>(items, nextCursor);
+    }
+
+    /**
+     * Ajusta el límite solicitado al rango permitido.
+     *
+     * @param solicitado límite enviado por el cliente, puede ser nulo
+     * @param porDefecto límite usado cuando no se envía ninguno
+     * @param maximo límite máximo permitido
+     * @return límite efectivo entre 1 y {@code maximo}
+     */
+    public static int resolverLimite(Integer solicitado, int porDefecto, int maximo) {
+        if (solicitado == null) {
+            return Math.min(porDefecto, maximo);
+        }
+        return Math.max(1, Math.min(solicitado, maximo));
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -1,9 +1,39 @@
 package com.espe.micro_cursos.repositories;
 
 import com.espe.micro_cursos.model.entity.CursoEstudiante;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
-public interface CursoEstudianteRepository extends JpaRepository<CursoEstudiante, Long> {
+public interface CursoEstudianteRepository extends JpaRepository<CursoEstudiante, Long>, CursoEstudianteRepositoryCustom {
+    // Página por keyset: relaciones con ID mayor al último entregado, usando el índice de la PK
+    List<CursoEstudiante> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Página por keyset de las inscripciones de un curso
+    List<CursoEstudiante> findByCursoIdAndIdGreaterThanOrderByIdAsc(Long cursoId, Long id, Limit limit);
+
+    // IDs de estudiantes de la lista que ya están inscritos en el curso
+    @Query("select ce.estudianteId from CursoEstudiante ce where ce.cursoId = :cursoId and ce.estudianteId in :estudianteIds")
+    List<Long> findEstudianteIdsInscritos(@Param("cursoId") Long cursoId, @Param("estudianteIds") Collection<Long> estudianteIds);
+
+    // Todas las relaciones en streaming para la exportación (requiere transacción abierta), sin pasar por
+    // la caché de segundo nivel: una exportación la llenaría con todas las filas y desplazaría las usadas.
+    // ExportadorJson aplica además el mismo modo a la sesión mientras recorre el Stream
+    @Query("select ce from CursoEstudiante ce order by ce.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<CursoEstudiante> streamTodas();
 }
@@ -0,0 +1,21 @@
+package com.espe.micro_cursos.repositories;
+
+import java.util.List;
+import java.util.Map;
+
+public interface CursoEstudianteRepositoryCustom {
+    // Inserta las relaciones (cursoId, estudianteId) con batching JDBC, sin pasar por el agregado Curso
+    void insertarEnLote(Long cursoId, List<Long> estudianteIds);
+
+    // Igual que el anterior para varios cursos a la vez: un solo batch y un ajuste del total de inscritos por curso
+    void insertarEnLote(Map<Long, List<Long>> estudiantesPorCurso);
+
+    // Elimina la relación con un único DELETE sobre la restricción única (estudiante_id, curso_id); devuelve filas afectadas
+    int desinscribir(Long cursoId, Long estudianteId);
+
+    // Suma "delta" al total de inscritos del curso e incrementa su versión para invalidar su ETag
+    void actualizarInscritosCurso(Long cursoId, int delta);
+
+    // Recalcula el total de inscritos de todos los cursos a partir de cursos_estudiante; devuelve los cursos corregidos
+    int recalcularInscritos();
+}
@@ -0,0 +1,154 @@
+package com.espe.micro_cursos.repositories;
+
+import com.espe.micro_cursos.config.CacheSegundoNivelConfig;
+import com.espe.micro_cursos.model.entity.Curso;
+import com.espe.micro_cursos.model.entity.CursoEstudiante;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Implementación JDBC de las escrituras sobre cursos_estudiante que no necesitan el agregado Curso.
+ * Las inserciones usan JdbcTemplate.batchUpdate con IDs del mismo generador pooled que usa Hibernate
+ * para CursoEstudiante, así no chocan con las relaciones que se persisten a través de Curso.
+ * Cada escritura ajusta el total de inscritos e incrementa la versión del curso en la misma transacción,
+ * de modo que el contador y el ETag de GET /api/cursos/{id} (que incluye las inscripciones) cambian junto con ellas.
+ * Como Hibernate no ve estas sentencias, cada una saca de la caché de segundo nivel el curso, su colección
+ * de inscripciones, las relaciones eliminadas y las consultas cacheadas, al ejecutarse y otra vez al terminar la transacción.
+ */
+public class CursoEstudianteRepositoryCustomImpl implements CursoEstudianteRepositoryCustom {
+
+    private static final String INSERT_RELACION =
+            "INSERT INTO cursos_estudiante (id, estudiante_id, curso_id) VALUES (?, ?, ?)";
+
+    private static final String SELECT_RELACION =
+            "SELECT id FROM cursos_estudiante WHERE curso_id = ? AND estudiante_id = ?";
+
+    private static final String DELETE_RELACION =
+            "DELETE FROM cursos_estudiante WHERE curso_id = ? AND estudiante_id = ?";
+
+    // Incremento atómico en la base de datos: no depende de un valor leído antes por la aplicación
+    private static final String ACTUALIZAR_INSCRITOS =
+            "UPDATE cursos SET total_inscritos = total_inscritos + ?, version = version + 1 WHERE id = ?";
+
+    private static final String ROL_INSCRIPCIONES = Curso.class.getName() + ".cursoEstudiantes";
+
+    private static final String RECALCULAR_INSCRITOS =
+            "UPDATE cursos SET total_inscritos = (SELECT COUNT(*) FROM cursos_estudiante ce WHERE ce.curso_id = cursos.id)"
+                    + " WHERE total_inscritos <> (SELECT COUNT(*) FROM cursos_estudiante ce WHERE ce.curso_id = cursos.id)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${cursos.inscripcion-masiva.tamano-lote:500}")
+    private int tamanoLote;
+
+    @Override
+    @Transactional
+    public void insertarEnLote(Long cursoId, List<Long> estudianteIds) {
+        insertarEnLote(Map.of(cursoId, estudianteIds));
+    }
+
+    @Override
+    @Transactional
+    public void insertarEnLote(Map<Long, List<Long>> estudiantesPorCurso) {
+        List<long[]> relaciones = new ArrayList<>();
+        estudiantesPorCurso.forEach((cursoId, estudianteIds) ->
+                estudianteIds.forEach(estudianteId -> relaciones.add(new long[]{estudianteId, cursoId})));
+        if (relaciones.isEmpty()) {
+            return;
+        }
+        SharedSessionContractImplementor sesion = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator generador = (IdentifierGenerator) sesion.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(CursoEstudiante.class).getGenerator();
+        jdbcTemplate.batchUpdate(INSERT_RELACION, relaciones, tamanoLote, (ps, relacion) -> {
+            ps.setLong(1, (Long) generador.generate(sesion, null));
+            ps.setLong(2, relacion[0]);
+            ps.setLong(3, relacion[1]);
+        });
+        // Si alguna fila viola la restricción única se lanza la excepción y la transacción completa se revierte
+        estudiantesPorCurso.forEach((cursoId, estudianteIds) -> {
+            if (!estudianteIds.isEmpty()) {
+                actualizarInscritosCurso(cursoId, estudianteIds.size());
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public int desinscribir(Long cursoId, Long estudianteId) {
+        // El ID de la relación solo se lee para quitarla de la caché: el DELETE no lo devuelve
+        List<Long> relaciones = jdbcTemplate.queryForList(SELECT_RELACION, Long.class, cursoId, estudianteId);
+        if (relaciones.isEmpty()) {
+            return 0;
+        }
+        int eliminadas = jdbcTemplate.update(DELETE_RELACION, cursoId, estudianteId);
+        if (eliminadas > 0) {
+            invalidar(cache -> relaciones.forEach(id -> cache.evictEntityData(CursoEstudiante.class, id)));
+            actualizarInscritosCurso(cursoId, -eliminadas);
+        }
+        return eliminadas;
+    }
+
+    @Override
+    @Transactional
+    public void actualizarInscritosCurso(Long cursoId, int delta) {
+        jdbcTemplate.update(ACTUALIZAR_INSCRITOS, delta, cursoId);
+        invalidar(cache -> {
+            cache.evictEntityData(Curso.class, cursoId);
+            cache.evictCollectionData(ROL_INSCRIPCIONES, cursoId);
+            // Los resultados cacheados de findByCreditos traen las inscripciones (fetch join); Hibernate
+            // los descartaría igual ante cualquier escritura suya sobre cursos_estudiante
+            cache.evictQueryRegion(CacheSegundoNivelConfig.REGION_CONSULTAS);
+        });
+    }
+
+    @Override
+    @Transactional
+    public int recalcularInscritos() {
+        int corregidos = jdbcTemplate.update(RECALCULAR_INSCRITOS);
+        if (corregidos > 0) {
+            invalidar(cache -> {
+                cache.evictEntityData(Curso.class);
+                cache.evictQueryRegion(CacheSegundoNivelConfig.REGION_CONSULTAS);
+            });
+        }
+        return corregidos;
+    }
+
+    // Se invalida enseguida y de nuevo al terminar la transacción: una lectura concurrente que cargó
+    // la fila anterior antes del commit no deja en caché un valor viejo hasta que expire el TTL
+    private void invalidar(Consumer<Cache> invalidacion) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        invalidacion.accept(cache);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidacion.accept(cache);
+                }
+            });
+        }
+    }
+}
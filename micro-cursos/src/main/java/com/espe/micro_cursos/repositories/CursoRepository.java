@@ -1,20 +1,109 @@
 package com.espe.micro_cursos.repositories;
 
+import com.espe.micro_cursos.config.CacheSegundoNivelConfig;
+import com.espe.micro_cursos.model.dto.CursoIndexado;
+import com.espe.micro_cursos.model.dto.CursoResumen;
 import com.espe.micro_cursos.model.entity.Curso;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CursoRepository extends JpaRepository<Curso, Long> {
-    // Buscar cursos por número de créditos
+    // Las consultas que devuelven cursos para serializar traen sus inscripciones en el mismo SELECT
+    // (entity graph): sin esto Jackson dispara una consulta por curso al recorrer cursoEstudiantes.
+
+    // Todos los cursos con sus inscripciones
+    @EntityGraph(attributePaths = "cursoEstudiantes")
+    @Query("select c from Curso c order by c.id")
+    List<Curso> findAllConInscripciones();
+
+    // Buscar cursos por número de créditos. Pocos valores distintos y muy consultados: el resultado
+    // (IDs de los cursos) queda en la caché de consultas hasta que se escribe en cursos o cursos_estudiante
+    @EntityGraph(attributePaths = "cursoEstudiantes")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheSegundoNivelConfig.REGION_CONSULTAS)
+    })
     List<Curso> findByCreditos(int creditos);
 
     // Buscar cursos creados después de una fecha específica
+    @EntityGraph(attributePaths = "cursoEstudiantes")
     List<Curso> findByCreadoEnAfter(Date fecha);
 
     // Buscar cursos por descripción que contenga un texto específico
+    @EntityGraph(attributePaths = "cursoEstudiantes")
     List<Curso> findByDescripcionContaining(String texto);
+
+    // Página por keyset, primer paso: IDs mayores al último entregado, con el límite aplicado en la base de datos.
+    // Un fetch join junto con un límite haría que Hibernate paginara en memoria.
+    @Query("select c.id from Curso c where c.id > :id order by c.id")
+    List<Long> findIdsDespuesDe(@Param("id") long id, Limit limit);
+
+    // Página por keyset, segundo paso: los cursos de la página con sus inscripciones
+    @EntityGraph(attributePaths = "cursoEstudiantes")
+    List<Curso> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    // Resúmenes por keyset (ID, nombre, créditos e inscritos): solo esas columnas, sin entidades en el contexto de persistencia
+    @Query("select new com.espe.micro_cursos.model.dto.CursoResumen(c.id, c.nombre, c.creditos, c.totalInscritos) from Curso c"
+            + " where c.id > :id order by c.id")
+    List<CursoResumen> findResumenesDespuesDe(@Param("id") long id, Limit limit);
+
+    // Resúmenes filtrados por nombre (contiene, sin distinguir mayúsculas) y créditos; un filtro nulo no se aplica
+    @Query("select new com.espe.micro_cursos.model.dto.CursoResumen(c.id, c.nombre, c.creditos, c.totalInscritos) from Curso c"
+            + " where (:texto is null or lower(c.nombre) like lower(concat('%', :texto, '%')))"
+            + " and (:creditos is null or c.creditos = :creditos) order by c.nombre, c.id")
+    List<CursoResumen> buscarResumenes(@Param("texto") String texto, @Param("creditos") Integer creditos, Limit limit);
+
+    // Cursos con más inscritos (o con menos), leyendo el contador mantenido en cursos.total_inscritos
+    @Query("select new com.espe.micro_cursos.model.dto.CursoResumen(c.id, c.nombre, c.creditos, c.totalInscritos) from Curso c"
+            + " order by c.totalInscritos desc, c.id")
+    List<CursoResumen> findMasInscritos(Limit limit);
+
+    @Query("select new com.espe.micro_cursos.model.dto.CursoResumen(c.id, c.nombre, c.creditos, c.totalInscritos) from Curso c"
+            + " order by c.totalInscritos asc, c.id")
+    List<CursoResumen> findMenosInscritos(Limit limit);
+
+    // Lectura en streaming de los campos indexables, sin entidades gestionadas (requiere transacción abierta)
+    @Query("select new com.espe.micro_cursos.model.dto.CursoIndexado(c.id, c.nombre, c.descripcion, c.creditos, c.creadoEn) from Curso c")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<CursoIndexado> streamIndexables();
+
+    // Todos los cursos en streaming para la exportación, sin snapshots de dirty checking ni caché de segundo
+    // nivel (requiere transacción abierta)
+    @Query("select c from Curso c order by c.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Curso> streamTodos();
+
+    // Solo la versión del curso, para responder lecturas condicionales sin cargar sus inscripciones
+    @Query("select c.version from Curso c where c.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
+
+    // Curso a actualizar, bloqueado hasta el fin de la transacción (SELECT ... FOR UPDATE). Con un bloqueo
+    // Hibernate lo lee de la base, no de la caché de segundo nivel
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Curso c where c.id = :id")
+    Optional<Curso> findParaActualizar(@Param("id") long id);
+
+    // Cuáles de los IDs corresponden a cursos existentes
+    @Query("select c.id from Curso c where c.id in :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
 }
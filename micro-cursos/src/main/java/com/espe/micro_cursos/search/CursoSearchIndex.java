@@ -0,0 +1,408 @@
+package com.espe.micro_cursos.search;
+
+import com.espe.micro_cursos.model.dto.CursoIndexado;
+import com.espe.micro_cursos.model.dto.ResultadoBusqueda;
+import com.espe.micro_cursos.repositories.CursoRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido en memoria sobre el nombre y la descripción de los cursos.
+ * Cada curso se indexa por los trigramas de sus textos normalizados (minúsculas, sin tildes);
+ * una búsqueda intersecta las listas de trigramas de cada término y verifica el substring
+ * sobre los candidatos, sin consultar la base de datos.
+ * <p>
+ * El índice vive en cada instancia y solo ve al momento las escrituras que pasan por ella; las de otras
+ * réplicas del servicio aparecen en la siguiente reconstrucción (cursos.busqueda.reconstruccion-periodica,
+ * 5 minutos por defecto; 0 la desactiva).
+ */
+@Component
+public class CursoSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CursoSearchIndex.class);
+
+    private static final int N = 3;
+
+    public enum Campo {
+        NOMBRE, DESCRIPCION, AMBOS
+    }
+
+    private static final class Entrada {
+        private final CursoIndexado curso;
+        private final String nombre;
+        private final String descripcion;
+        private final Set<String> palabras;
+        private final Set<String> trigramas;
+
+        private Entrada(CursoIndexado curso) {
+            this.curso = curso;
+            this.nombre = normalizar(curso.getNombre());
+            this.descripcion = normalizar(curso.getDescripcion());
+            this.palabras = new HashSet<>(terminos(nombre + " " + descripcion));
+            this.trigramas = new HashSet<>();
+            agregarTrigramas(nombre, trigramas);
+            agregarTrigramas(descripcion, trigramas);
+        }
+    }
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${cursos.busqueda.reconstruccion-periodica:5m}")
+    private Duration reconstruccionPeriodica = Duration.ZERO;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entrada> entradas = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private volatile boolean listo = false;
+    // Cambios recibidos mientras se lee la instantánea de una reconstrucción (null como valor = eliminado);
+    // null fuera de una reconstrucción. Se protege con el lock de escritura.
+    private Map<Long, CursoIndexado> cambiosDuranteReconstruccion;
+    private ScheduledExecutorService reconstructor;
+
+    /**
+     * Construye el índice al arrancar y programa las reconstrucciones periódicas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        reconstruir();
+        if (reconstruccionPeriodica.isZero() || reconstruccionPeriodica.isNegative()) {
+            return;
+        }
+        reconstructor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "indice-cursos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long intervalo = reconstruccionPeriodica.toMillis();
+        reconstructor.scheduleWithFixedDelay(() -> {
+            try {
+                reconstruir();
+            } catch (RuntimeException e) {
+                log.warn("No se pudo reconstruir el índice de búsqueda de cursos; se mantiene el anterior", e);
+            }
+        }, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (reconstructor != null) {
+            reconstructor.shutdownNow();
+        }
+    }
+
+    /**
+     * Reconstruye el índice leyendo los cursos como proyección en streaming. Los cursos indexados o
+     * eliminados mientras se lee la instantánea se vuelven a aplicar sobre ella antes de publicarla,
+     * para que la reconstrucción no deshaga escrituras concurrentes.
+     */
+    public synchronized void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteReconstruccion = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<Long, Entrada> nuevas = new HashMap<>();
+        Map<String, Set<Long>> nuevosPostings = new HashMap<>();
+        try {
+            TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+            lectura.setReadOnly(true);
+            lectura.executeWithoutResult(transaccion -> {
+                try (Stream<CursoIndexado> cursos = cursoRepository.streamIndexables()) {
+                    cursos.forEach(c -> {
+                        Entrada entrada = new Entrada(c);
+                        nuevas.put(c.getId(), entrada);
+                        entrada.trigramas.forEach(t -> nuevosPostings.computeIfAbsent(t, k -> new HashSet<>()).add(c.getId()));
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                cambiosDuranteReconstruccion = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        int cambios;
+        lock.writeLock().lock();
+        try {
+            entradas.clear();
+            entradas.putAll(nuevas);
+            postings.clear();
+            postings.putAll(nuevosPostings);
+            cambios = cambiosDuranteReconstruccion.size();
+            cambiosDuranteReconstruccion.forEach((id, curso) -> {
+                quitar(id);
+                if (curso != null) {
+                    agregar(new Entrada(curso));
+                }
+            });
+            cambiosDuranteReconstruccion = null;
+            listo = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de búsqueda de cursos construido: {} cursos, {} trigramas y {} cambios concurrentes en {} ms",
+                nuevas.size(), nuevosPostings.size(), cambios, System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Indica si el índice ya terminó de construirse.
+     */
+    public boolean isListo() {
+        return listo;
+    }
+
+    /**
+     * Agrega o reemplaza un curso en el índice.
+     *
+     * @param curso datos del curso guardado
+     */
+    public void indexar(CursoIndexado curso) {
+        Entrada entrada = new Entrada(curso);
+        lock.writeLock().lock();
+        try {
+            quitar(curso.getId());
+            agregar(entrada);
+            if (cambiosDuranteReconstruccion != null) {
+                cambiosDuranteReconstruccion.put(curso.getId(), curso);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina un curso del índice.
+     *
+     * @param id ID del curso
+     */
+    public void eliminar(long id) {
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+            if (cambiosDuranteReconstruccion != null) {
+                cambiosDuranteReconstruccion.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca cursos que contengan todos los términos de la consulta en el campo indicado,
+     * ordenados por relevancia (coincidencias en el nombre pesan más, y las palabras completas
+     * más que los fragmentos) y luego por ID.
+     *
+     * @param consulta uno o más términos separados por espacios
+     * @param campo campo donde deben aparecer los términos
+     * @param offset número de resultados a omitir
+     * @param limite número máximo de resultados a devolver
+     * @return total de coincidencias y la página pedida
+     */
+    public ResultadoBusqueda buscar(String consulta, Campo campo, int offset, int limite) {
+        List<String> terminosConsulta = terminos(normalizar(consulta));
+        if (terminosConsulta.isEmpty()) {
+            return new ResultadoBusqueda(0, List.of());
+        }
+
+        List<Map.Entry<Entrada, Integer>> coincidencias = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Entrada entrada : candidatos(terminosConsulta)) {
+                int puntaje = puntuar(entrada, terminosConsulta, campo);
+                if (puntaje > 0) {
+                    coincidencias.add(Map.entry(entrada, puntaje));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        coincidencias.sort(Comparator.<Map.Entry<Entrada, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                .thenComparingLong(e -> e.getKey().curso.getId()));
+        int desde = Math.min(offset, coincidencias.size());
+        int hasta = Math.min(desde + limite, coincidencias.size());
+        List<CursoIndexado> pagina = coincidencias.subList(desde, hasta).stream()
+                .map(e -> e.getKey().curso)
+                .toList();
+        return new ResultadoBusqueda(coincidencias.size(), pagina);
+    }
+
+    /**
+     * Busca los cursos cuyo campo contiene el texto completo tal cual (espacios incluidos), sin distinguir
+     * mayúsculas ni tildes: los candidatos son los cursos con todos los trigramas del texto y se verifica
+     * el substring sobre cada uno.
+     *
+     * @param texto texto a buscar
+     * @param campo campo donde debe aparecer el texto
+     * @return IDs de los cursos en orden ascendente, o vacío si el índice no está listo o el texto normalizado
+     * tiene menos de 3 caracteres (sin trigramas no acota nada; esas búsquedas van a la base de datos)
+     */
+    public Optional<List<Long>> buscarSubcadena(String texto, Campo campo) {
+        String normalizado = normalizar(texto);
+        if (!listo || normalizado.length() < N) {
+            return Optional.empty();
+        }
+        List<Long> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : intersectarTrigramas(normalizado, null)) {
+                Entrada entrada = entradas.get(id);
+                boolean enNombre = campo != Campo.DESCRIPCION && entrada.nombre.contains(normalizado);
+                boolean enDescripcion = campo != Campo.NOMBRE && entrada.descripcion.contains(normalizado);
+                if (enNombre || enDescripcion) {
+                    ids.add(id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Collections.sort(ids);
+        return Optional.of(ids);
+    }
+
+    // Debe llamarse con el lock de escritura tomado
+    private void agregar(Entrada entrada) {
+        long id = entrada.curso.getId();
+        entradas.put(id, entrada);
+        entrada.trigramas.forEach(t -> postings.computeIfAbsent(t, k -> new HashSet<>()).add(id));
+    }
+
+    // Debe llamarse con el lock de escritura tomado
+    private void quitar(long id) {
+        Entrada anterior = entradas.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        for (String trigrama : anterior.trigramas) {
+            Set<Long> ids = postings.get(trigrama);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(trigrama);
+                }
+            }
+        }
+    }
+
+    // Intersección de las listas de trigramas de todos los términos; debe llamarse con el lock de lectura
+    private Collection<Entrada> candidatos(List<String> terminosConsulta) {
+        Set<Long> ids = null;
+        for (String termino : terminosConsulta) {
+            if (termino.length() < N) {
+                // Términos cortos no tienen trigramas: se verifican sobre todos los candidatos
+                continue;
+            }
+            ids = intersectarTrigramas(termino, ids);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+        }
+        if (ids == null) {
+            return new ArrayList<>(entradas.values());
+        }
+        List<Entrada> resultado = new ArrayList<>(ids.size());
+        ids.forEach(id -> resultado.add(entradas.get(id)));
+        return resultado;
+    }
+
+    // IDs de "ids" (todos si es null) que tienen todos los trigramas del texto; debe llamarse con el lock de lectura
+    private Set<Long> intersectarTrigramas(String texto, Set<Long> ids) {
+        Set<String> trigramas = new HashSet<>();
+        agregarTrigramas(texto, trigramas);
+        List<Set<Long>> listas = new ArrayList<>();
+        for (String trigrama : trigramas) {
+            Set<Long> lista = postings.get(trigrama);
+            if (lista == null) {
+                return Set.of();
+            }
+            listas.add(lista);
+        }
+        listas.sort(Comparator.comparingInt(Set::size));
+        for (Set<Long> lista : listas) {
+            if (ids == null) {
+                ids = new HashSet<>(lista);
+            } else {
+                ids.retainAll(lista);
+            }
+            if (ids.isEmpty()) {
+                return Set.of();
+            }
+        }
+        return ids;
+    }
+
+    // 0 si algún término no aparece en el campo pedido
+    private static int puntuar(Entrada entrada, List<String> terminosConsulta, Campo campo) {
+        int puntaje = 0;
+        for (String termino : terminosConsulta) {
+            int enNombre = campo == Campo.DESCRIPCION ? 0 : ocurrencias(entrada.nombre, termino);
+            int enDescripcion = campo == Campo.NOMBRE ? 0 : ocurrencias(entrada.descripcion, termino);
+            if (enNombre + enDescripcion == 0) {
+                return 0;
+            }
+            puntaje += 3 * enNombre + enDescripcion;
+            if (entrada.palabras.contains(termino)) {
+                puntaje += 2;
+            }
+        }
+        return puntaje;
+    }
+
+    private static int ocurrencias(String texto, String termino) {
+        int total = 0;
+        int desde = texto.indexOf(termino);
+        while (desde >= 0) {
+            total++;
+            desde = texto.indexOf(termino, desde + 1);
+        }
+        return total;
+    }
+
+    private static void agregarTrigramas(String texto, Set<String> destino) {
+        for (int i = 0; i + N <= texto.length(); i++) {
+            destino.add(texto.substring(i, i + N));
+        }
+    }
+
+    private static List<String> terminos(String texto) {
+        return Arrays.stream(texto.split("[^\\p{L}\\p{N}]+"))
+                .filter(t -> !t.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinTildes = Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return sinTildes.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,18 @@
+package com.espe.micro_cursos.services;
+
+/**
+ * La versión actual del curso no es la que el cliente indicó (If-Match); no se modificó nada.
+ */
+public class CursoModificadoException extends RuntimeException {
+
+    private final long versionActual;
+
+    public CursoModificadoException(Long id, long versionActual) {
+        super("El curso " + id + " está en la versión " + versionActual);
+        this.versionActual = versionActual;
+    }
+
+    public long getVersionActual() {
+        return versionActual;
+    }
+}
@@ -1,28 +1,68 @@
 package com.espe.micro_cursos.services;
 
+import com.espe.contrato_estudiante.EstudianteDto;
+import com.espe.micro_cursos.model.dto.CursoResumen;
+import com.espe.micro_cursos.model.dto.EstudianteInscrito;
+import com.espe.micro_cursos.model.dto.InscripcionMasiva;
+import com.espe.micro_cursos.model.dto.ResultadoBusqueda;
 import com.espe.micro_cursos.model.entity.Curso;
-import com.espe.micro_cursos.model.entity.Estudiante;
+import com.espe.micro_cursos.export.FormatoExportacion;
+import com.espe.micro_cursos.pagination.KeysetPage;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.LongPredicate;
 
 public interface CursoService {
     // Método para listar todos los cursos
     List<Curso> listarTodos();
 
+    // Método para listar cursos por páginas usando keyset sobre el ID
+    KeysetPage<Curso> listarPagina(long despuesDeId, int limite);
+
+    // Resúmenes (ID, nombre y créditos) por páginas, sin cargar inscripciones
+    KeysetPage<CursoResumen> listarResumenes(long despuesDeId, int limite);
+
+    // Resúmenes de cursos cuyo nombre contiene el texto; filtrados además por créditos si se indican
+    List<CursoResumen> buscarResumenes(String texto, Integer creditos, int limite);
+
+    // Cursos ordenados por total de inscritos, de mayor a menor o de menor a mayor
+    List<CursoResumen> listarPorInscritos(boolean descendente, int limite);
+
+    // Exportación de todos los cursos en streaming; devuelve el número de cursos escritos
+    long exportarCursos(FormatoExportacion formato, OutputStream salida) throws IOException;
+
     // Método para guardar un curso
     Curso guardarCurso(Curso curso);
 
+    // Crea varios cursos en una sola transacción (INSERT en lotes JDBC)
+    List<Curso> guardarCursos(List<Curso> cursos);
+
+    // Actualiza nombre, descripción y créditos si versionAceptada acepta la versión actual (si no, CursoModificadoException);
+    // vacío si el curso no existe
+    Optional<Curso> actualizarCurso(Long id, Curso datos, LongPredicate versionAceptada);
+
     // Método para obtener un curso por su ID
     Curso obtenerPorId(Long id);
 
+    // Versión actual del curso (base de su ETag), vacía si no existe
+    Optional<Long> obtenerVersion(Long id);
+
     // Método para eliminar un curso por su ID
     void eliminarPorId(Long id);
 
     // Metodos nnuevos
-    Optional<Estudiante> addEstudiante(Estudiante estudiante, Long id);
-    boolean removerEstudiante(Estudiante estudiante, Long id);
+    Optional<EstudianteDto> addEstudiante(EstudianteDto estudiante, Long id);
+    boolean removerEstudiante(EstudianteDto estudiante, Long id);
+
+    // Inscripción masiva: valida los IDs en una sola llamada y los inserta en lote
+    Optional<InscripcionMasiva> addEstudiantes(List<Long> estudianteIds, Long id);
+
+    // Estudiantes inscritos en el curso, paginados y con sus datos de micro-estudiante
+    Optional<KeysetPage<EstudianteInscrito>> listarEstudiantes(Long id, long despuesDeId, int limite);
 
     // Métodos adicionales para búsquedas personalizadas
     List<Curso> buscarPorCreditos(int creditos);
@@ -30,4 +70,7 @@ public interface CursoService {
     List<Curso> buscarPorFechaCreacionPosterior(Date fecha);
 
     List<Curso> buscarPorDescripcion(String texto);
+
+    // Búsqueda por texto en nombre y descripción, ordenada por relevancia
+    ResultadoBusqueda buscarPorTexto(String consulta, int offset, int limite);
 }
@@ -1,24 +1,51 @@
 package com.espe.micro_cursos.services;
 
+import com.espe.contrato_estudiante.EstudianteDto;
+import com.espe.contrato_estudiante.Respuesta;
+import com.espe.micro_cursos.clients.EstudianteCache;
 import com.espe.micro_cursos.clients.EstudianteClient;
+import com.espe.micro_cursos.clients.EstudianteNoEncontradoException;
+import com.espe.micro_cursos.clients.EstudianteResolver;
+import com.espe.micro_cursos.export.ExportadorJson;
+import com.espe.micro_cursos.export.FormatoExportacion;
+import com.espe.micro_cursos.model.dto.CursoIndexado;
+import com.espe.micro_cursos.model.dto.CursoResumen;
+import com.espe.micro_cursos.model.dto.EstadoInscripcion;
+import com.espe.micro_cursos.model.dto.EstudianteInscrito;
+import com.espe.micro_cursos.model.dto.InscripcionMasiva;
+import com.espe.micro_cursos.model.dto.ResultadoBusqueda;
 import com.espe.micro_cursos.model.entity.Curso;
 import com.espe.micro_cursos.model.entity.CursoEstudiante;
-import com.espe.micro_cursos.model.entity.Estudiante;
+import com.espe.micro_cursos.pagination.KeysetPage;
 import com.espe.micro_cursos.repositories.CursoEstudianteRepository;
 import com.espe.micro_cursos.repositories.CursoRepository;
+import com.espe.micro_cursos.search.CursoSearchIndex;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Date;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.function.LongPredicate;
 
 @Service
 public class CursoServiceImpl implements CursoService {
 
+    private static final Logger log = LoggerFactory.getLogger(CursoServiceImpl.class);
+
     @Autowired
     private CursoRepository cursoRepository;
 
@@ -28,57 +55,164 @@ public class CursoServiceImpl implements CursoService {
     @Autowired
     private EstudianteClient estudianteClient;
 
+    @Autowired
+    private EstudianteCache estudianteCache;
+
+    @Autowired
+    private EstudianteResolver estudianteResolver;
+
+    @Autowired
+    private CursoSearchIndex cursoSearchIndex;
+
+    @Autowired
+    private ExportadorJson exportadorJson;
+
     @Autowired
     ObjectMapper objectMapper;
 
+    @Value("${cursos.inscritos.recalcular-al-iniciar:false}")
+    private boolean recalcularInscritos;
+
+    // Copia del ObjectMapper con el mixin, creada una vez: cada copia arma de nuevo sus serializadores
+    private ObjectWriter escritorExportacion;
+
+    // En la exportación las inscripciones van aparte (/api/curso-estudiante/export); así no se inicializa la colección lazy
+    @JsonIgnoreProperties("cursoEstudiantes")
+    private abstract static class CursoSinInscripciones {
+    }
+
+    @PostConstruct
+    void crearEscritorExportacion() {
+        escritorExportacion = objectMapper.copy()
+                .addMixIn(Curso.class, CursoSinInscripciones.class)
+                .writerFor(Curso.class);
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public List<Curso> listarTodos() {
-        return cursoRepository.findAll();
+        return cursoRepository.findAllConInscripciones();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Curso> listarPagina(long despuesDeId, int limite) {
+        // Se pide una fila extra para saber si existe una página siguiente sin hacer COUNT
+        KeysetPage<Long> ids = KeysetPage.of(cursoRepository.findIdsDespuesDe(despuesDeId, Limit.of(limite + 1)), limite, Long::longValue);
+        if (ids.getItems().isEmpty()) {
+            return KeysetPage.conItems(List.of(), null);
+        }
+        // Segunda consulta: solo los cursos de la página, con sus inscripciones
+        return KeysetPage.conItems(cursoRepository.findByIdInOrderByIdAsc(ids.getItems()), ids.getNextCursor());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<CursoResumen> listarResumenes(long despuesDeId, int limite) {
+        return KeysetPage.of(cursoRepository.findResumenesDespuesDe(despuesDeId, Limit.of(limite + 1)), limite, CursoResumen::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CursoResumen> buscarResumenes(String texto, Integer creditos, int limite) {
+        return cursoRepository.buscarResumenes(texto, creditos, Limit.of(limite));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CursoResumen> listarPorInscritos(boolean descendente, int limite) {
+        return descendente ? cursoRepository.findMasInscritos(Limit.of(limite)) : cursoRepository.findMenosInscritos(Limit.of(limite));
+    }
+
+    /**
+     * Recalcula el total de inscritos de cada curso al arrancar, si se activa
+     * cursos.inscritos.recalcular-al-iniciar. Solo hace falta sobre una base con inscripciones
+     * anteriores a la columna; después el contador se mantiene en cada escritura.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recalcularInscritosAlIniciar() {
+        if (recalcularInscritos) {
+            int corregidos = cursoEstudianteRepository.recalcularInscritos();
+            log.info("Total de inscritos recalculado: {} cursos corregidos", corregidos);
+        }
+    }
+
+    @Override
+    public long exportarCursos(FormatoExportacion formato, OutputStream salida) throws IOException {
+        return exportadorJson.exportar(cursoRepository::streamTodos, escritorExportacion, formato, salida);
     }
 
     @Override
     public Curso guardarCurso(Curso curso) {
-        return cursoRepository.save(curso);
+        Curso guardado = cursoRepository.save(curso);
+        cursoSearchIndex.indexar(indexable(guardado));
+        return guardado;
+    }
+
+    @Override
+    public List<Curso> guardarCursos(List<Curso> cursos) {
+        // saveAll corre en una transacción: al hacer flush Hibernate agrupa los INSERT según hibernate.jdbc.batch_size
+        List<Curso> guardados = cursoRepository.saveAll(cursos);
+        guardados.forEach(curso -> cursoSearchIndex.indexar(indexable(curso)));
+        return guardados;
+    }
+
+    @Override
+    @Transactional
+    public Optional<Curso> actualizarCurso(Long id, Curso datos, LongPredicate versionAceptada) {
+        // Transacción de escritura: la versión se compara con la del primario, no con la de una réplica
+        // atrasada ni la de la caché de segundo nivel, y nadie la cambia hasta el commit
+        Optional<Curso> existente = cursoRepository.findParaActualizar(id);
+        if (existente.isEmpty()) {
+            return Optional.empty();
+        }
+        Curso curso = existente.get();
+        if (!versionAceptada.test(curso.getVersion())) {
+            throw new CursoModificadoException(id, curso.getVersion());
+        }
+        curso.setNombre(datos.getNombre());
+        curso.setDescripcion(datos.getDescripcion());
+        curso.setCreditos(datos.getCreditos());
+        // flush para devolver la versión nueva (el ETag de la respuesta)
+        Curso actualizado = cursoRepository.saveAndFlush(curso);
+        cursoSearchIndex.indexar(indexable(actualizado));
+        return Optional.of(actualizado);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Curso obtenerPorId(Long id) {
         return cursoRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Curso no encontrado con ID: " + id));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> obtenerVersion(Long id) {
+        return cursoRepository.findVersionById(id);
+    }
+
     @Override
     public void eliminarPorId(Long id) {
         cursoRepository.deleteById(id);
+        cursoSearchIndex.eliminar(id);
     }
 
     @Override
-    public Optional<Estudiante> addEstudiante(Estudiante estudiante, Long id) {
-        Optional<Curso> optionalCurso = cursoRepository.findById(id);
-        if (optionalCurso.isPresent()) {
-            // Obtener el estudiante del servicio externo
-            ResponseEntity<Map<String, Object>> response = estudianteClient.obtenerEstudiante(estudiante.getId());
-
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                // Convertir la respuesta del cuerpo a Estudiante
-                try {
-                    Estudiante estudianteAux = objectMapper.convertValue(response.getBody().get("data"), Estudiante.class);
-
-                    Curso curso = optionalCurso.get();
-                    CursoEstudiante cursoEstudiante = new CursoEstudiante();
-
-                    cursoEstudiante.setEstudianteId(estudianteAux.getId());
-                    cursoEstudiante.setCursoId(curso.getId());
+    public Optional<EstudianteDto> addEstudiante(EstudianteDto estudiante, Long id) {
+        // Solo se comprueba que el curso exista: no se carga el agregado ni su lista de inscripciones
+        if (cursoRepository.existsById(id)) {
+            // Obtener el estudiante desde la caché o, si no está, del servicio externo
+            EstudianteDto estudianteAux = estudianteCache.obtener(estudiante.getId())
+                    .orElseThrow(() -> new EstudianteNoEncontradoException(estudiante.getId()));
+            try {
+                // Insertar directamente la relación (y actualizar la versión del curso)
+                cursoEstudianteRepository.insertarEnLote(id, List.of(estudianteAux.getId()));
 
-                    // Agregar la relación al curso
-                    curso.addCursoEstudiante(cursoEstudiante);
-                    cursoRepository.save(curso);
-
-                    return Optional.of(estudianteAux);
-                } catch (Exception e) {
-                    // Manejo de errores en caso de fallos de conversión
-                    e.printStackTrace();
-                }
+                return Optional.of(estudianteAux);
+            } catch (Exception e) {
+                // Manejo de errores al guardar la relación (por ejemplo, si ya estaba inscrito)
+                e.printStackTrace();
             }
         }
 
@@ -86,55 +220,142 @@ public class CursoServiceImpl implements CursoService {
     }
 
     @Override
-    public boolean removerEstudiante(Estudiante estudiante, Long id) {
-        Optional<Curso> optionalCurso = cursoRepository.findById(id);
-        if (optionalCurso.isPresent()) {
-            // Obtener el estudiante del servicio externo
-            ResponseEntity<Map<String, Object>> response = estudianteClient.obtenerEstudiante(estudiante.getId());
+    public boolean removerEstudiante(EstudianteDto estudiante, Long id) {
+        // Obtener el estudiante desde la caché o, si no está, del servicio externo
+        EstudianteDto estudianteAux = estudianteCache.obtener(estudiante.getId())
+                .orElseThrow(() -> new EstudianteNoEncontradoException(estudiante.getId()));
 
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                // Convertir la respuesta del cuerpo a Estudiante
-                try {
-                    Estudiante estudianteAux = objectMapper.convertValue(response.getBody().get("data"), Estudiante.class);
+        // Un único DELETE por (curso_id, estudiante_id); si el curso no existe no afecta filas
+        return cursoEstudianteRepository.desinscribir(id, estudianteAux.getId()) > 0;
+    }
 
-                    Curso curso = optionalCurso.get();
+    @Override
+    public Optional<InscripcionMasiva> addEstudiantes(List<Long> estudianteIds, Long id) {
+        if (!cursoRepository.existsById(id)) {
+            return Optional.empty();
+        }
 
-                    // Buscar la relación de CursoEstudiante con los IDs
-                    Optional<CursoEstudiante> cursoEstudianteOpt = curso.getCursoEstudiantes().stream()
-                            .filter(ce -> ce.getEstudianteId().equals(estudianteAux.getId()) && ce.getCursoId().equals(curso.getId()))
-                            .findFirst();
+        // Se descartan nulos y duplicados conservando el orden de llegada
+        Set<Long> solicitados = new LinkedHashSet<>(estudianteIds);
+        solicitados.remove(null);
+        InscripcionMasiva resultado = new InscripcionMasiva();
+        if (solicitados.isEmpty()) {
+            return Optional.of(resultado);
+        }
+
+        // Una sola llamada a micro-estudiante para validar todos los IDs
+        ResponseEntity<Respuesta<List<EstudianteDto>>> response = estudianteClient.obtenerEstudiantesPorIds(solicitados);
+        Set<Long> existentes = new HashSet<>();
+        if (response.getBody() != null && response.getBody().getData() != null) {
+            List<EstudianteDto> encontrados = response.getBody().getData();
+            encontrados.forEach(e -> existentes.add(e.getId()));
+            // Se aprovecha la consulta por lotes para calentar la caché de estudiantes
+            estudianteCache.registrar(solicitados, encontrados);
+        }
 
-                    if (cursoEstudianteOpt.isPresent()) {
-                        // Eliminar la relación
-                        CursoEstudiante cursoEstudiante = cursoEstudianteOpt.get();
+        List<Long> candidatos = solicitados.stream().filter(existentes::contains).toList();
+        Set<Long> yaInscritos = new HashSet<>();
+        List<Long> nuevos = candidatos;
+        for (int intento = 0; intento < 2; intento++) {
+            if (!candidatos.isEmpty()) {
+                yaInscritos.addAll(cursoEstudianteRepository.findEstudianteIdsInscritos(id, candidatos));
+            }
+            nuevos = candidatos.stream().filter(e -> !yaInscritos.contains(e)).toList();
+            try {
+                cursoEstudianteRepository.insertarEnLote(id, nuevos);
+                break;
+            } catch (DataIntegrityViolationException e) {
+                // Otra petición inscribió alguno de los estudiantes entre la consulta y el INSERT;
+                // el lote se revirtió completo, se recalculan los ya inscritos y se reintenta una vez
+                if (intento == 1) {
+                    inscribirDeAUno(id, nuevos, yaInscritos);
+                }
+            }
+        }
 
-                        // Eliminar la relación de la base de datos
-                        cursoEstudianteRepository.deleteById(cursoEstudiante.getId());
+        for (Long estudianteId : solicitados) {
+            if (!existentes.contains(estudianteId)) {
+                resultado.registrar(estudianteId, EstadoInscripcion.ESTUDIANTE_INEXISTENTE);
+            } else if (yaInscritos.contains(estudianteId)) {
+                resultado.registrar(estudianteId, EstadoInscripcion.YA_INSCRITO);
+            } else {
+                resultado.registrar(estudianteId, EstadoInscripcion.INSCRITO);
+            }
+        }
+        return Optional.of(resultado);
+    }
 
-                        return true;
-                    }
-                } catch (Exception e) {
-                    // Manejo de errores en caso de fallos de conversión
-                    e.printStackTrace();
+    // Con inscripciones concurrentes sobre los mismos estudiantes el lote puede volver a chocar: cada uno
+    // se inserta en su propia transacción y los que ya quedaron inscritos pasan a yaInscritos
+    private void inscribirDeAUno(Long cursoId, List<Long> estudianteIds, Set<Long> yaInscritos) {
+        for (Long estudianteId : estudianteIds) {
+            try {
+                cursoEstudianteRepository.insertarEnLote(cursoId, List.of(estudianteId));
+            } catch (DataIntegrityViolationException e) {
+                if (cursoEstudianteRepository.findEstudianteIdsInscritos(cursoId, List.of(estudianteId)).isEmpty()) {
+                    // No fue la restricción única (p. ej. el curso se eliminó entre medio)
+                    throw e;
                 }
+                yaInscritos.add(estudianteId);
             }
         }
+    }
+
+    @Override
+    public Optional<KeysetPage<EstudianteInscrito>> listarEstudiantes(Long id, long despuesDeId, int limite) {
+        if (!cursoRepository.existsById(id)) {
+            return Optional.empty();
+        }
+        List<CursoEstudiante> filas = cursoEstudianteRepository.findByCursoIdAndIdGreaterThanOrderByIdAsc(id, despuesDeId, Limit.of(limite + 1));
+        KeysetPage<CursoEstudiante> pagina = KeysetPage.of(filas, limite, CursoEstudiante::getId);
 
-        return false;
+        Map<Long, Optional<EstudianteDto>> resueltos = estudianteResolver.resolver(
+                pagina.getItems().stream().map(CursoEstudiante::getEstudianteId).toList());
+
+        List<EstudianteInscrito> inscritos = new ArrayList<>();
+        for (CursoEstudiante ce : pagina.getItems()) {
+            Optional<EstudianteDto> resuelto = resueltos.get(ce.getEstudianteId());
+            if (resuelto == null) {
+                inscritos.add(new EstudianteInscrito(ce.getId(), ce.getEstudianteId(), EstudianteInscrito.Estado.PENDIENTE, null));
+            } else if (resuelto.isEmpty()) {
+                inscritos.add(new EstudianteInscrito(ce.getId(), ce.getEstudianteId(), EstudianteInscrito.Estado.INEXISTENTE, null));
+            } else {
+                inscritos.add(new EstudianteInscrito(ce.getId(), ce.getEstudianteId(), EstudianteInscrito.Estado.RESUELTO, resuelto.get()));
+            }
+        }
+        return Optional.of(KeysetPage.conItems(inscritos, pagina.getNextCursor()));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Curso> buscarPorCreditos(int creditos) {
         return cursoRepository.findByCreditos(creditos);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Curso> buscarPorFechaCreacionPosterior(Date fecha) {
         return cursoRepository.findByCreadoEnAfter(fecha);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Curso> buscarPorDescripcion(String texto) {
-        return cursoRepository.findByDescripcionContaining(texto);
+        // Substring literal en la descripción: el índice de trigramas da los IDs y se cargan por clave primaria.
+        // Con menos de 3 caracteres (o el índice sin construir) no acota nada y se usa el LIKE '%texto%'
+        Optional<List<Long>> ids = cursoSearchIndex.buscarSubcadena(texto, CursoSearchIndex.Campo.DESCRIPCION);
+        if (ids.isEmpty()) {
+            return cursoRepository.findByDescripcionContaining(texto);
+        }
+        return ids.get().isEmpty() ? List.of() : cursoRepository.findByIdInOrderByIdAsc(ids.get());
+    }
+
+    @Override
+    public ResultadoBusqueda buscarPorTexto(String consulta, int offset, int limite) {
+        return cursoSearchIndex.buscar(consulta, CursoSearchIndex.Campo.AMBOS, offset, limite);
+    }
+
+    private CursoIndexado indexable(Curso curso) {
+        return new CursoIndexado(curso.getId(), curso.getNombre(), curso.getDescripcion(), curso.getCreditos(), curso.getCreadoEn());
     }
 }
@@ -0,0 +1,24 @@
+-- Esquema que generaba Hibernate con ddl-auto=update hasta esta versión.
+-- En una base existente sin historial de Flyway esta migración se marca como aplicada (baseline-on-migrate).
+
+create table cursos (
+    id bigint not null auto_increment,
+    nombre varchar(255) not null,
+    descripcion varchar(255) not null,
+    creditos integer not null,
+    creado_en datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table cursos_estudiante (
+    id bigint not null auto_increment,
+    estudiante_id bigint not null,
+    curso_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table cursos_estudiante
+    add constraint uk_cursos_estudiante_estudiante_curso unique (estudiante_id, curso_id);
+
+alter table cursos_estudiante
+    add constraint fk_cursos_estudiante_curso foreign key (curso_id) references cursos (id);
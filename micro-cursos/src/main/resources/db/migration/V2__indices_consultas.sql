@@ -0,0 +1,10 @@
+-- Índices para las búsquedas de CursoRepository
+create index idx_cursos_creditos on cursos (creditos);
+create index idx_cursos_creado_en on cursos (creado_en);
+
+-- Búsqueda inversa por curso: inscritos de un curso paginados por id. La restricción única
+-- (estudiante_id, curso_id) empieza por estudiante_id y no sirve para filtrar solo por curso_id.
+-- Con (curso_id, id, estudiante_id) la página sale ordenada y sin leer la tabla; MySQL usa este
+-- índice para la clave foránea y descarta el que había creado implícitamente para ella.
+create index idx_cursos_estudiante_curso on cursos_estudiante (curso_id, id, estudiante_id);
+
@@ -0,0 +1,14 @@
+-- IDs asignados por Hibernate con un generador de tabla y optimizador pooled en lugar de AUTO_INCREMENT:
+-- con IDENTITY Hibernate necesita el ID de cada fila al persistirla y no puede agrupar los INSERT en lotes JDBC.
+-- Cada instancia reserva un bloque de IDs (allocationSize de @TableGenerator) con un único UPDATE sobre esta tabla.
+-- El optimizador toma "siguiente" como el extremo superior del primer bloque: se inicia en el mayor ID existente
+-- + allocationSize - 1 para que ese bloque empiece justo después (cursos: 50, cursos_estudiante: 500).
+-- Las columnas id conservan auto_increment, pero toda inserción de la aplicación (también las de JDBC) indica el ID.
+create table generadores_id (
+    entidad varchar(255) not null,
+    siguiente bigint,
+    primary key (entidad)
+) engine=InnoDB;
+
+insert into generadores_id (entidad, siguiente) select 'cursos', coalesce(max(id), 0) + 49 from cursos;
+insert into generadores_id (entidad, siguiente) select 'cursos_estudiante', coalesce(max(id), 0) + 499 from cursos_estudiante;
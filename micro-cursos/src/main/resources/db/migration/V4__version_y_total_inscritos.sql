@@ -0,0 +1,10 @@
+-- Columnas agregadas a las entidades después del esquema inicial: la versión de Curso (@Version, ETag e If-Match)
+-- y el contador de inscritos que mantienen las escrituras de inscripciones. Las filas existentes parten de 0.
+alter table cursos add column version bigint not null default 0;
+alter table cursos add column total_inscritos bigint not null default 0;
+
+-- Total de inscritos de las bases creadas antes de mantener el contador en cada escritura
+update cursos
+set total_inscritos = (select count(*) from cursos_estudiante ce where ce.curso_id = cursos.id);
+
+create index idx_cursos_total_inscritos on cursos (total_inscritos);
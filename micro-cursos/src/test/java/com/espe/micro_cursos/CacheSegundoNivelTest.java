@@ -0,0 +1,190 @@
+package com.espe.micro_cursos.config;
+
+import com.espe.micro_cursos.model.entity.Curso;
+import com.espe.micro_cursos.model.entity.CursoEstudiante;
+import com.espe.micro_cursos.repositories.CursoEstudianteRepository;
+import com.espe.micro_cursos.repositories.CursoRepository;
+import com.espe.micro_cursos.services.CursoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Caché de segundo nivel: las lecturas repetidas no llegan a la base de datos y todas las escrituras
+ * (JPA y JDBC directo sobre cursos_estudiante) dejan de servir los datos anteriores.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class CacheSegundoNivelTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CursoService cursoService;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private CursoEstudianteRepository cursoEstudianteRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics estadisticas;
+
+    private Curso curso;
+
+    @BeforeEach
+    void setUp() {
+        curso = new Curso();
+        curso.setNombre("Programación Java");
+        curso.setDescripcion("Curso completo de Java");
+        curso.setCreditos(4);
+        curso = cursoService.guardarCurso(curso);
+        cursoEstudianteRepository.insertarEnLote(curso.getId(), List.of(1L, 2L));
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testObtenerCursoRepetidoSinConsultas() throws Exception {
+        obtenerCurso().andExpect(jsonPath("$.data.cursoEstudiantes.length()").value(2));
+        estadisticas.clear();
+
+        obtenerCurso()
+                .andExpect(jsonPath("$.data.cursoEstudiantes.length()").value(2))
+                .andExpect(jsonPath("$.data.totalInscritos").value(2));
+
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+        assertThat(estadisticas.getCacheRegionStatistics(CacheSegundoNivelConfig.REGION_CURSO).getHitCount()).isEqualTo(1);
+        assertThat(estadisticas.getCacheRegionStatistics(CacheSegundoNivelConfig.REGION_INSCRIPCIONES).getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testInscripcionesPorJdbcInvalidanCursoYColeccion() throws Exception {
+        obtenerCurso().andExpect(jsonPath("$.data.cursoEstudiantes.length()").value(2));
+
+        cursoEstudianteRepository.insertarEnLote(curso.getId(), List.of(3L));
+        obtenerCurso()
+                .andExpect(jsonPath("$.data.cursoEstudiantes.length()").value(3))
+                .andExpect(jsonPath("$.data.totalInscritos").value(3));
+
+        Long relacionEliminada = relacion(curso.getId(), 1L).getId();
+        cursoEstudianteRepository.desinscribir(curso.getId(), 1L);
+        obtenerCurso()
+                .andExpect(jsonPath("$.data.cursoEstudiantes.length()").value(2))
+                .andExpect(jsonPath("$.data.totalInscritos").value(2));
+        assertThat(cursoEstudianteRepository.findById(relacionEliminada)).isEmpty();
+    }
+
+    @Test
+    void testMoverRelacionInvalidaAmbosCursos() throws Exception {
+        Curso otro = new Curso();
+        otro.setNombre("Bases de datos");
+        otro.setDescripcion("Modelado relacional");
+        otro.setCreditos(3);
+        otro = cursoService.guardarCurso(otro);
+        obtenerCurso();
+        mockMvc.perform(get("/api/cursos/" + otro.getId())).andExpect(jsonPath("$.data.cursoEstudiantes.length()").value(0));
+
+        Long relacionId = relacion(curso.getId(), 1L).getId();
+        mockMvc.perform(put("/api/curso-estudiante/" + relacionId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"estudianteId\": 1, \"cursoId\": " + otro.getId() + "}"))
+                .andExpect(status().isOk());
+
+        obtenerCurso().andExpect(jsonPath("$.data.cursoEstudiantes.length()").value(1));
+        mockMvc.perform(get("/api/cursos/" + otro.getId()))
+                .andExpect(jsonPath("$.data.cursoEstudiantes.length()").value(1))
+                .andExpect(jsonPath("$.data.totalInscritos").value(1));
+    }
+
+    @Test
+    void testActualizarYEliminarCursoInvalidan() {
+        cursoService.obtenerPorId(curso.getId());
+
+        Curso cambios = cursoService.obtenerPorId(curso.getId());
+        cambios.setNombre("Java avanzado");
+        cursoService.guardarCurso(cambios);
+        assertThat(cursoService.obtenerPorId(curso.getId()).getNombre()).isEqualTo("Java avanzado");
+
+        cursoEstudianteRepository.desinscribir(curso.getId(), 1L);
+        cursoEstudianteRepository.desinscribir(curso.getId(), 2L);
+        cursoService.eliminarPorId(curso.getId());
+        assertThatThrownBy(() -> cursoService.obtenerPorId(curso.getId())).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void testConsultaPorCreditosCacheada() throws Exception {
+        int creditos = 9;
+        Curso cambios = cursoService.obtenerPorId(curso.getId());
+        cambios.setCreditos(creditos);
+        cursoService.guardarCurso(cambios);
+
+        buscarPorCreditos(creditos).andExpect(jsonPath("$.data.length()").value(1));
+        estadisticas.clear();
+        buscarPorCreditos(creditos).andExpect(jsonPath("$.data[0].cursoEstudiantes.length()").value(2));
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+        assertThat(estadisticas.getQueryCacheHitCount()).isEqualTo(1);
+
+        // Las inscripciones por JDBC se ven en el resultado cacheado
+        cursoEstudianteRepository.insertarEnLote(curso.getId(), List.of(3L));
+        buscarPorCreditos(creditos).andExpect(jsonPath("$.data[0].cursoEstudiantes.length()").value(3));
+
+        // Un curso nuevo con esos créditos invalida el resultado
+        Curso nuevo = new Curso();
+        nuevo.setNombre("Redes");
+        nuevo.setDescripcion("Protocolos de red");
+        nuevo.setCreditos(creditos);
+        cursoService.guardarCurso(nuevo);
+        buscarPorCreditos(creditos).andExpect(jsonPath("$.data.length()").value(2));
+    }
+
+    @Test
+    void testTasaDeAciertosPorRegion() {
+        cursoService.obtenerPorId(curso.getId());
+        cursoService.obtenerPorId(curso.getId());
+
+        double tasa = meterRegistry.get("hibernate.cache.tasa.aciertos")
+                .tag("region", CacheSegundoNivelConfig.REGION_CURSO).gauge().value();
+        assertThat(tasa).isGreaterThan(0).isLessThanOrEqualTo(1);
+    }
+
+    private ResultActions obtenerCurso() throws Exception {
+        return mockMvc.perform(get("/api/cursos/" + curso.getId())).andExpect(status().isOk());
+    }
+
+    private ResultActions buscarPorCreditos(int creditos) throws Exception {
+        return mockMvc.perform(get("/api/cursos/buscar/creditos/" + creditos)).andExpect(status().isOk());
+    }
+
+    private CursoEstudiante relacion(Long cursoId, Long estudianteId) {
+        return cursoEstudianteRepository.findAll().stream()
+                .filter(r -> r.getCursoId().equals(cursoId) && r.getEstudianteId().equals(estudianteId))
+                .findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,191 @@
+package com.espe.micro_cursos;
+
+import com.espe.micro_cursos.model.entity.Curso;
+import com.espe.micro_cursos.repositories.CursoEstudianteRepository;
+import com.espe.micro_cursos.repositories.CursoRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Comparación de carga local entre el modo con hilos de plataforma y el modo con hilos virtuales.
+ * Levanta micro-cursos sobre H2 con un micro-estudiante simulado que responde con latencia fija,
+ * y mide GET /api/cursos/{id}/estudiantes (consulta JPA + llamada Feign por solicitud, sin caché).
+ * <p>
+ * No forma parte de {@code mvn test}; se ejecuta con:
+ * <pre>
+ * ./mvnw test -Pcarga -Djava.version=21     # ambos modos (requiere JDK 21)
+ * ./mvnw test -Pcarga                       # solo hilos de plataforma en Java 17
+ * </pre>
+ * Parámetros: -Dcarga.concurrencia, -Dcarga.solicitudes, -Dcarga.latencia-ms, -Dcarga.hilos-tomcat.
+ */
+@Tag("carga")
+public class ComparacionHilosTest {
+
+    private static final int CONCURRENCIA = Integer.getInteger("carga.concurrencia", 200);
+    private static final int SOLICITUDES = Integer.getInteger("carga.solicitudes", 4000);
+    private static final int LATENCIA_MS = Integer.getInteger("carga.latencia-ms", 20);
+    private static final int HILOS_TOMCAT = Integer.getInteger("carga.hilos-tomcat", 50);
+    private static final int CALENTAMIENTO = 500;
+    private static final int INSCRITOS = 20;
+
+    private static final Logger log = LoggerFactory.getLogger(ComparacionHilosTest.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private record Resultado(String modo, double solicitudesPorSegundo, long p50, long p99, int errores) {
+    }
+
+    @Test
+    void compararHilosDePlataformaYVirtuales() throws Exception {
+        HttpServer estudiantes = iniciarEstudiantesSimulado();
+        try {
+            List<Resultado> resultados = new ArrayList<>();
+            resultados.add(medir("plataforma", false, estudiantes.getAddress().getPort()));
+            if (Runtime.version().feature() >= 21) {
+                resultados.add(medir("virtual", true, estudiantes.getAddress().getPort()));
+            } else {
+                log.info("Java {}: el modo con hilos virtuales requiere Java 21 y se omite.", Runtime.version().feature());
+            }
+
+            StringBuilder tabla = new StringBuilder(String.format(Locale.ROOT, "%-12s %12s %10s %10s %8s",
+                    "modo", "sol/s", "p50 ms", "p99 ms", "errores"));
+            for (Resultado r : resultados) {
+                tabla.append(String.format(Locale.ROOT, "%n%-12s %12.1f %10d %10d %8d",
+                        r.modo(), r.solicitudesPorSegundo(), r.p50(), r.p99(), r.errores()));
+            }
+            log.info("Concurrencia={} solicitudes={} latencia micro-estudiante={} ms hilos Tomcat={}{}{}",
+                    CONCURRENCIA, SOLICITUDES, LATENCIA_MS, HILOS_TOMCAT, System.lineSeparator(), tabla);
+            resultados.forEach(r -> assertThat(r.errores()).isZero());
+        } finally {
+            estudiantes.stop(0);
+        }
+    }
+
+    private Resultado medir(String modo, boolean virtual, int puertoEstudiantes) throws Exception {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(MicroCursosApplication.class)
+                .profiles("test")
+                // Como argumentos de línea de comandos para que tengan precedencia sobre application.properties
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--server.tomcat.threads.max=" + HILOS_TOMCAT,
+                        "--spring.datasource.url=jdbc:h2:mem:carga-" + modo + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        // El contexto reconfigura el logging de toda la JVM; el resultado se informa en INFO
+                        "--logging.level." + ComparacionHilosTest.class.getName() + "=INFO",
+                        "--cursos.estudiantes.url=http://localhost:" + puertoEstudiantes,
+                        "--cursos.cache-estudiantes.tamano-maximo=0",
+                        // Se mide el servicio, no el control de admisión
+                        "--cursos.admision.habilitada=false",
+                        "--cursos.roster.concurrencia-maxima=" + CONCURRENCIA)) {
+            long cursoId = sembrar(contexto);
+            URI uri = URI.create("http://localhost:" + contexto.getEnvironment().getProperty("local.server.port")
+                    + "/api/cursos/" + cursoId + "/estudiantes?limit=" + INSCRITOS);
+
+            ejecutar(uri, CALENTAMIENTO);
+            long inicio = System.nanoTime();
+            long[] latencias = ejecutar(uri, SOLICITUDES);
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+
+            int errores = (int) Arrays.stream(latencias).filter(l -> l < 0).count();
+            long[] ordenadas = Arrays.stream(latencias).filter(l -> l >= 0).sorted().toArray();
+            return new Resultado(modo, SOLICITUDES / segundos, percentil(ordenadas, 50), percentil(ordenadas, 99), errores);
+        }
+    }
+
+    private long sembrar(ConfigurableApplicationContext contexto) {
+        Curso curso = new Curso();
+        curso.setNombre("Curso de carga");
+        curso.setDescripcion("Curso usado para medir el listado de inscritos");
+        curso.setCreditos(4);
+        long cursoId = contexto.getBean(CursoRepository.class).save(curso).getId();
+        contexto.getBean(CursoEstudianteRepository.class)
+                .insertarEnLote(cursoId, LongStream.rangeClosed(1, INSCRITOS).boxed().toList());
+        return cursoId;
+    }
+
+    // Latencia en milisegundos de cada solicitud; -1 si la respuesta no fue 200 o falló
+    private long[] ejecutar(URI uri, int total) throws InterruptedException {
+        long[] latencias = new long[total];
+        AtomicInteger siguiente = new AtomicInteger();
+        ExecutorService clientes = Executors.newFixedThreadPool(CONCURRENCIA);
+        // El HttpClient usa su propio executor: los hilos de "clientes" quedan bloqueados en send()
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest solicitud = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        for (int c = 0; c < CONCURRENCIA; c++) {
+            clientes.submit(() -> {
+                for (int i = siguiente.getAndIncrement(); i < total; i = siguiente.getAndIncrement()) {
+                    long inicio = System.nanoTime();
+                    try {
+                        HttpResponse<Void> respuesta = http.send(solicitud, HttpResponse.BodyHandlers.discarding());
+                        latencias[i] = respuesta.statusCode() == 200 ? (System.nanoTime() - inicio) / 1_000_000 : -1;
+                    } catch (Exception e) {
+                        latencias[i] = -1;
+                    }
+                }
+            });
+        }
+        clientes.shutdown();
+        clientes.awaitTermination(10, TimeUnit.MINUTES);
+        return latencias;
+    }
+
+    private static long percentil(long[] ordenadas, int percentil) {
+        if (ordenadas.length == 0) {
+            return -1;
+        }
+        int indice = (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)];
+    }
+
+    // micro-estudiante simulado: POST /api/estudiantes/por-ids responde tras LATENCIA_MS con los IDs pedidos
+    private HttpServer iniciarEstudiantesSimulado() throws Exception {
+        HttpServer servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.setExecutor(Executors.newCachedThreadPool());
+        servidor.createContext("/api/estudiantes/por-ids", intercambio -> {
+            List<Long> ids = objectMapper.readValue(intercambio.getRequestBody(), new TypeReference<List<Long>>() {});
+            try {
+                Thread.sleep(LATENCIA_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<Map<String, Object>> data = ids.stream()
+                    .map(id -> Map.<String, Object>of("id", id, "nombre", "Estudiante " + id, "apellido", "Carga",
+                            "email", "estudiante" + id + "@universidad.edu"))
+                    .toList();
+            byte[] cuerpo = objectMapper.writeValueAsBytes(Map.of("message", "Estudiantes obtenidos exitosamente.", "data", data));
+            intercambio.getResponseHeaders().add("Content-Type", "application/json");
+            intercambio.sendResponseHeaders(200, cuerpo.length);
+            intercambio.getResponseBody().write(cuerpo);
+            intercambio.close();
+        });
+        servidor.start();
+        return servidor;
+    }
+}
@@ -0,0 +1,172 @@
+package com.espe.micro_cursos.admision;
+
+import com.espe.micro_cursos.model.entity.Curso;
+import com.espe.micro_cursos.pagination.KeysetPage;
+import com.espe.micro_cursos.services.CursoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "cursos.admision.grupos.lectura.rafaga=3",
+        "cursos.admision.grupos.lectura.solicitudes-por-segundo=0.01",
+        "cursos.admision.grupos.estudiantes.concurrencia-maxima=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ControlAdmisionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private CursoService cursoService;
+
+    @BeforeEach
+    void setUp() {
+        Curso curso = new Curso();
+        curso.setId(1L);
+        curso.setNombre("Programación Java");
+        curso.setDescripcion("Curso completo de Java");
+        curso.setCreditos(4);
+        when(cursoService.obtenerPorId(1L)).thenReturn(curso);
+    }
+
+    @Test
+    void testClienteQueAgotaSuCubetaRecibe429() throws Exception {
+        String cliente = "10.0.0.1";
+        for (int i = 0; i < 3; i++) {
+            obtenerCurso(cliente).andExpect(status().isOk());
+        }
+
+        obtenerCurso(cliente)
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"))
+                .andExpect(jsonPath("$.message").exists());
+        // Otro cliente tiene su propia cubeta
+        obtenerCurso("10.0.0.2").andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("http.admision.rechazos").tag("grupo", "lectura").tag("motivo", "cliente")
+                .counter().count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void testGrupoSaturadoRechazaSinAfectarALosDemas() throws Exception {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(cursoService.listarEstudiantes(eq(1L), anyLong(), anyInt())).thenAnswer(invocacion -> {
+            enCurso.countDown();
+            liberar.await(10, TimeUnit.SECONDS);
+            return Optional.of(KeysetPage.conItems(List.of(), null));
+        });
+
+        CompletableFuture<Integer> lenta = CompletableFuture.supplyAsync(() -> {
+            try {
+                return mockMvc.perform(get("/api/cursos/1/estudiantes")).andReturn().getResponse().getStatus();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        try {
+            assertThat(enCurso.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(meterRegistry.get("http.admision.en.curso").tag("grupo", "estudiantes").gauge().value()).isEqualTo(1);
+
+            mockMvc.perform(get("/api/cursos/1/estudiantes").with(cliente("10.0.0.3")))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+            // Las lecturas simples tienen su propio límite
+            obtenerCurso("10.0.0.4").andExpect(status().isOk());
+        } finally {
+            liberar.countDown();
+        }
+
+        assertThat(lenta.get(10, TimeUnit.SECONDS)).isEqualTo(200);
+        assertThat(meterRegistry.get("http.admision.rechazos").tag("grupo", "estudiantes").tag("motivo", "concurrencia")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testRechazoPorConcurrenciaNoGastaElTokenDelCliente() throws Exception {
+        GrupoAdmision grupo = new GrupoAdmision("unitario", new GrupoAdmision.Limites(0, List.of(), List.of(), 1, 0.01, 1));
+        ControlAdmisionFilter filtro = new ControlAdmisionFilter(List.of(grupo), Duration.ofSeconds(1), meterRegistry, objectMapper);
+
+        assertThat(grupo.entrar()).isTrue();
+        assertThat(filtrar(filtro, (solicitud, respuesta) -> { }).getStatus()).isEqualTo(429);
+        grupo.salir();
+
+        // Su único token sigue disponible
+        assertThat(filtrar(filtro, (solicitud, respuesta) -> { }).getStatus()).isEqualTo(200);
+        assertThat(grupo.getEnCurso()).isZero();
+    }
+
+    @Test
+    void testRespuestaAsincronaOcupaSuLugarHastaCompletarse() throws Exception {
+        GrupoAdmision grupo = new GrupoAdmision("unitario", new GrupoAdmision.Limites(0, List.of(), List.of(), 1, 100, 100));
+        ControlAdmisionFilter filtro = new ControlAdmisionFilter(List.of(grupo), Duration.ofSeconds(1), meterRegistry, objectMapper);
+        MockHttpServletRequest solicitud = new MockHttpServletRequest("GET", "/api/export");
+        solicitud.setAsyncSupported(true);
+
+        filtro.doFilter(solicitud, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        // El hilo que inició la respuesta ya volvió, pero la respuesta sigue en curso
+        assertThat(grupo.getEnCurso()).isEqualTo(1);
+        assertThat(filtrar(filtro, (req, res) -> { }).getStatus()).isEqualTo(429);
+
+        ((MockAsyncContext) solicitud.getAsyncContext()).complete();
+        assertThat(grupo.getEnCurso()).isZero();
+    }
+
+    private ResultActions obtenerCurso(String cliente) throws Exception {
+        return mockMvc.perform(get("/api/cursos/1").with(cliente(cliente)));
+    }
+
+    private static RequestPostProcessor cliente(String direccion) {
+        return solicitud -> {
+            solicitud.setRemoteAddr(direccion);
+            return solicitud;
+        };
+    }
+
+    private static MockHttpServletResponse filtrar(ControlAdmisionFilter filtro, FilterChain cadena) throws Exception {
+        MockHttpServletResponse respuesta = new MockHttpServletResponse();
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/unitario"), respuesta, cadena);
+        return respuesta;
+    }
+}
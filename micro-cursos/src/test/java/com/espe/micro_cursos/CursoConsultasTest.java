@@ -0,0 +1,231 @@
+package com.espe.micro_cursos.controllers;
+
+import com.espe.micro_cursos.model.entity.Curso;
+import com.espe.micro_cursos.repositories.CursoEstudianteRepository;
+import com.espe.micro_cursos.repositories.CursoRepository;
+import com.espe.micro_cursos.search.CursoSearchIndex;
+import com.espe.micro_cursos.services.CursoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Número de sentencias SQL por endpoint de listado y búsqueda: debe ser constante e independiente
+ * del número de cursos, incluida la serialización de cursoEstudiantes (sin N+1).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class CursoConsultasTest {
+
+    private static final int INSCRITOS_POR_CURSO = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CursoService cursoService;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private CursoEstudianteRepository cursoEstudianteRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CursoSearchIndex cursoSearchIndex;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        cursoEstudianteRepository.deleteAllInBatch();
+        cursoRepository.deleteAllInBatch();
+        // El índice de búsqueda no se entera de los borrados masivos
+        cursoSearchIndex.reconstruir();
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testListadoPaginado() throws Exception {
+        assertThat(sentenciasConCursos(3, "/api/cursos?limit=50")).isEqualTo(2);
+        assertThat(sentenciasConCursos(12, "/api/cursos?limit=50")).isEqualTo(2);
+    }
+
+    @Test
+    void testListadoPaginadoConPaginaSiguiente() throws Exception {
+        sembrar(12);
+        estadisticas.clear();
+
+        mockMvc.perform(get("/api/cursos?limit=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(5))
+                .andExpect(jsonPath("$.data[4].cursoEstudiantes.length()").value(INSCRITOS_POR_CURSO))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testBuscarPorCreditos() throws Exception {
+        assertThat(sentenciasConCursos(3, "/api/cursos/buscar/creditos/4")).isEqualTo(1);
+        assertThat(sentenciasConCursos(12, "/api/cursos/buscar/creditos/4")).isEqualTo(1);
+    }
+
+    @Test
+    void testBuscarPorFecha() throws Exception {
+        String ayer = LocalDate.now().minusDays(1).toString();
+        assertThat(sentenciasConCursos(3, "/api/cursos/buscar/fecha/" + ayer)).isEqualTo(1);
+        assertThat(sentenciasConCursos(12, "/api/cursos/buscar/fecha/" + ayer)).isEqualTo(1);
+    }
+
+    @Test
+    void testBuscarPorDescripcion() throws Exception {
+        assertThat(sentenciasConCursos(3, "/api/cursos/buscar/descripcion/completo")).isEqualTo(1);
+        assertThat(sentenciasConCursos(12, "/api/cursos/buscar/descripcion/completo")).isEqualTo(1);
+    }
+
+    @Test
+    void testBuscarPorDescripcionUsaElIndice() throws Exception {
+        sembrar(3);
+        estadisticas.clear();
+
+        // Sin coincidencias en el índice no hay nada que cargar
+        mockMvc.perform(get("/api/cursos/buscar/descripcion/completo de python"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(0));
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+
+        // Los cursos encontrados se cargan por ID, no con LIKE sobre la descripción
+        mockMvc.perform(get("/api/cursos/buscar/descripcion/completo de java"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(3));
+        assertThat(estadisticas.getQueries()).noneMatch(q -> q.toLowerCase().contains("like"));
+
+        // Con menos de 3 caracteres el índice no acota nada y se usa el LIKE
+        estadisticas.clear();
+        mockMvc.perform(get("/api/cursos/buscar/descripcion/Cu"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(3));
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testBuscarPorTextoUsaElIndice() throws Exception {
+        assertThat(sentenciasConCursos(3, "/api/cursos/buscar?q=completo")).isZero();
+        assertThat(sentenciasConCursos(12, "/api/cursos/buscar?q=completo")).isZero();
+    }
+
+    @Test
+    void testResumenesSinEntidades() throws Exception {
+        assertThat(sentenciasConCursos(12, "/api/cursos/resumen?limit=50")).isEqualTo(1);
+        assertThat(estadisticas.getEntityLoadCount()).isZero();
+
+        estadisticas.clear();
+        mockMvc.perform(get("/api/cursos/resumen/buscar").param("nombre", "JAVA 1").param("creditos", "4"))
+                .andExpect(status().isOk())
+                // "Programación Java 1", "Programación Java 10" y "Programación Java 11"
+                .andExpect(jsonPath("$.data.length()").value(3))
+                .andExpect(jsonPath("$.data[0].nombre").value("Programación Java 1"));
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(estadisticas.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void testListarTodos() {
+        sembrar(5);
+        estadisticas.clear();
+
+        List<Curso> cursos = cursoService.listarTodos();
+
+        assertThat(cursos).hasSize(5).allSatisfy(c -> assertThat(c.getCursoEstudiantes()).hasSize(INSCRITOS_POR_CURSO));
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testCrearEnLoteAgrupaLosInsert() throws Exception {
+        // Un único INSERT preparado, reutilizado en lotes de hibernate.jdbc.batch_size filas
+        assertThat(sentenciasAlCrear(20)).isEqualTo(1);
+        assertThat(sentenciasAlCrear(250)).isEqualTo(1);
+    }
+
+    @Test
+    void testCrearCursoIgnoraInscripcionesDelCuerpo() throws Exception {
+        String curso = "{\"nombre\": \"Programación Java\", \"descripcion\": \"Curso completo de Java\", \"creditos\": 4,"
+                + " \"cursoEstudiantes\": [{\"estudianteId\": 1}, {\"estudianteId\": 2}]}";
+
+        mockMvc.perform(post("/api/cursos").contentType(MediaType.APPLICATION_JSON).content(curso))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.totalInscritos").value(0))
+                .andExpect(jsonPath("$.data.cursoEstudiantes.length()").value(0));
+        mockMvc.perform(post("/api/cursos/batch").contentType(MediaType.APPLICATION_JSON).content("[" + curso + "]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data[0].totalInscritos").value(0));
+
+        // El contador coincide con las filas: ninguna inscripción se guardó en cascada
+        assertThat(cursoEstudianteRepository.count()).isZero();
+        assertThat(cursoRepository.findAll()).hasSize(2).allSatisfy(c -> assertThat(c.getTotalInscritos()).isZero());
+    }
+
+    // Crea "total" cursos con POST /api/cursos/batch y devuelve las sentencias preparadas
+    private long sentenciasAlCrear(int total) throws Exception {
+        String cursos = IntStream.range(0, total)
+                .mapToObj(i -> "{\"nombre\": \"Curso " + i + "\", \"descripcion\": \"Curso creado en lote\", \"creditos\": 3}")
+                .collect(Collectors.joining(",", "[", "]"));
+        estadisticas.clear();
+
+        mockMvc.perform(post("/api/cursos/batch").contentType(MediaType.APPLICATION_JSON).content(cursos))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.length()").value(total));
+
+        assertThat(estadisticas.getEntityInsertCount()).isEqualTo(total);
+        return estadisticas.getPrepareStatementCount();
+    }
+
+    // Deja "total" cursos con sus inscripciones, llama al endpoint y devuelve las sentencias ejecutadas
+    private long sentenciasConCursos(int total, String uri) throws Exception {
+        sembrar(total - (int) cursoRepository.count());
+        estadisticas.clear();
+
+        mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(total));
+
+        return estadisticas.getPrepareStatementCount();
+    }
+
+    private void sembrar(int cursos) {
+        for (int i = 0; i < cursos; i++) {
+            Curso curso = new Curso();
+            curso.setNombre("Programación Java " + i);
+            curso.setDescripcion("Curso completo de Java");
+            curso.setCreditos(4);
+            long cursoId = cursoService.guardarCurso(curso).getId();
+            cursoEstudianteRepository.insertarEnLote(cursoId,
+                    LongStream.rangeClosed(1, INSCRITOS_POR_CURSO).boxed().toList());
+        }
+    }
+}
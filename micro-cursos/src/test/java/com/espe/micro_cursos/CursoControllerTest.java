@@ -1,24 +1,49 @@
 package com.espe.micro_cursos.controllers;
 
+import com.espe.contrato_estudiante.EstudianteDto;
+import com.espe.micro_cursos.clients.EstudianteNoEncontradoException;
+import com.espe.micro_cursos.export.FormatoExportacion;
+import com.espe.micro_cursos.model.dto.CursoIndexado;
+import com.espe.micro_cursos.model.dto.CursoResumen;
+import com.espe.micro_cursos.model.dto.EstadoInscripcion;
+import com.espe.micro_cursos.model.dto.EstudianteInscrito;
+import com.espe.micro_cursos.model.dto.InscripcionMasiva;
+import com.espe.micro_cursos.model.dto.ResultadoBusqueda;
 import com.espe.micro_cursos.model.entity.Curso;
+import com.espe.micro_cursos.pagination.KeysetCursor;
+import com.espe.micro_cursos.pagination.KeysetPage;
+import com.espe.micro_cursos.services.CursoModificadoException;
 import com.espe.micro_cursos.services.CursoService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.LongPredicate;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -61,14 +86,162 @@ public class CursoControllerTest {
     @Test
     void testListarCursos() throws Exception {
         List<Curso> cursos = Arrays.asList(curso1, curso2);
-        when(cursoService.listarTodos()).thenReturn(cursos);
+        when(cursoService.listarPagina(0L, 50)).thenReturn(KeysetPage.of(cursos, 50, Curso::getId));
 
         mockMvc.perform(get("/api/cursos"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message").value("Cursos obtenidos exitosamente 222."))
                 .andExpect(jsonPath("$.data", hasSize(2)))
                 .andExpect(jsonPath("$.data[0].nombre").value("Programación Java"))
-                .andExpect(jsonPath("$.data[1].nombre").value("Base de Datos"));
+                .andExpect(jsonPath("$.data[1].nombre").value("Base de Datos"))
+                .andExpect(jsonPath("$.limit").value(50))
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    void testListarCursosPaginado() throws Exception {
+        // El servicio devuelve limite + 1 filas: existe página siguiente
+        List<Curso> filas = Arrays.asList(curso1, curso2);
+        when(cursoService.listarPagina(0L, 1)).thenReturn(KeysetPage.of(filas, 1, Curso::getId));
+
+        mockMvc.perform(get("/api/cursos").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value(KeysetCursor.encode(1L)));
+    }
+
+    @Test
+    void testListarCursosDesdeCursor() throws Exception {
+        when(cursoService.listarPagina(1L, 50)).thenReturn(KeysetPage.of(Arrays.asList(curso2), 50, Curso::getId));
+
+        mockMvc.perform(get("/api/cursos").param("after", KeysetCursor.encode(1L)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].id").value(2));
+
+        verify(cursoService).listarPagina(1L, 50);
+    }
+
+    @Test
+    void testListarCursosLimiteAcotado() throws Exception {
+        when(cursoService.listarPagina(0L, 500)).thenReturn(KeysetPage.of(Arrays.asList(curso1), 500, Curso::getId));
+
+        mockMvc.perform(get("/api/cursos").param("limit", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.limit").value(500));
+    }
+
+    @Test
+    void testListarResumenes() throws Exception {
+        List<CursoResumen> filas = Arrays.asList(new CursoResumen(1L, "Programación Java", 4, 0), new CursoResumen(2L, "Base de Datos", 3, 0));
+        when(cursoService.listarResumenes(0L, 1)).thenReturn(KeysetPage.of(filas, 1, CursoResumen::getId));
+
+        mockMvc.perform(get("/api/cursos/resumen").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].id").value(1))
+                .andExpect(jsonPath("$.data[0].nombre").value("Programación Java"))
+                .andExpect(jsonPath("$.data[0].creditos").value(4))
+                .andExpect(jsonPath("$.data[0].descripcion").doesNotExist())
+                .andExpect(jsonPath("$.data[0].cursoEstudiantes").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value(KeysetCursor.encode(1L)));
+    }
+
+    @Test
+    void testListarResumenesCursorInvalido() throws Exception {
+        mockMvc.perform(get("/api/cursos/resumen").param("after", "no-es-un-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor de paginación inválido."));
+
+        verifyNoInteractions(cursoService);
+    }
+
+    @Test
+    void testBuscarResumenes() throws Exception {
+        when(cursoService.buscarResumenes("java", 4, 50)).thenReturn(List.of(new CursoResumen(1L, "Programación Java", 4, 0)));
+
+        mockMvc.perform(get("/api/cursos/resumen/buscar").param("nombre", " java ").param("creditos", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].nombre").value("Programación Java"))
+                .andExpect(jsonPath("$.limit").value(50));
+    }
+
+    @Test
+    void testBuscarResumenesSinFiltros() throws Exception {
+        when(cursoService.buscarResumenes(null, null, 10)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/cursos/resumen/buscar").param("nombre", "").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(0)));
+
+        verify(cursoService).buscarResumenes(null, null, 10);
+    }
+
+    @Test
+    void testListarMasInscritos() throws Exception {
+        when(cursoService.listarPorInscritos(true, 10)).thenReturn(Arrays.asList(
+                new CursoResumen(2L, "Base de Datos", 3, 40), new CursoResumen(1L, "Programación Java", 4, 25)));
+
+        mockMvc.perform(get("/api/cursos/mas-inscritos").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].id").value(2))
+                .andExpect(jsonPath("$.data[0].totalInscritos").value(40))
+                .andExpect(jsonPath("$.limit").value(10));
+    }
+
+    @Test
+    void testListarMenosInscritos() throws Exception {
+        when(cursoService.listarPorInscritos(false, 50)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/cursos/mas-inscritos").param("orden", "ASC"))
+                .andExpect(status().isOk());
+
+        verify(cursoService).listarPorInscritos(false, 50);
+    }
+
+    @Test
+    void testListarMasInscritosOrdenInvalido() throws Exception {
+        mockMvc.perform(get("/api/cursos/mas-inscritos").param("orden", "total"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Orden inválido. Use asc o desc."));
+
+        verifyNoInteractions(cursoService);
+    }
+
+    @Test
+    void testListarCursosCursorInvalido() throws Exception {
+        mockMvc.perform(get("/api/cursos").param("after", "no-es-un-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor de paginación inválido."));
+
+        verifyNoInteractions(cursoService);
+    }
+
+    @Test
+    void testExportarCursosNdjson() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream salida = invocation.getArgument(1);
+            salida.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(cursoService).exportarCursos(eq(FormatoExportacion.NDJSON), any(OutputStream.class));
+
+        MvcResult resultado = mockMvc.perform(get("/api/cursos/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    void testExportarCursosFormatoInvalido() throws Exception {
+        mockMvc.perform(get("/api/cursos/export").param("format", "csv"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -82,6 +255,40 @@ public class CursoControllerTest {
                 .andExpect(jsonPath("$.data.nombre").value("Programación Java"));
     }
 
+    @Test
+    void testObtenerCursoConETag() throws Exception {
+        curso1.setVersion(3);
+        when(cursoService.obtenerPorId(1L)).thenReturn(curso1);
+
+        mockMvc.perform(get("/api/cursos/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+    }
+
+    @Test
+    void testObtenerCursoNoModificado() throws Exception {
+        when(cursoService.obtenerVersion(1L)).thenReturn(Optional.of(3L));
+
+        mockMvc.perform(get("/api/cursos/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(cursoService, never()).obtenerPorId(anyLong());
+    }
+
+    @Test
+    void testObtenerCursoModificadoDesdeETag() throws Exception {
+        curso1.setVersion(4);
+        when(cursoService.obtenerVersion(1L)).thenReturn(Optional.of(4L));
+        when(cursoService.obtenerPorId(1L)).thenReturn(curso1);
+
+        mockMvc.perform(get("/api/cursos/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.data.id").value(1));
+    }
+
     @Test
     void testObtenerCursoNoExistente() throws Exception {
         when(cursoService.obtenerPorId(99L)).thenThrow(new RuntimeException("Curso no encontrado"));
@@ -116,6 +323,36 @@ public class CursoControllerTest {
                 .andExpect(jsonPath("$.data.nombre").value("Nuevo Curso"));
     }
 
+    @Test
+    void testCrearCursosEnLote() throws Exception {
+        Curso cursoCreado = new Curso();
+        cursoCreado.setId(3L);
+        cursoCreado.setNombre("Nuevo Curso");
+        cursoCreado.setDescripcion("Descripción del nuevo curso");
+        cursoCreado.setCreditos(5);
+
+        when(cursoService.guardarCursos(anyList())).thenReturn(List.of(cursoCreado));
+
+        mockMvc.perform(post("/api/cursos/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"nombre\": \"Nuevo Curso\", \"descripcion\": \"Descripción del nuevo curso\", \"creditos\": 5}]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.message").value("1 cursos creados exitosamente."))
+                .andExpect(jsonPath("$.data[0].id").value(3));
+    }
+
+    @Test
+    void testCrearCursosEnLoteExcedeMaximo() throws Exception {
+        String cursos = "[" + String.join(",", Collections.nCopies(1001, "{\"nombre\": \"Curso\"}")) + "]";
+
+        mockMvc.perform(post("/api/cursos/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cursos))
+                .andExpect(status().isPayloadTooLarge());
+
+        verify(cursoService, never()).guardarCursos(anyList());
+    }
+
     @Test
     void testActualizarCursoExistente() throws Exception {
         Curso cursoActualizado = new Curso();
@@ -123,8 +360,7 @@ public class CursoControllerTest {
         cursoActualizado.setDescripcion("Descripción actualizada");
         cursoActualizado.setCreditos(6);
 
-        when(cursoService.obtenerPorId(1L)).thenReturn(curso1);
-        when(cursoService.guardarCurso(any(Curso.class))).thenReturn(cursoActualizado);
+        when(cursoService.actualizarCurso(eq(1L), any(Curso.class), any())).thenReturn(Optional.of(cursoActualizado));
 
         mockMvc.perform(put("/api/cursos/1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -133,12 +369,45 @@ public class CursoControllerTest {
                 .andExpect(jsonPath("$.message").value("Curso actualizado exitosamente."));
     }
 
+    @Test
+    void testActualizarCursoConETagDesactualizado() throws Exception {
+        curso1.setVersion(5);
+        Curso cursoActualizado = new Curso();
+        cursoActualizado.setNombre("Curso Actualizado");
+
+        actualizarConVersionActual(curso1, cursoActualizado);
+
+        mockMvc.perform(put("/api/cursos/1")
+                .header("If-Match", "\"4\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(cursoActualizado)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string("ETag", "\"5\""));
+    }
+
+    @Test
+    void testActualizarCursoConETagVigente() throws Exception {
+        curso1.setVersion(5);
+        Curso cursoActualizado = new Curso();
+        cursoActualizado.setNombre("Curso Actualizado");
+        cursoActualizado.setVersion(6);
+
+        actualizarConVersionActual(curso1, cursoActualizado);
+
+        mockMvc.perform(put("/api/cursos/1")
+                .header("If-Match", "\"5\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(cursoActualizado)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"6\""));
+    }
+
     @Test
     void testActualizarCursoNoExistente() throws Exception {
         Curso cursoActualizado = new Curso();
         cursoActualizado.setNombre("Curso Actualizado");
 
-        when(cursoService.obtenerPorId(99L)).thenThrow(new RuntimeException("Curso no encontrado"));
+        when(cursoService.actualizarCurso(eq(99L), any(Curso.class), any())).thenReturn(Optional.empty());
 
         mockMvc.perform(put("/api/cursos/99")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -147,6 +416,17 @@ public class CursoControllerTest {
                 .andExpect(jsonPath("$.message").value("Curso no encontrado con ID: 99"));
     }
 
+    // Como CursoServiceImpl.actualizarCurso: compara la versión actual del curso con la que acepta el controlador
+    private void actualizarConVersionActual(Curso actual, Curso actualizado) {
+        when(cursoService.actualizarCurso(eq(actual.getId()), any(Curso.class), any())).thenAnswer(invocacion -> {
+            LongPredicate versionAceptada = invocacion.getArgument(2);
+            if (!versionAceptada.test(actual.getVersion())) {
+                throw new CursoModificadoException(actual.getId(), actual.getVersion());
+            }
+            return Optional.of(actualizado);
+        });
+    }
+
     @Test
     void testEliminarCursoExistente() throws Exception {
         doNothing().when(cursoService).eliminarPorId(1L);
@@ -185,7 +465,8 @@ public class CursoControllerTest {
         mockMvc.perform(get("/api/cursos/buscar/descripcion/Java"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message").value("Cursos encontrados que contienen 'Java' en su descripción."))
-                .andExpect(jsonPath("$.data", hasSize(1)));
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].cursoEstudiantes").exists());
     }
 
     @Test
@@ -194,4 +475,99 @@ public class CursoControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message").value("Formato de fecha inválido. Use yyyy-MM-dd."));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testInscripcionMasiva() throws Exception {
+        InscripcionMasiva resultado = new InscripcionMasiva();
+        resultado.registrar(10L, EstadoInscripcion.INSCRITO);
+        resultado.registrar(11L, EstadoInscripcion.YA_INSCRITO);
+        resultado.registrar(12L, EstadoInscripcion.ESTUDIANTE_INEXISTENTE);
+        when(cursoService.addEstudiantes(anyList(), eq(1L))).thenReturn(Optional.of(resultado));
+
+        mockMvc.perform(put("/api/cursos/1/estudiantes:bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[10, 11, 12]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Inscripción masiva procesada."))
+                .andExpect(jsonPath("$.data.resultados.10").value("INSCRITO"))
+                .andExpect(jsonPath("$.data.resultados.11").value("YA_INSCRITO"))
+                .andExpect(jsonPath("$.data.resultados.12").value("ESTUDIANTE_INEXISTENTE"))
+                .andExpect(jsonPath("$.data.inscritos").value(1))
+                .andExpect(jsonPath("$.data.yaInscritos").value(1))
+                .andExpect(jsonPath("$.data.inexistentes").value(1));
+    }
+
+    @Test
+    void testInscripcionMasivaCursoNoExistente() throws Exception {
+        when(cursoService.addEstudiantes(anyList(), eq(99L))).thenReturn(Optional.empty());
+
+        mockMvc.perform(put("/api/cursos/99/estudiantes:bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[10]"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Curso no encontrado con ID: 99"));
+    }
+
+    @Test
+    void testInscripcionMasivaConflicto() throws Exception {
+        when(cursoService.addEstudiantes(anyList(), eq(1L))).thenThrow(new DataIntegrityViolationException("curso_id"));
+
+        mockMvc.perform(put("/api/cursos/1/estudiantes:bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[10]"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testAsignarEstudianteNoExistente() throws Exception {
+        when(cursoService.addEstudiante(any(), eq(1L))).thenThrow(new EstudianteNoEncontradoException(99L));
+
+        mockMvc.perform(put("/api/cursos/asignar-estudiante/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\": 99}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.mensaje", startsWith("No existe el usuario por el id: 99")));
+    }
+
+    @Test
+    void testListarEstudiantesDelCursoParcial() throws Exception {
+        EstudianteDto juan = new EstudianteDto();
+        juan.setId(10L);
+        juan.setNombre("Juan");
+        List<EstudianteInscrito> inscritos = Arrays.asList(
+                new EstudianteInscrito(1L, 10L, EstudianteInscrito.Estado.RESUELTO, juan),
+                new EstudianteInscrito(2L, 11L, EstudianteInscrito.Estado.PENDIENTE, null));
+        when(cursoService.listarEstudiantes(1L, 0L, 50)).thenReturn(Optional.of(KeysetPage.conItems(inscritos, null)));
+
+        mockMvc.perform(get("/api/cursos/1/estudiantes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].estudiante.nombre").value("Juan"))
+                .andExpect(jsonPath("$.data[1].estado").value("PENDIENTE"))
+                .andExpect(jsonPath("$.parcial").value(true))
+                .andExpect(jsonPath("$.pendientes[0]").value(11));
+    }
+
+    @Test
+    void testListarEstudiantesCursoNoExistente() throws Exception {
+        when(cursoService.listarEstudiantes(99L, 0L, 50)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/cursos/99/estudiantes"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Curso no encontrado con ID: 99"));
+    }
+
+    @Test
+    void testBuscarPorTexto() throws Exception {
+        ResultadoBusqueda resultado = new ResultadoBusqueda(3,
+                Arrays.asList(new CursoIndexado(1L, "Programación Java", "Curso completo de Java", 4, null)));
+        when(cursoService.buscarPorTexto("java", 2, 1)).thenReturn(resultado);
+
+        mockMvc.perform(get("/api/cursos/buscar").param("q", "java").param("limit", "1").param("offset", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].nombre").value("Programación Java"))
+                .andExpect(jsonPath("$.offset").value(2));
+    }
+}
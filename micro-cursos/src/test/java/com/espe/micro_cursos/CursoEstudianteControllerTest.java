@@ -1,12 +1,18 @@
 package com.espe.micro_cursos.controllers;
 
+import com.espe.micro_cursos.export.ExportadorJson;
+import com.espe.micro_cursos.inscripcion.InscripcionDiferida;
+import com.espe.micro_cursos.model.dto.EstadoInscripcion;
+import com.espe.micro_cursos.model.dto.SeguimientoInscripcion;
 import com.espe.micro_cursos.model.entity.CursoEstudiante;
+import com.espe.micro_cursos.pagination.KeysetCursor;
 import com.espe.micro_cursos.repositories.CursoEstudianteRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
@@ -15,6 +21,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -36,6 +43,12 @@ public class CursoEstudianteControllerTest {
     @MockitoBean
     private CursoEstudianteRepository cursoEstudianteRepository;
 
+    @MockitoBean
+    private ExportadorJson exportadorJson;
+
+    @MockitoBean
+    private InscripcionDiferida inscripcionDiferida;
+
     private CursoEstudiante cursoEstudiante1;
     private CursoEstudiante cursoEstudiante2;
 
@@ -74,12 +87,43 @@ public class CursoEstudianteControllerTest {
                 .andExpect(jsonPath("$.estudianteId").value(3));
 
         verify(cursoEstudianteRepository, times(1)).save(any(CursoEstudiante.class));
+        verify(cursoEstudianteRepository).actualizarInscritosCurso(3L, 1);
+    }
+
+    @Test
+    void testAsignarEstudianteACursoDiferida() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(inscripcionDiferida.encolar(3L, 4L))
+                .thenReturn(Optional.of(new SeguimientoInscripcion(id, 3L, 4L, EstadoInscripcion.PENDIENTE)));
+
+        mockMvc.perform(post("/api/curso-estudiante")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"cursoId\": 3, \"estudianteId\": 4}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/curso-estudiante/inscripciones/" + id))
+                .andExpect(jsonPath("$.id").value(id.toString()))
+                .andExpect(jsonPath("$.estado").value("PENDIENTE"));
+
+        verify(cursoEstudianteRepository, never()).save(any(CursoEstudiante.class));
+    }
+
+    @Test
+    void testObtenerInscripcionDiferida() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(inscripcionDiferida.consultar(id))
+                .thenReturn(Optional.of(new SeguimientoInscripcion(id, 3L, 4L, EstadoInscripcion.YA_INSCRITO)));
+
+        mockMvc.perform(get("/api/curso-estudiante/inscripciones/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("YA_INSCRITO"));
+        mockMvc.perform(get("/api/curso-estudiante/inscripciones/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
     }
 
     @Test
     void testObtenerRelaciones() throws Exception {
         List<CursoEstudiante> relaciones = Arrays.asList(cursoEstudiante1, cursoEstudiante2);
-        when(cursoEstudianteRepository.findAll()).thenReturn(relaciones);
+        when(cursoEstudianteRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51))).thenReturn(relaciones);
 
         mockMvc.perform(get("/api/curso-estudiante"))
                 .andExpect(status().isOk())
@@ -89,28 +133,58 @@ public class CursoEstudianteControllerTest {
                 .andExpect(jsonPath("$[0].estudianteId").value(1))
                 .andExpect(jsonPath("$[1].id").value(2))
                 .andExpect(jsonPath("$[1].cursoId").value(2))
-                .andExpect(jsonPath("$[1].estudianteId").value(2));
+                .andExpect(jsonPath("$[1].estudianteId").value(2))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
 
-        verify(cursoEstudianteRepository, times(1)).findAll();
+        verify(cursoEstudianteRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51));
+        verify(cursoEstudianteRepository, never()).findAll();
     }
 
     @Test
     void testObtenerRelacionesVacias() throws Exception {
-        when(cursoEstudianteRepository.findAll()).thenReturn(Arrays.asList());
+        when(cursoEstudianteRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51))).thenReturn(Arrays.asList());
 
         mockMvc.perform(get("/api/curso-estudiante"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(0)));
     }
 
+    @Test
+    void testObtenerRelacionesPaginadas() throws Exception {
+        List<CursoEstudiante> relaciones = Arrays.asList(cursoEstudiante1, cursoEstudiante2);
+        when(cursoEstudianteRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2))).thenReturn(relaciones);
+
+        mockMvc.perform(get("/api/curso-estudiante").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(header().string("X-Next-Cursor", KeysetCursor.encode(1L)));
+
+        when(cursoEstudianteRepository.findByIdGreaterThanOrderByIdAsc(1L, Limit.of(2))).thenReturn(Arrays.asList(cursoEstudiante2));
+
+        mockMvc.perform(get("/api/curso-estudiante").param("limit", "1").param("after", KeysetCursor.encode(1L)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void testObtenerRelacionesCursorInvalido() throws Exception {
+        mockMvc.perform(get("/api/curso-estudiante").param("after", "%%%"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testEliminarRelacion() throws Exception {
+        when(cursoEstudianteRepository.findById(1L)).thenReturn(Optional.of(cursoEstudiante1));
         doNothing().when(cursoEstudianteRepository).deleteById(1L);
 
         mockMvc.perform(delete("/api/curso-estudiante/1"))
                 .andExpect(status().isNoContent());
 
         verify(cursoEstudianteRepository, times(1)).deleteById(1L);
+        verify(cursoEstudianteRepository).actualizarInscritosCurso(1L, -1);
     }
 
     @Test
@@ -137,6 +211,9 @@ public class CursoEstudianteControllerTest {
 
         verify(cursoEstudianteRepository, times(1)).findById(1L);
         verify(cursoEstudianteRepository, times(1)).save(any(CursoEstudiante.class));
+        // La inscripción pasa del curso 1 al 4
+        verify(cursoEstudianteRepository).actualizarInscritosCurso(1L, -1);
+        verify(cursoEstudianteRepository).actualizarInscritosCurso(4L, 1);
     }
 
     @Test
@@ -177,4 +254,12 @@ public class CursoEstudianteControllerTest {
                 .andExpect(jsonPath("$.cursoId").value(3))
                 .andExpect(jsonPath("$.estudianteId").isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testExportarRelacionesFormatoInvalido() throws Exception {
+        mockMvc.perform(get("/api/curso-estudiante/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(exportadorJson);
+    }
+}
@@ -0,0 +1,148 @@
+package com.espe.micro_cursos.repositories;
+
+import com.espe.micro_cursos.config.CacheSegundoNivelConfig;
+import com.espe.micro_cursos.model.entity.Curso;
+import com.espe.micro_cursos.model.entity.CursoEstudiante;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(CacheSegundoNivelConfig.class)
+public class CursoEstudianteRepositoryTest {
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private CursoEstudianteRepository cursoEstudianteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Curso curso;
+
+    @BeforeEach
+    void setUp() {
+        curso = new Curso();
+        curso.setNombre("Programación Java");
+        curso.setDescripcion("Curso completo de Java");
+        curso.setCreditos(4);
+        curso = cursoRepository.saveAndFlush(curso);
+    }
+
+    @Test
+    void testInsertarEnLote() {
+        cursoEstudianteRepository.insertarEnLote(curso.getId(), Arrays.asList(1L, 2L, 3L));
+
+        List<Long> inscritos = cursoEstudianteRepository.findEstudianteIdsInscritos(curso.getId(), Arrays.asList(2L, 3L, 4L));
+        assertThat(inscritos).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(cursoEstudianteRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void testInsertarEnLoteUsaElGeneradorDeIdsDeHibernate() {
+        cursoEstudianteRepository.insertarEnLote(curso.getId(), Arrays.asList(1L, 2L));
+        CursoEstudiante relacion = new CursoEstudiante();
+        relacion.setCursoId(curso.getId());
+        relacion.setEstudianteId(3L);
+        Long persistida = cursoEstudianteRepository.saveAndFlush(relacion).getId();
+        cursoEstudianteRepository.insertarEnLote(curso.getId(), Arrays.asList(4L));
+
+        // Las filas de JDBC y las de persist comparten la secuencia: IDs consecutivos y sin choques
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM cursos_estudiante ORDER BY estudiante_id", Long.class);
+        assertThat(ids).doesNotHaveDuplicates().isSorted().contains(persistida);
+        assertThat(ids.get(3) - ids.get(0)).isEqualTo(3);
+    }
+
+    @Test
+    void testInsertarEnLoteDuplicadoViolaRestriccionUnica() {
+        cursoEstudianteRepository.insertarEnLote(curso.getId(), Arrays.asList(1L));
+
+        assertThatThrownBy(() -> cursoEstudianteRepository.insertarEnLote(curso.getId(), Arrays.asList(1L)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void testEscriturasIncrementanVersionDelCurso() {
+        long inicial = cursoRepository.findVersionById(curso.getId()).orElseThrow();
+
+        cursoEstudianteRepository.insertarEnLote(curso.getId(), Arrays.asList(1L, 2L));
+        cursoEstudianteRepository.desinscribir(curso.getId(), 1L);
+        cursoEstudianteRepository.desinscribir(curso.getId(), 1L);
+
+        assertThat(cursoRepository.findVersionById(curso.getId())).contains(inicial + 2);
+    }
+
+    @Test
+    void testEscriturasMantienenTotalDeInscritos() {
+        cursoEstudianteRepository.insertarEnLote(curso.getId(), Arrays.asList(1L, 2L, 3L));
+        cursoEstudianteRepository.desinscribir(curso.getId(), 2L);
+        cursoEstudianteRepository.desinscribir(curso.getId(), 2L);
+
+        assertThat(totalInscritos()).isEqualTo(2);
+        assertThat(cursoRepository.findMasInscritos(Limit.of(1)))
+                .singleElement()
+                .satisfies(r -> assertThat(r.getTotalInscritos()).isEqualTo(2));
+    }
+
+    @Test
+    void testActualizarCursoNoPisaTotalDeInscritos() {
+        // El curso en memoria conserva el total en 0 aunque la base de datos ya tenga otro valor
+        jdbcTemplate.update("UPDATE cursos SET total_inscritos = 7 WHERE id = ?", curso.getId());
+
+        curso.setCreditos(5);
+        cursoRepository.saveAndFlush(curso);
+
+        assertThat(totalInscritos()).isEqualTo(7);
+    }
+
+    @Test
+    void testRecalcularInscritos() {
+        cursoEstudianteRepository.insertarEnLote(curso.getId(), Arrays.asList(1L, 2L));
+        jdbcTemplate.update("UPDATE cursos SET total_inscritos = 0");
+
+        assertThat(cursoEstudianteRepository.recalcularInscritos()).isEqualTo(1);
+        assertThat(totalInscritos()).isEqualTo(2);
+    }
+
+    @Test
+    void testPaginaPorKeyset() {
+        cursoEstudianteRepository.insertarEnLote(curso.getId(), Arrays.asList(1L, 2L, 3L));
+
+        List<CursoEstudiante> primera = cursoEstudianteRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2));
+        assertThat(primera).hasSize(2);
+
+        List<CursoEstudiante> segunda = cursoEstudianteRepository.findByIdGreaterThanOrderByIdAsc(primera.get(1).getId(), Limit.of(2));
+        assertThat(segunda).hasSize(1);
+        assertThat(segunda.get(0).getEstudianteId()).isEqualTo(3L);
+    }
+
+    @Test
+    void testDesinscribir() {
+        cursoEstudianteRepository.insertarEnLote(curso.getId(), Arrays.asList(1L, 2L));
+
+        assertThat(cursoEstudianteRepository.desinscribir(curso.getId(), 1L)).isEqualTo(1);
+        assertThat(cursoEstudianteRepository.desinscribir(curso.getId(), 1L)).isZero();
+        assertThat(cursoEstudianteRepository.findEstudianteIdsInscritos(curso.getId(), Arrays.asList(1L, 2L)))
+                .containsExactly(2L);
+    }
+
+    // Leído de la base de datos: las escrituras por JDBC no actualizan la entidad en memoria
+    private long totalInscritos() {
+        return jdbcTemplate.queryForObject("SELECT total_inscritos FROM cursos WHERE id = ?", Long.class, curso.getId());
+    }
+}
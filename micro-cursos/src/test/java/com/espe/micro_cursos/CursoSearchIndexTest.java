@@ -0,0 +1,123 @@
+package com.espe.micro_cursos.search;
+
+import com.espe.micro_cursos.model.dto.CursoIndexado;
+import com.espe.micro_cursos.model.dto.ResultadoBusqueda;
+import com.espe.micro_cursos.repositories.CursoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CursoSearchIndexTest {
+
+    private CursoSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CursoSearchIndex();
+        index.indexar(new CursoIndexado(1L, "Programación Java", "Curso completo de Java y Spring", 4, null));
+        index.indexar(new CursoIndexado(2L, "Base de Datos", "Curso de SQL y NoSQL", 3, null));
+        index.indexar(new CursoIndexado(3L, "Arquitectura", "Microservicios con Java", 5, null));
+    }
+
+    private static long[] ids(ResultadoBusqueda resultado) {
+        return resultado.getItems().stream().mapToLong(CursoIndexado::getId).toArray();
+    }
+
+    @Test
+    void testSubstringSinTildesNiMayusculas() {
+        ResultadoBusqueda resultado = index.buscar("PROGRAMACION", CursoSearchIndex.Campo.AMBOS, 0, 10);
+
+        assertThat(ids(resultado)).containsExactly(1L);
+    }
+
+    @Test
+    void testOrdenaPorRelevancia() {
+        // "java" aparece en el nombre del curso 1 y solo en la descripción del curso 3
+        ResultadoBusqueda resultado = index.buscar("java", CursoSearchIndex.Campo.AMBOS, 0, 10);
+
+        assertThat(ids(resultado)).containsExactly(1L, 3L);
+        assertThat(resultado.getTotal()).isEqualTo(2);
+    }
+
+    @Test
+    void testVariosTerminosExigenTodos() {
+        assertThat(ids(index.buscar("java micro", CursoSearchIndex.Campo.AMBOS, 0, 10))).containsExactly(3L);
+        assertThat(ids(index.buscar("java sql", CursoSearchIndex.Campo.AMBOS, 0, 10))).isEmpty();
+    }
+
+    @Test
+    void testTerminoCortoYCampoDescripcion() {
+        assertThat(ids(index.buscar("sq", CursoSearchIndex.Campo.DESCRIPCION, 0, 10))).containsExactly(2L);
+        assertThat(ids(index.buscar("datos", CursoSearchIndex.Campo.DESCRIPCION, 0, 10))).isEmpty();
+    }
+
+    @Test
+    void testPaginacion() {
+        ResultadoBusqueda resultado = index.buscar("curso", CursoSearchIndex.Campo.AMBOS, 1, 1);
+
+        assertThat(resultado.getTotal()).isEqualTo(2);
+        assertThat(ids(resultado)).containsExactly(2L);
+    }
+
+    @Test
+    void testActualizarYEliminar() {
+        index.indexar(new CursoIndexado(2L, "Bases de Datos Avanzadas", "PostgreSQL", 3, null));
+        assertThat(ids(index.buscar("nosql", CursoSearchIndex.Campo.AMBOS, 0, 10))).isEmpty();
+        assertThat(ids(index.buscar("postgres", CursoSearchIndex.Campo.AMBOS, 0, 10))).containsExactly(2L);
+
+        index.eliminar(2L);
+        assertThat(ids(index.buscar("postgres", CursoSearchIndex.Campo.AMBOS, 0, 10))).isEmpty();
+    }
+
+    @Test
+    void testReconstruirConservaLosCambiosHechosMientrasLeeLaInstantanea() {
+        CursoRepository cursoRepository = mock(CursoRepository.class);
+        ReflectionTestUtils.setField(index, "cursoRepository", cursoRepository);
+        ReflectionTestUtils.setField(index, "transactionManager", mock(PlatformTransactionManager.class));
+        // La instantánea ya leyó los cursos 1 y 2 cuando se crea el 4 y se elimina el 1
+        when(cursoRepository.streamIndexables()).thenReturn(Stream.of(
+                new CursoIndexado(1L, "Programación Java", "Curso completo de Java y Spring", 4, null),
+                new CursoIndexado(2L, "Base de Datos", "Curso de SQL y NoSQL", 3, null)
+        ).onClose(() -> {
+            index.indexar(new CursoIndexado(4L, "Kotlin", "Curso de Kotlin", 3, null));
+            index.eliminar(1L);
+        }));
+
+        index.reconstruir();
+
+        assertThat(index.isListo()).isTrue();
+        assertThat(ids(index.buscar("kotlin", CursoSearchIndex.Campo.AMBOS, 0, 10))).containsExactly(4L);
+        assertThat(ids(index.buscar("spring", CursoSearchIndex.Campo.AMBOS, 0, 10))).isEmpty();
+        // El curso 3 no estaba en la instantánea
+        assertThat(ids(index.buscar("curso", CursoSearchIndex.Campo.AMBOS, 0, 10))).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void testSubcadenaLiteralEnLaDescripcion() {
+        CursoRepository cursoRepository = mock(CursoRepository.class);
+        ReflectionTestUtils.setField(index, "cursoRepository", cursoRepository);
+        ReflectionTestUtils.setField(index, "transactionManager", mock(PlatformTransactionManager.class));
+        assertThat(index.buscarSubcadena("java", CursoSearchIndex.Campo.DESCRIPCION)).isEmpty();
+        when(cursoRepository.streamIndexables()).thenReturn(Stream.of(
+                new CursoIndexado(3L, "Arquitectura", "Microservicios con Java", 5, null),
+                new CursoIndexado(1L, "Programación Java", "Curso completo de Java y Spring", 4, null),
+                new CursoIndexado(2L, "Base de Datos", "Curso de SQL y NoSQL", 3, null)));
+        index.reconstruir();
+
+        assertThat(index.buscarSubcadena("JAVA", CursoSearchIndex.Campo.DESCRIPCION)).contains(List.of(1L, 3L));
+        // El texto entero, espacios incluidos, no cada término por separado
+        assertThat(index.buscarSubcadena("de java", CursoSearchIndex.Campo.DESCRIPCION)).contains(List.of(1L));
+        assertThat(index.buscarSubcadena("java curso", CursoSearchIndex.Campo.DESCRIPCION)).contains(List.of());
+        assertThat(index.buscarSubcadena("programacion", CursoSearchIndex.Campo.DESCRIPCION)).contains(List.of());
+        // Menos de 3 caracteres: sin trigramas, la búsqueda va a la base de datos
+        assertThat(index.buscarSubcadena("sq", CursoSearchIndex.Campo.DESCRIPCION)).isEmpty();
+    }
+}
@@ -0,0 +1,83 @@
+package com.espe.micro_cursos.services;
+
+import com.espe.contrato_estudiante.EstudianteDto;
+import com.espe.contrato_estudiante.Respuesta;
+import com.espe.micro_cursos.clients.EstudianteCache;
+import com.espe.micro_cursos.clients.EstudianteClient;
+import com.espe.micro_cursos.model.dto.EstadoInscripcion;
+import com.espe.micro_cursos.model.dto.InscripcionMasiva;
+import com.espe.micro_cursos.repositories.CursoEstudianteRepository;
+import com.espe.micro_cursos.repositories.CursoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CursoServiceImplTest {
+
+    private CursoServiceImpl cursoService;
+    private CursoEstudianteRepository cursoEstudianteRepository;
+
+    @BeforeEach
+    void setUp() {
+        CursoRepository cursoRepository = mock(CursoRepository.class);
+        EstudianteClient estudianteClient = mock(EstudianteClient.class);
+        cursoEstudianteRepository = mock(CursoEstudianteRepository.class);
+        cursoService = new CursoServiceImpl();
+        ReflectionTestUtils.setField(cursoService, "cursoRepository", cursoRepository);
+        ReflectionTestUtils.setField(cursoService, "cursoEstudianteRepository", cursoEstudianteRepository);
+        ReflectionTestUtils.setField(cursoService, "estudianteClient", estudianteClient);
+        ReflectionTestUtils.setField(cursoService, "estudianteCache", mock(EstudianteCache.class));
+
+        when(cursoRepository.existsById(1L)).thenReturn(true);
+        List<EstudianteDto> estudiantes = Stream.of(10L, 11L, 12L).map(id -> {
+            EstudianteDto estudiante = new EstudianteDto();
+            estudiante.setId(id);
+            return estudiante;
+        }).toList();
+        when(estudianteClient.obtenerEstudiantesPorIds(any())).thenReturn(ResponseEntity.ok(Respuesta.de("ok", estudiantes)));
+    }
+
+    @Test
+    void testInscripcionMasivaConConflictosRepetidosInscribeDeAUno() {
+        // La consulta no ve a nadie inscrito, pero otra petición inscribe al 11 antes de cada lote
+        when(cursoEstudianteRepository.findEstudianteIdsInscritos(eq(1L), anyList())).thenReturn(List.of());
+        when(cursoEstudianteRepository.findEstudianteIdsInscritos(1L, List.of(11L))).thenReturn(List.of(11L));
+        doThrow(new DataIntegrityViolationException("duplicado"))
+                .when(cursoEstudianteRepository).insertarEnLote(1L, List.of(10L, 11L, 12L));
+        doThrow(new DataIntegrityViolationException("duplicado"))
+                .when(cursoEstudianteRepository).insertarEnLote(1L, List.of(11L));
+
+        InscripcionMasiva resultado = cursoService.addEstudiantes(List.of(10L, 11L, 12L), 1L).orElseThrow();
+
+        assertThat(resultado.getResultados()).containsExactly(
+                Map.entry(10L, EstadoInscripcion.INSCRITO),
+                Map.entry(11L, EstadoInscripcion.YA_INSCRITO),
+                Map.entry(12L, EstadoInscripcion.INSCRITO));
+        verify(cursoEstudianteRepository).insertarEnLote(1L, List.of(10L));
+        verify(cursoEstudianteRepository).insertarEnLote(1L, List.of(12L));
+    }
+
+    @Test
+    void testInscripcionMasivaSinConflictoDeUnicidadPropagaElError() {
+        // El INSERT falla sin que el estudiante haya quedado inscrito (p. ej. el curso se eliminó)
+        when(cursoEstudianteRepository.findEstudianteIdsInscritos(eq(1L), anyList())).thenReturn(List.of());
+        doThrow(new DataIntegrityViolationException("curso inexistente"))
+                .when(cursoEstudianteRepository).insertarEnLote(eq(1L), anyList());
+
+        assertThatThrownBy(() -> cursoService.addEstudiantes(List.of(10L), 1L))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
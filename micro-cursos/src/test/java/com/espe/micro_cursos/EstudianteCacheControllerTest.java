@@ -0,0 +1,53 @@
+package com.espe.micro_cursos.controllers;
+
+import com.espe.micro_cursos.clients.EstudianteCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(EstudianteCacheController.class)
+@ActiveProfiles("test")
+public class EstudianteCacheControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private EstudianteCache estudianteCache;
+
+    @Test
+    void testObtenerEstadisticas() throws Exception {
+        when(estudianteCache.estadisticas()).thenReturn(Map.of("hits", 5L, "misses", 2L));
+
+        mockMvc.perform(get("/api/cache/estudiantes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.hits").value(5))
+                .andExpect(jsonPath("$.data.misses").value(2));
+    }
+
+    @Test
+    void testInvalidarEstudiante() throws Exception {
+        mockMvc.perform(delete("/api/cache/estudiantes/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Estudiante 7 eliminado de la caché."));
+
+        verify(estudianteCache, times(1)).invalidar(7L);
+    }
+
+    @Test
+    void testInvalidarTodo() throws Exception {
+        mockMvc.perform(delete("/api/cache/estudiantes"))
+                .andExpect(status().isOk());
+
+        verify(estudianteCache, times(1)).invalidarTodo();
+    }
+}
@@ -0,0 +1,177 @@
+package com.espe.micro_cursos.clients;
+
+import com.espe.contrato_estudiante.EstudianteDto;
+import com.espe.contrato_estudiante.Respuesta;
+import com.github.benmanes.caffeine.cache.Cache;
+import feign.FeignException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+public class EstudianteCacheTest {
+
+    private EstudianteClient estudianteClient;
+    private EstudianteCache estudianteCache;
+
+    @BeforeEach
+    void setUp() {
+        estudianteClient = mock(EstudianteClient.class);
+        estudianteCache = new EstudianteCache(estudianteClient, 100,
+                Duration.ofMinutes(5), Duration.ofSeconds(30));
+    }
+
+    private static ResponseEntity<Respuesta<EstudianteDto>> respuesta(long id, String nombre) {
+        EstudianteDto data = new EstudianteDto();
+        data.setId(id);
+        data.setNombre(nombre);
+        return ResponseEntity.ok(Respuesta.de("Estudiante encontrado exitosamente.", data));
+    }
+
+    @Test
+    void testSegundaLecturaNoLlamaAlServicio() {
+        when(estudianteClient.obtenerEstudiante(1L)).thenReturn(respuesta(1L, "Juan"));
+
+        Optional<EstudianteDto> primera = estudianteCache.obtener(1L);
+        Optional<EstudianteDto> segunda = estudianteCache.obtener(1L);
+
+        assertThat(primera).isPresent();
+        assertThat(segunda.get().getNombre()).isEqualTo("Juan");
+        verify(estudianteClient, times(1)).obtenerEstudiante(1L);
+        assertThat(estudianteCache.estadisticas())
+                .containsEntry("hits", 1L)
+                .containsEntry("misses", 1L);
+    }
+
+    @Test
+    void testCacheNegativaPara404() {
+        when(estudianteClient.obtenerEstudiante(99L)).thenThrow(mock(FeignException.NotFound.class));
+
+        assertThat(estudianteCache.obtener(99L)).isEmpty();
+        assertThat(estudianteCache.obtener(99L)).isEmpty();
+
+        verify(estudianteClient, times(1)).obtenerEstudiante(99L);
+    }
+
+    @Test
+    void testErroresDistintosDe404NoSeGuardan() {
+        when(estudianteClient.obtenerEstudiante(2L))
+                .thenThrow(mock(FeignException.ServiceUnavailable.class))
+                .thenReturn(respuesta(2L, "María"));
+
+        assertThatThrownBy(() -> estudianteCache.obtener(2L)).isInstanceOf(FeignException.class);
+        assertThat(estudianteCache.obtener(2L)).isPresent();
+
+        verify(estudianteClient, times(2)).obtenerEstudiante(2L);
+        assertThat(estudianteCache.estadisticas()).containsEntry("loadFailures", 1L);
+    }
+
+    @Test
+    void testConsultaQueLlegaTardeUsaElResultadoYaGuardado() {
+        // El primer getIfPresent no ve la entrada: otra consulta la guardó justo después
+        @SuppressWarnings("unchecked")
+        Cache<Long, Optional<EstudianteDto>> cache =
+                spy((Cache<Long, Optional<EstudianteDto>>) ReflectionTestUtils.getField(estudianteCache, "cache"));
+        ReflectionTestUtils.setField(estudianteCache, "cache", cache);
+        estudianteCache.registrar(List.of(1L), List.of(respuesta(1L, "Juan").getBody().getData()));
+        doReturn(null).when(cache).getIfPresent(1L);
+
+        assertThat(estudianteCache.obtener(1L).get().getNombre()).isEqualTo("Juan");
+        verifyNoInteractions(estudianteClient);
+    }
+
+    @Test
+    void testInvalidarFuerzaNuevaConsulta() {
+        when(estudianteClient.obtenerEstudiante(1L)).thenReturn(respuesta(1L, "Juan"));
+
+        estudianteCache.obtener(1L);
+        estudianteCache.invalidar(1L);
+        estudianteCache.obtener(1L);
+
+        verify(estudianteClient, times(2)).obtenerEstudiante(1L);
+    }
+
+    @Test
+    void testRegistrarLoteCalientaLaCache() {
+        EstudianteDto juan = new EstudianteDto();
+        juan.setId(1L);
+        estudianteCache.registrar(Arrays.asList(1L, 2L), Arrays.asList(juan));
+
+        assertThat(estudianteCache.obtener(1L)).contains(juan);
+        assertThat(estudianteCache.obtener(2L)).isEmpty();
+        verifyNoInteractions(estudianteClient);
+    }
+
+    @Test
+    void testConsultasConcurrentesCompartenUnaLlamada() throws Exception {
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(estudianteClient.obtenerEstudiante(1L)).thenAnswer(invocation -> {
+            iniciada.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return respuesta(1L, "Juan");
+        });
+
+        List<Future<Optional<EstudianteDto>>> resultados = lanzarConsultasConcurrentes(1L, 5, iniciada, liberar);
+
+        for (Future<Optional<EstudianteDto>> resultado : resultados) {
+            assertThat(resultado.get(5, TimeUnit.SECONDS).get().getNombre()).isEqualTo("Juan");
+        }
+        verify(estudianteClient, times(1)).obtenerEstudiante(1L);
+        assertThat(estudianteCache.estadisticas()).containsEntry("collapsed", 4L);
+    }
+
+    @Test
+    void testConsultasConcurrentesCompartenElError() throws Exception {
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(estudianteClient.obtenerEstudiante(2L)).thenAnswer(invocation -> {
+            iniciada.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            throw mock(FeignException.ServiceUnavailable.class);
+        });
+
+        List<Future<Optional<EstudianteDto>>> resultados = lanzarConsultasConcurrentes(2L, 3, iniciada, liberar);
+
+        for (Future<Optional<EstudianteDto>> resultado : resultados) {
+            assertThatThrownBy(() -> resultado.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(FeignException.ServiceUnavailable.class);
+        }
+        verify(estudianteClient, times(1)).obtenerEstudiante(2L);
+    }
+
+    // Lanza una consulta, espera a que esté en curso, suma las demás y libera la respuesta cuando todas esperan
+    private List<Future<Optional<EstudianteDto>>> lanzarConsultasConcurrentes(long id, int total,
+                                                                         CountDownLatch iniciada,
+                                                                         CountDownLatch liberar) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(total);
+        try {
+            List<Future<Optional<EstudianteDto>>> resultados = new ArrayList<>();
+            resultados.add(executor.submit(() -> estudianteCache.obtener(id)));
+            assertThat(iniciada.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i < total; i++) {
+                resultados.add(executor.submit(() -> estudianteCache.obtener(id)));
+            }
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while ((long) estudianteCache.estadisticas().get("collapsed") < total - 1 && System.nanoTime() < limite) {
+                Thread.sleep(5);
+            }
+            liberar.countDown();
+            return resultados;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
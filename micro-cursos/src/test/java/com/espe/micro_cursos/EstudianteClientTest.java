@@ -0,0 +1,123 @@
+package com.espe.micro_cursos.clients;
+
+import com.espe.contrato_estudiante.EstudianteDto;
+import com.espe.contrato_estudiante.Respuesta;
+import com.sun.net.httpserver.HttpServer;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Decodificación real del cliente Feign contra un micro-estudiante simulado que responde con el
+ * mismo JSON que EstudianteController.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+public class EstudianteClientTest {
+
+    private static final String ESTUDIANTE = "{\"id\":1,\"nombre\":\"Juan\",\"apellido\":\"Pérez\","
+            + "\"email\":\"juan.perez@universidad.edu\",\"fechaNacimiento\":\"2001-05-17T00:00:00.000+00:00\","
+            + "\"telefono\":\"0999999999\",\"creadoEn\":\"2024-09-01T12:30:00.000+00:00\",\"version\":3,"
+            + "\"campoNuevo\":\"se ignora\"}";
+
+    private static final HttpServer servidor = iniciarServidor();
+
+    @Autowired
+    private EstudianteClient estudianteClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void configurar(DynamicPropertyRegistry registry) {
+        registry.add("cursos.estudiantes.url", () -> "http://localhost:" + servidor.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void detener() {
+        servidor.stop(0);
+    }
+
+    @Test
+    void testDecodificaEstudianteAlSobreTipado() {
+        ResponseEntity<Respuesta<EstudianteDto>> respuesta = estudianteClient.obtenerEstudiante(1L);
+
+        EstudianteDto estudiante = respuesta.getBody().getData();
+        assertThat(respuesta.getBody().getMessage()).isEqualTo("Estudiante encontrado exitosamente.");
+        assertThat(estudiante.getId()).isEqualTo(1L);
+        assertThat(estudiante.getApellido()).isEqualTo("Pérez");
+        assertThat(estudiante.getFechaNacimiento().toInstant()).isEqualTo(Instant.parse("2001-05-17T00:00:00Z"));
+        assertThat(estudiante.getVersion()).isEqualTo(3);
+    }
+
+    @Test
+    void testDecodificaListaPorIds() {
+        ResponseEntity<Respuesta<List<EstudianteDto>>> respuesta = estudianteClient.obtenerEstudiantesPorIds(List.of(1L, 2L));
+
+        assertThat(respuesta.getBody().getData()).extracting(EstudianteDto::getId).containsExactly(1L);
+    }
+
+    @Test
+    void testEstudianteInexistenteLanzaNotFound() {
+        assertThatThrownBy(() -> estudianteClient.obtenerEstudiante(99L))
+                .isInstanceOf(FeignException.NotFound.class);
+    }
+
+    @Test
+    void testLlamadasRegistranTimerPorMetodoYEstado() {
+        estudianteClient.obtenerEstudiante(1L);
+        estudianteClient.obtenerEstudiantesPorIds(List.of(1L));
+
+        assertThat(meterRegistry.get("http.client.requests")
+                .tag("http.method", "GET").tag("http.url", "/{id}").tag("http.status_code", "200")
+                .timer().count()).isPositive();
+        assertThat(meterRegistry.get("http.client.requests")
+                .tag("http.method", "POST").tag("http.url", "/por-ids").tag("http.status_code", "200")
+                .timer().count()).isPositive();
+    }
+
+    private static HttpServer iniciarServidor() {
+        try {
+            HttpServer servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            servidor.createContext("/api/estudiantes/", intercambio -> {
+                String ruta = intercambio.getRequestURI().getPath();
+                int estado = 200;
+                String cuerpo;
+                if (ruta.endsWith("/por-ids")) {
+                    cuerpo = "{\"message\":\"Estudiantes obtenidos exitosamente.\",\"data\":[" + ESTUDIANTE + "]}";
+                } else if (ruta.endsWith("/1")) {
+                    cuerpo = "{\"message\":\"Estudiante encontrado exitosamente.\",\"data\":" + ESTUDIANTE + "}";
+                } else {
+                    estado = 404;
+                    cuerpo = "{\"message\":\"Estudiante no encontrado con ID: 99\"}";
+                }
+                byte[] bytes = cuerpo.getBytes(StandardCharsets.UTF_8);
+                intercambio.getResponseHeaders().add("Content-Type", "application/json");
+                intercambio.sendResponseHeaders(estado, bytes.length);
+                intercambio.getResponseBody().write(bytes);
+                intercambio.close();
+            });
+            servidor.start();
+            return servidor;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
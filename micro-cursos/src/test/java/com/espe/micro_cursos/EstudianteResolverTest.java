@@ -0,0 +1,90 @@
+package com.espe.micro_cursos.clients;
+
+import com.espe.contrato_estudiante.EstudianteDto;
+import com.espe.contrato_estudiante.Respuesta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+public class EstudianteResolverTest {
+
+    private EstudianteClient estudianteClient;
+    private EstudianteCache estudianteCache;
+    private EstudianteResolver estudianteResolver;
+
+    @BeforeEach
+    void setUp() {
+        estudianteClient = mock(EstudianteClient.class);
+        estudianteCache = new EstudianteCache(estudianteClient, 100, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        estudianteResolver = new EstudianteResolver(estudianteClient, estudianteCache, 4, 2, Duration.ofMillis(500), new MockEnvironment());
+    }
+
+    @AfterEach
+    void tearDown() {
+        estudianteResolver.cerrar();
+    }
+
+    private static ResponseEntity<Respuesta<List<EstudianteDto>>> respuestaPara(Collection<Long> ids) {
+        List<EstudianteDto> data = new ArrayList<>();
+        ids.stream().filter(id -> id < 100).forEach(id -> {
+            EstudianteDto estudiante = new EstudianteDto();
+            estudiante.setId(id);
+            estudiante.setNombre("Estudiante " + id);
+            data.add(estudiante);
+        });
+        return ResponseEntity.ok(Respuesta.de("Estudiantes obtenidos exitosamente.", data));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testResuelveEnLotesYMarcaInexistentes() {
+        when(estudianteClient.obtenerEstudiantesPorIds(anyCollection()))
+                .thenAnswer(inv -> respuestaPara(inv.getArgument(0)));
+
+        Map<Long, Optional<EstudianteDto>> resueltos = estudianteResolver.resolver(Arrays.asList(1L, 2L, 3L, 100L));
+
+        assertThat(resueltos).hasSize(4);
+        assertThat(resueltos.get(3L)).isPresent();
+        assertThat(resueltos.get(100L)).isEmpty();
+        // 4 IDs con lotes de 2 => 2 llamadas
+        verify(estudianteClient, times(2)).obtenerEstudiantesPorIds(anyCollection());
+    }
+
+    @Test
+    void testUsaLaCacheAntesDeConsultar() {
+        EstudianteDto juan = new EstudianteDto();
+        juan.setId(1L);
+        estudianteCache.registrar(List.of(1L), List.of(juan));
+
+        Map<Long, Optional<EstudianteDto>> resueltos = estudianteResolver.resolver(List.of(1L));
+
+        assertThat(resueltos.get(1L)).contains(juan);
+        verifyNoInteractions(estudianteClient);
+    }
+
+    @Test
+    void testLoteLentoQuedaPendiente() {
+        when(estudianteClient.obtenerEstudiantesPorIds(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            if (ids.contains(3L)) {
+                Thread.sleep(5_000);
+            }
+            return respuestaPara(ids);
+        });
+
+        long inicio = System.nanoTime();
+        Map<Long, Optional<EstudianteDto>> resueltos = estudianteResolver.resolver(Arrays.asList(1L, 2L, 3L, 4L));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofSeconds(3));
+        assertThat(resueltos).containsKeys(1L, 2L).doesNotContainKeys(3L, 4L);
+    }
+}
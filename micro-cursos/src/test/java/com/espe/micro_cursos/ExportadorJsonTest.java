@@ -0,0 +1,115 @@
+package com.espe.micro_cursos.export;
+
+import com.espe.micro_cursos.config.CacheSegundoNivelConfig;
+import com.espe.micro_cursos.model.entity.Curso;
+import com.espe.micro_cursos.model.entity.CursoEstudiante;
+import com.espe.micro_cursos.repositories.CursoEstudianteRepository;
+import com.espe.micro_cursos.repositories.CursoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ExportadorJson.class, CacheSegundoNivelConfig.class})
+public class ExportadorJsonTest {
+
+    @Autowired
+    private ExportadorJson exportadorJson;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private CursoEstudianteRepository cursoEstudianteRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final ObjectWriter escritor = new ObjectMapper().writerFor(CursoEstudiante.class);
+
+    private List<CursoEstudiante> relaciones;
+
+    @BeforeEach
+    void setUp() {
+        Curso curso = new Curso();
+        curso.setNombre("Programación Java");
+        curso.setDescripcion("Curso completo de Java");
+        curso.setCreditos(4);
+        curso = cursoRepository.save(curso);
+
+        relaciones = new ArrayList<>();
+        for (long i = 1; i <= 3; i++) {
+            CursoEstudiante relacion = new CursoEstudiante();
+            relacion.setCursoId(curso.getId());
+            relacion.setEstudianteId(i);
+            relaciones.add(cursoEstudianteRepository.save(relacion));
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void testExportarNdjson() throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        long filas = exportadorJson.exportar(cursoEstudianteRepository::streamTodas, escritor, FormatoExportacion.NDJSON, salida);
+
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(filas).isEqualTo(3);
+        assertThat(lineas).hasSize(3);
+        assertThat(new ObjectMapper().readValue(lineas[2], CursoEstudiante.class).getEstudianteId()).isEqualTo(3L);
+    }
+
+    @Test
+    void testExportarArregloJson() throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        exportadorJson.exportar(cursoEstudianteRepository::streamTodas, escritor, FormatoExportacion.JSON, salida);
+
+        CursoEstudiante[] exportadas = new ObjectMapper().readValue(salida.toByteArray(), CursoEstudiante[].class);
+        assertThat(exportadas).extracting(CursoEstudiante::getEstudianteId).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void testExportarSeparaLasEntidadesDelContexto() throws Exception {
+        exportadorJson.exportar(cursoEstudianteRepository::streamTodas, escritor, FormatoExportacion.NDJSON, new ByteArrayOutputStream());
+
+        assertThat(relaciones).noneMatch(entityManager::contains);
+    }
+
+    @Test
+    void testExportarNoLlenaLaCacheDeSegundoNivel() throws Exception {
+        // Se confirman las filas de setUp: con inserciones pendientes la caché no admite lecturas de todos modos
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        cache.evictAll();
+        try {
+            exportadorJson.exportar(cursoEstudianteRepository::streamTodas, escritor, FormatoExportacion.NDJSON,
+                    new ByteArrayOutputStream());
+            exportadorJson.exportar(cursoRepository::streamTodos, new ObjectMapper().writerFor(Curso.class),
+                    FormatoExportacion.NDJSON, new ByteArrayOutputStream());
+
+            assertThat(relaciones).noneMatch(r -> cache.contains(CursoEstudiante.class, r.getId()));
+            assertThat(cache.contains(Curso.class, relaciones.get(0).getCursoId())).isFalse();
+        } finally {
+            cursoEstudianteRepository.deleteAllInBatch();
+            cursoRepository.deleteAllInBatch();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.espe.micro_cursos.inscripcion;
+
+import com.espe.micro_cursos.model.dto.EstadoInscripcion;
+import com.espe.micro_cursos.model.dto.SeguimientoInscripcion;
+import com.espe.micro_cursos.model.entity.Curso;
+import com.espe.micro_cursos.repositories.CursoEstudianteRepository;
+import com.espe.micro_cursos.repositories.CursoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "cursos.inscripcion-diferida.habilitada=true",
+        "cursos.admision.habilitada=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class InscripcionDiferidaTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private CursoEstudianteRepository cursoEstudianteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Curso curso;
+
+    @BeforeEach
+    void setUp() {
+        curso = new Curso();
+        curso.setNombre("Programación Java");
+        curso.setDescripcion("Curso completo de Java");
+        curso.setCreditos(4);
+        curso = cursoRepository.save(curso);
+    }
+
+    @Test
+    void testInscripcionesDiferidasSeEscribenSinDuplicados() throws Exception {
+        cursoEstudianteRepository.insertarEnLote(curso.getId(), List.of(1L));
+
+        String nueva = inscribir(curso.getId(), 2L);
+        String repetida = inscribir(curso.getId(), 2L);
+        String existente = inscribir(curso.getId(), 1L);
+        String sinCurso = inscribir(999_999L, 3L);
+
+        assertThat(esperarResultado(nueva)).isEqualTo("INSCRITO");
+        assertThat(esperarResultado(repetida)).isEqualTo("YA_INSCRITO");
+        assertThat(esperarResultado(existente)).isEqualTo("YA_INSCRITO");
+        assertThat(esperarResultado(sinCurso)).isEqualTo("CURSO_INEXISTENTE");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cursos_estudiante WHERE curso_id = ?",
+                Long.class, curso.getId())).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT total_inscritos FROM cursos WHERE id = ?",
+                Integer.class, curso.getId())).isEqualTo(2);
+        mockMvc.perform(get("/api/curso-estudiante/inscripciones/" + UUID.randomUUID())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testColaLlenaDevuelveVacioParaInscribirDeFormaSincrona() throws Exception {
+        // Escritor propio con capacidad 1, detenido en la verificación del primer lote
+        CountDownLatch enEscritura = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CursoRepository cursos = mock(CursoRepository.class);
+        when(cursos.findIdsExistentes(anyCollection())).thenAnswer(invocacion -> {
+            enEscritura.countDown();
+            liberar.await(10, TimeUnit.SECONDS);
+            return List.of();
+        });
+        InscripcionDiferida inscripcionDiferida = new InscripcionDiferida(mock(CursoEstudianteRepository.class), cursos,
+                mock(PlatformTransactionManager.class), true, 1, 500, Duration.ofMinutes(1), 100);
+        try {
+            Optional<SeguimientoInscripcion> primera = inscripcionDiferida.encolar(1L, 1L);
+            assertThat(enEscritura.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(inscripcionDiferida.encolar(1L, 2L)).isPresent();
+            assertThat(inscripcionDiferida.encolar(1L, 3L)).isEmpty();
+
+            liberar.countDown();
+            inscripcionDiferida.detener();
+            assertThat(inscripcionDiferida.consultar(primera.orElseThrow().getId()))
+                    .map(SeguimientoInscripcion::getEstado)
+                    .contains(EstadoInscripcion.CURSO_INEXISTENTE);
+        } finally {
+            liberar.countDown();
+            inscripcionDiferida.detener();
+        }
+    }
+
+    private String inscribir(Long cursoId, Long estudianteId) throws Exception {
+        return mockMvc.perform(post("/api/curso-estudiante")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cursoId\": " + cursoId + ", \"estudianteId\": " + estudianteId + "}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getHeader("Location");
+    }
+
+    private String esperarResultado(String location) throws Exception {
+        for (int intento = 0; intento < 100; intento++) {
+            JsonNode seguimiento = objectMapper.readTree(mockMvc.perform(get(location))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            String estado = seguimiento.get("estado").asText();
+            if (!"PENDIENTE".equals(estado)) {
+                return estado;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("La inscripción sigue pendiente: " + location);
+    }
+}
@@ -0,0 +1,84 @@
+package com.espe.micro_cursos.repositories;
+
+import com.espe.micro_cursos.config.CacheSegundoNivelConfig;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El esquema lo crean las migraciones de Flyway (ddl-auto=validate en los tests comprueba que
+ * coincide con las entidades). Aquí se verifica con EXPLAIN que las búsquedas usan sus índices
+ * y que una base creada antes de Flyway recibe las migraciones posteriores a V1.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(CacheSegundoNivelConfig.class)
+public class MigracionesTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testMigracionesAplicadas() {
+        assertThat(jdbcTemplate.queryForList("select version from flyway_schema_history where success and version is not null order by installed_rank", String.class))
+                .containsExactly("1", "2", "3", "4");
+    }
+
+    @Test
+    void testBuscarPorCreditosUsaIndice() {
+        assertThat(plan("select * from cursos where creditos = 4")).contains("idx_cursos_creditos");
+    }
+
+    @Test
+    void testBuscarPorFechaUsaIndice() {
+        assertThat(plan("select * from cursos where creado_en > timestamp '2024-01-01 00:00:00'")).contains("idx_cursos_creado_en");
+    }
+
+    @Test
+    void testInscritosDeUnCursoUsaIndice() {
+        assertThat(plan("select id, estudiante_id, curso_id from cursos_estudiante where curso_id = 1 and id > 0 order by id limit 50")).contains("idx_cursos_estudiante_curso");
+    }
+
+    @Test
+    void testBaseExistenteSeTomaComoV1YRecibeLasMigracionesSiguientes() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate existente = new JdbcTemplate(dataSource);
+        // Esquema que dejaba Hibernate con ddl-auto=update antes de Flyway, con datos
+        existente.execute("create table cursos (id bigint not null auto_increment, nombre varchar(255) not null, "
+                + "descripcion varchar(255) not null, creditos integer not null, creado_en datetime(6), primary key (id))");
+        existente.execute("create table cursos_estudiante (id bigint not null auto_increment, estudiante_id bigint not null, "
+                + "curso_id bigint not null, primary key (id), unique (estudiante_id, curso_id), "
+                + "foreign key (curso_id) references cursos (id))");
+        existente.update("insert into cursos (id, nombre, descripcion, creditos) values (7, 'Java', 'Curso de Java', 4)");
+        existente.update("insert into cursos_estudiante (id, estudiante_id, curso_id) values (1, 10, 7), (2, 11, 7)");
+
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        assertThat(existente.queryForList("select version from flyway_schema_history where success and version is not null order by installed_rank", String.class))
+                .containsExactly("1", "2", "3", "4");
+        assertThat(existente.queryForObject("select type from flyway_schema_history where version = '1'", String.class))
+                .isEqualTo("BASELINE");
+        assertThat(existente.queryForMap("select version, total_inscritos from cursos where id = 7"))
+                .containsEntry("version", 0L)
+                .containsEntry("total_inscritos", 2L);
+        assertThat(existente.queryForObject("select siguiente from generadores_id where entidad = 'cursos'", Long.class))
+                .isEqualTo(7 + 49);
+        assertThat(existente.queryForObject("explain select id from cursos order by total_inscritos desc limit 10", String.class))
+                .contains("idx_cursos_total_inscritos");
+        existente.execute("shutdown");
+    }
+
+    private String plan(String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class);
+    }
+}
@@ -0,0 +1,61 @@
+package com.espe.micro_cursos.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class ObservabilidadTest {
+
+    @LocalServerPort
+    private int puerto;
+
+    @LocalManagementPort
+    private int puertoAdministracion;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    private HttpResponse<String> get(int puerto, String ruta) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void testPrometheusPublicaMetricasEnElPuertoDeAdministracion() throws Exception {
+        assertThat(get(puerto, "/api/cursos").statusCode()).isEqualTo(200);
+
+        // El timer se registra al cerrar la observación, que puede terminar después de que el cliente recibió la respuesta
+        HttpResponse<String> prometheus = get(puertoAdministracion, "/actuator/prometheus");
+        for (int intento = 0; intento < 50 && !prometheus.body().contains("http_server_requests_seconds_count{"); intento++) {
+            Thread.sleep(100);
+            prometheus = get(puertoAdministracion, "/actuator/prometheus");
+        }
+        assertThat(prometheus.statusCode()).isEqualTo(200);
+        assertThat(prometheus.body())
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("handler=\"CursoController.listarCursos\"")
+                .containsPattern("http_server_requests_seconds_bucket\\{[^}]*handler=\"[A-Za-z]+Controller\\.[A-Za-z]+\"[^}]*le=\"")
+                .contains("hikaricp_connections_max")
+                .contains("hibernate_query_executions_total")
+                .contains("hibernate_cache_tasa_aciertos{")
+                .contains("jvm_gc_memory_allocated_bytes_total")
+                .contains("jvm_gc_max_data_size_bytes");
+    }
+
+    @Test
+    void testActuatorNoSePublicaEnElPuertoDeLaApi() throws Exception {
+        assertThat(get(puerto, "/actuator/prometheus").statusCode()).isEqualTo(404);
+    }
+}
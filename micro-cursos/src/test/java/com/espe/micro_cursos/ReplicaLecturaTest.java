@@ -0,0 +1,200 @@
+package com.espe.micro_cursos.config;
+
+import com.espe.micro_cursos.model.dto.CursoResumen;
+import com.espe.micro_cursos.model.entity.Curso;
+import com.espe.micro_cursos.repositories.CursoRepository;
+import com.espe.micro_cursos.services.CursoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Réplica de lectura con dos bases H2: la del perfil de test como primario y otra en memoria como réplica,
+ * con el esquema de las mismas migraciones y una tabla retraso_replica que simula el retraso de replicación.
+ * Cada base tiene un curso que la otra no tiene, así se ve de dónde sale cada lectura.
+ */
+@SpringBootTest(properties = {
+        "cursos.datasource.replica.url=" + ReplicaLecturaTest.URL_REPLICA,
+        "cursos.datasource.replica.consulta-retraso=SELECT segundos FROM retraso_replica",
+        "cursos.datasource.replica.retraso-maximo=5s",
+        // Las verificaciones las fuerza cada test
+        "cursos.datasource.replica.intervalo-verificacion=1h"
+})
+@ActiveProfiles("test")
+public class ReplicaLecturaTest {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:replica-cursos;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(URL_REPLICA, "sa", ""));
+
+    @Autowired
+    private CursoService cursoService;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private MonitorReplica monitorReplica;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void crearReplica() {
+        Flyway.configure().dataSource(URL_REPLICA, "sa", "").load().migrate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        replica.execute("CREATE TABLE IF NOT EXISTS retraso_replica (segundos BIGINT)");
+        replica.update("DELETE FROM retraso_replica");
+        replica.update("INSERT INTO retraso_replica VALUES (0)");
+        replica.update("DELETE FROM cursos");
+        replica.update("INSERT INTO cursos (id, nombre, descripcion, creditos, version, total_inscritos) "
+                + "VALUES (1000, 'Solo en la réplica', 'Leído de la réplica', 4, 0, 0)");
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cursos WHERE nombre = 'Solo en el primario'", Long.class) == 0) {
+            Curso curso = new Curso();
+            curso.setNombre("Solo en el primario");
+            curso.setDescripcion("Escrito en el primario");
+            curso.setCreditos(4);
+            cursoService.guardarCurso(curso);
+        }
+        monitorReplica.verificar();
+    }
+
+    @Test
+    void testLecturasDeSoloLecturaVanALaReplica() {
+        double antes = conexiones("replica");
+
+        assertThat(nombres()).containsExactly("Solo en la réplica");
+        assertThat(conexiones("replica")).isEqualTo(antes + 1);
+        assertThat(meterRegistry.get("datasource.replica.disponible").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void testEscriturasVanAlPrimario() {
+        Curso curso = new Curso();
+        curso.setNombre("Nuevo");
+        curso.setDescripcion("Escritura");
+        curso.setCreditos(2);
+        Long id = cursoService.guardarCurso(curso).getId();
+
+        // Sin transacción de solo lectura el JdbcTemplate de la aplicación usa el primario
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cursos WHERE id = ?", Long.class, id)).isEqualTo(1);
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM cursos WHERE id = ?", Long.class, id)).isZero();
+    }
+
+    @Test
+    void testReplicaAtrasadaUsaPrimario() {
+        replica.update("UPDATE retraso_replica SET segundos = 60");
+        monitorReplica.verificar();
+
+        assertThat(monitorReplica.isDisponible()).isFalse();
+        assertThat(meterRegistry.get("datasource.replica.retraso").gauge().value()).isEqualTo(60);
+        assertThat(nombres()).contains("Solo en el primario").doesNotContain("Solo en la réplica");
+
+        replica.update("UPDATE retraso_replica SET segundos = 1");
+        monitorReplica.verificar();
+        assertThat(nombres()).containsExactly("Solo en la réplica");
+    }
+
+    @Test
+    void testReplicaSinEstadoUsaPrimario() {
+        // La consulta de retraso falla, como una réplica que no responde
+        replica.execute("DROP TABLE retraso_replica");
+        monitorReplica.verificar();
+
+        assertThat(monitorReplica.isDisponible()).isFalse();
+        assertThat(nombres()).contains("Solo en el primario").doesNotContain("Solo en la réplica");
+    }
+
+    @Test
+    void testSoloLecturaSinFlushNiDirtyChecking() {
+        TransactionTemplate soloLectura = new TransactionTemplate(transactionManager);
+        soloLectura.setReadOnly(true);
+
+        soloLectura.executeWithoutResult(estado -> {
+            Session sesion = entityManager.unwrap(Session.class);
+            assertThat(sesion.getHibernateFlushMode()).isEqualTo(FlushMode.MANUAL);
+            assertThat(sesion.getCacheMode()).isEqualTo(CacheMode.GET);
+
+            Curso curso = cursoRepository.findById(1000L).orElseThrow();
+            assertThat(sesion.isReadOnly(curso)).isTrue();
+            curso.setNombre("Cambio descartado");
+            entityManager.flush();
+        });
+
+        assertThat(replica.queryForObject("SELECT nombre FROM cursos WHERE id = 1000", String.class)).isEqualTo("Solo en la réplica");
+    }
+
+    @Test
+    void testLecturasDeLaReplicaNoLlenanLaCacheDeSegundoNivel() {
+        entityManagerFactory.getCache().evict(Curso.class);
+
+        // Una fila atrasada de la réplica quedaría en la caché hasta el TTL
+        assertThat(cursoService.obtenerPorId(1000L).getNombre()).isEqualTo("Solo en la réplica");
+        assertThat(entityManagerFactory.getCache().contains(Curso.class, 1000L)).isFalse();
+
+        // Las transacciones de escritura leen del primario y sí la llenan
+        Long idPrimario = jdbcTemplate.queryForObject("SELECT id FROM cursos WHERE nombre = 'Solo en el primario'", Long.class);
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado -> cursoRepository.findById(idPrimario));
+        assertThat(entityManagerFactory.getCache().contains(Curso.class, idPrimario)).isTrue();
+    }
+
+    @Test
+    void testActualizarComparaLaVersionDelPrimario() {
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM cursos WHERE nombre = 'Solo en el primario'", Long.class);
+        Curso datos = new Curso();
+        datos.setNombre("Solo en el primario");
+        datos.setDescripcion("Primera actualización");
+        datos.setCreditos(4);
+        long version = cursoService.actualizarCurso(id, datos, v -> true).orElseThrow().getVersion();
+        // La réplica todavía tiene la versión anterior
+        replica.update("INSERT INTO cursos (id, nombre, descripcion, creditos, version, total_inscritos) "
+                + "VALUES (?, 'Solo en el primario', 'Escrito en el primario', 4, ?, 0)", id, version - 1);
+        assertThat(cursoService.obtenerVersion(id)).contains(version - 1);
+
+        // El cliente envía la versión que recibió del PUT anterior: no es un 412
+        datos.setDescripcion("Segunda actualización");
+        Curso actualizado = cursoService.actualizarCurso(id, datos, v -> v == version).orElseThrow();
+        assertThat(actualizado.getVersion()).isEqualTo(version + 1);
+    }
+
+    private List<String> nombres() {
+        return cursoService.listarResumenes(0, 100).getItems().stream().map(CursoResumen::getNombre).toList();
+    }
+
+    private double conexiones(String destino) {
+        return meterRegistry.get("datasource.conexiones").tag("destino", destino).functionCounter().count();
+    }
+}
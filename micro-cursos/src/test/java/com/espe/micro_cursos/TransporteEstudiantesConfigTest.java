@@ -0,0 +1,36 @@
+package com.espe.micro_cursos.clients;
+
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+public class TransporteEstudiantesConfigTest {
+
+    @Autowired
+    private Client feignClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testClienteFeignUsaPoolDeHttpClient5() {
+        assertThat(feignClient).isInstanceOf(ApacheHttp5Client.class);
+    }
+
+    @Test
+    void testMetricasDelPoolPublicadas() {
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "micro-estudiante")
+                .gauge().value()).isEqualTo(200);
+        assertThat(meterRegistry.find("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "micro-estudiante").gauges()).isNotEmpty();
+    }
+}
@@ -0,0 +1,61 @@
+package com.espe.micro_estudiantes.admision;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registra el control de admisión con los grupos de estudiantes.admision.grupos.&lt;nombre&gt;.*
+ * (con estudiantes.admision.habilitada=false no se limita nada).
+ */
+@Configuration
+public class ControlAdmisionConfig {
+
+    private static final String PREFIJO = "estudiantes.admision.";
+
+    @Bean
+    public FilterRegistrationBean<ControlAdmisionFilter> controlAdmision(Environment environment, MeterRegistry meterRegistry,
+                                                                         ObjectMapper objectMapper) {
+        Binder binder = Binder.get(environment);
+        List<GrupoAdmision> grupos = binder.bind(PREFIJO + "grupos", Bindable.mapOf(String.class, GrupoAdmision.Limites.class))
+                .orElse(Map.of())
+                .entrySet().stream()
+                .map(grupo -> new GrupoAdmision(grupo.getKey(), grupo.getValue()))
+                .sorted(Comparator.comparingInt(GrupoAdmision::getOrden))
+                .toList();
+        ControlAdmisionFilter filtro = new ControlAdmisionFilter(grupos,
+                binder.bind(PREFIJO + "reintentar-tras", Duration.class).orElse(Duration.ofSeconds(1)),
+                meterRegistry, objectMapper);
+
+        FilterRegistrationBean<ControlAdmisionFilter> registro = new FilterRegistrationBean<>(filtro);
+        registro.setEnabled(binder.bind(PREFIJO + "habilitada", Boolean.class).orElse(true));
+        // Después del filtro de observación (HIGHEST_PRECEDENCE + 1): los 429 aparecen en http.server.requests
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registro;
+    }
+
+    /**
+     * Solicitudes en curso por grupo (http.admision.en.curso), para compararlas con su concurrencia máxima.
+     */
+    @Bean
+    public MeterBinder metricasControlAdmision(FilterRegistrationBean<ControlAdmisionFilter> controlAdmision) {
+        return registry -> controlAdmision.getFilter().getGrupos().forEach(grupo ->
+                Gauge.builder("http.admision.en.curso", grupo, GrupoAdmision::getEnCurso)
+                        .description("Solicitudes del grupo que se están atendiendo")
+                        .tag("grupo", grupo.getNombre())
+                        .register(registry));
+    }
+}
@@ -0,0 +1,137 @@
+package com.espe.micro_estudiantes.admision;
+
+import com.espe.contrato_estudiante.Respuesta;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Control de admisión por grupo de endpoints. Cada solicitud toma un token de la cubeta de su cliente
+ * (dirección remota) y un lugar entre las solicitudes simultáneas de su grupo; si falta cualquiera de
+ * los dos se responde 429 con Retry-After sin encolarla, para que la sobrecarga de un grupo (p. ej. las
+ * consultas por lotes de micro-cursos) no ocupe los hilos de Tomcat que necesitan los demás.
+ * Las respuestas asíncronas (p. ej. la exportación con StreamingResponseBody) ocupan su lugar hasta que
+ * terminan, no solo mientras corre el hilo de Tomcat que las inició.
+ * Rechazos en http.admision.rechazos (grupo, motivo=cliente|concurrencia).
+ */
+public class ControlAdmisionFilter extends OncePerRequestFilter {
+
+    private final List<GrupoAdmision> grupos;
+    private final long reintentarTrasSegundos;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    public ControlAdmisionFilter(List<GrupoAdmision> grupos, Duration reintentarTras,
+                                 MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.grupos = grupos;
+        this.reintentarTrasSegundos = Math.max(1, reintentarTras.toSeconds());
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    public List<GrupoAdmision> getGrupos() {
+        return grupos;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        GrupoAdmision grupo = grupoDe(request);
+        if (grupo == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Primero la concurrencia: un rechazo por grupo saturado no le gasta un token al cliente
+        if (!grupo.entrar()) {
+            rechazar(response, grupo, "concurrencia", reintentarTrasSegundos);
+            return;
+        }
+        long espera = grupo.tomarToken(request.getRemoteAddr());
+        if (espera > 0) {
+            grupo.salir();
+            rechazar(response, grupo, "cliente", (espera + 999_999_999) / 1_000_000_000);
+            return;
+        }
+        boolean asincrona = false;
+        try {
+            filterChain.doFilter(request, response);
+            asincrona = request.isAsyncStarted();
+        } finally {
+            if (asincrona) {
+                // StreamingResponseBody, DeferredResult...: el lugar se libera cuando termina la respuesta
+                request.getAsyncContext().addListener(new SalirAlCompletar(grupo));
+            } else {
+                grupo.salir();
+            }
+        }
+    }
+
+    private GrupoAdmision grupoDe(HttpServletRequest request) {
+        // Las verificaciones previas de CORS no cuentan
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+            return null;
+        }
+        PathContainer ruta = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (GrupoAdmision grupo : grupos) {
+            if (grupo.aplica(request.getMethod(), ruta)) {
+                return grupo;
+            }
+        }
+        return null;
+    }
+
+    private record SalirAlCompletar(GrupoAdmision grupo) implements AsyncListener {
+
+        // También se llama tras un error o un timeout
+        @Override
+        public void onComplete(AsyncEvent event) {
+            grupo.salir();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Un nuevo startAsync quita los listeners; el lugar debe seguir ocupado hasta el final
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private void rechazar(HttpServletResponse response, GrupoAdmision grupo, String motivo, long segundos) throws IOException {
+        Counter.builder("http.admision.rechazos")
+                .description("Solicitudes rechazadas con 429 por el control de admisión")
+                .tag("grupo", grupo.getNombre())
+                .tag("motivo", motivo)
+                .register(meterRegistry)
+                .increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(),
+                Respuesta.mensaje("Demasiadas solicitudes; reintente en " + segundos + " s."));
+    }
+}
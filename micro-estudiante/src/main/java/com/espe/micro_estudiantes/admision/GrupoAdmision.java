@@ -0,0 +1,91 @@
+package com.espe.micro_estudiantes.admision;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+/**
+ * Grupo de endpoints con su propio límite de solicitudes simultáneas (para todos los clientes) y una
+ * cubeta de tokens por cliente. Una solicitud pertenece al grupo si coincide con alguno de sus métodos
+ * y alguna de sus rutas; sin métodos o sin rutas, el grupo acepta cualquiera.
+ */
+public class GrupoAdmision {
+
+    /**
+     * Límites de un grupo tal como se configuran en &lt;servicio&gt;.admision.grupos.&lt;nombre&gt;.*;
+     * los grupos se evalúan por {@code orden} ascendente y gana el primero que coincide.
+     */
+    public record Limites(int orden, List<String> metodos, List<String> rutas,
+                          int concurrenciaMaxima, double solicitudesPorSegundo, int rafaga) {
+    }
+
+    // Clientes distintos recordados por grupo; un cliente inactivo se olvida con la cubeta llena
+    private static final int CLIENTES_MAXIMOS = 100_000;
+    private static final Duration CLIENTE_INACTIVO = Duration.ofMinutes(10);
+
+    private final String nombre;
+    private final Limites limites;
+    private final Set<String> metodos;
+    private final List<PathPattern> rutas;
+    private final Semaphore enCurso;
+    private final Cache<String, CubetaTokens> cubetas;
+
+    public GrupoAdmision(String nombre, Limites limites) {
+        this.nombre = nombre;
+        this.limites = limites;
+        this.metodos = limites.metodos() == null ? Set.of()
+                : limites.metodos().stream().map(String::toUpperCase).collect(Collectors.toSet());
+        this.rutas = limites.rutas() == null ? List.of()
+                : limites.rutas().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.enCurso = new Semaphore(limites.concurrenciaMaxima());
+        this.cubetas = Caffeine.newBuilder()
+                .maximumSize(CLIENTES_MAXIMOS)
+                .expireAfterAccess(CLIENTE_INACTIVO)
+                .build();
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int getOrden() {
+        return limites.orden();
+    }
+
+    boolean aplica(String metodo, PathContainer ruta) {
+        return (metodos.isEmpty() || metodos.contains(metodo))
+                && (rutas.isEmpty() || rutas.stream().anyMatch(patron -> patron.matches(ruta)));
+    }
+
+    /**
+     * @return 0 si el cliente tiene un token disponible; si no, nanosegundos hasta el siguiente
+     */
+    long tomarToken(String cliente) {
+        long ahora = System.nanoTime();
+        return cubetas.get(cliente, c -> new CubetaTokens(limites.rafaga(), limites.solicitudesPorSegundo(), ahora))
+                .tomar(ahora);
+    }
+
+    /**
+     * Ocupa un lugar entre las solicitudes simultáneas del grupo, sin esperar.
+     */
+    boolean entrar() {
+        return enCurso.tryAcquire();
+    }
+
+    void salir() {
+        enCurso.release();
+    }
+
+    int getEnCurso() {
+        return limites.concurrenciaMaxima() - enCurso.availablePermits();
+    }
+}
@@ -0,0 +1,102 @@
+package com.espe.micro_estudiantes.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Caché de segundo nivel de Hibernate sobre JCache con Caffeine: la entidad Estudiante y las consultas
+ * marcadas como cacheables.
+ * Cada región tiene su tamaño máximo y su TTL (estudiantes.cache-entidades.&lt;región&gt;.tamano-maximo / .ttl).
+ * El CacheManager es propio de cada contexto: dos contextos en la misma JVM (p. ej. en los tests)
+ * no comparten entradas.
+ */
+@Configuration
+public class CacheSegundoNivelConfig {
+
+    public static final String REGION_ESTUDIANTE = "estudiante";
+    public static final String REGION_CONSULTAS = "consultas";
+
+    private static final List<String> REGIONES = List.of(REGION_ESTUDIANTE, REGION_CONSULTAS);
+
+    private static final String PREFIJO = "estudiantes.cache-entidades.";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerHibernate(Environment environment) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("micro-estudiante-" + UUID.randomUUID()), getClass().getClassLoader());
+        Binder binder = Binder.get(environment);
+        for (String region : REGIONES) {
+            CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+            configuracion.setMaximumSize(OptionalLong.of(
+                    binder.bind(PREFIJO + region + ".tamano-maximo", Long.class).orElse(10_000L)));
+            configuracion.setExpireAfterWrite(OptionalLong.of(
+                    binder.bind(PREFIJO + region + ".ttl", Duration.class).orElse(Duration.ofMinutes(10)).toNanos()));
+            configuracion.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuracion);
+        }
+        // Hibernate crea siempre la región de consultas por defecto, aunque las consultas usen "consultas"
+        CaffeineConfiguration<Object, Object> consultasPorDefecto = new CaffeineConfiguration<>();
+        consultasPorDefecto.setMaximumSize(OptionalLong.of(100));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, consultasPorDefecto);
+        // Última modificación de cada tabla, con la que se validan las consultas cacheadas:
+        // no debe expirar ni desalojar entradas antes que ellas
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    /**
+     * Entrega a Hibernate el CacheManager con las regiones ya creadas; el resto de la configuración
+     * (activación, caché de consultas, estrategia ante regiones faltantes) está en application.properties.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(CacheManager cacheManagerHibernate) {
+        return propiedades -> propiedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerHibernate);
+    }
+
+    /**
+     * Tasa de aciertos por región (aciertos / consultas a la caché) como hibernate.cache.tasa.aciertos.
+     * Los contadores absolutos ya los publica hibernate-micrometer (hibernate.second.level.cache.requests).
+     */
+    @Bean
+    public MeterBinder tasaAciertosCacheSegundoNivel(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            for (String region : REGIONES) {
+                Gauge.builder("hibernate.cache.tasa.aciertos", estadisticas, s -> tasaAciertos(s.getCacheRegionStatistics(region)))
+                        .description("Aciertos sobre el total de lecturas de la región de la caché de segundo nivel")
+                        .tag("region", region)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double tasaAciertos(CacheRegionStatistics region) {
+        if (region == null) {
+            return Double.NaN;
+        }
+        long lecturas = region.getHitCount() + region.getMissCount();
+        return lecturas == 0 ? Double.NaN : (double) region.getHitCount() / lecturas;
+    }
+}
@@ -0,0 +1,25 @@
+package com.espe.micro_estudiantes.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Migraciones de Flyway al arrancar. Se omiten en la ejecución de entrenamiento del archivo AppCDS
+ * (perfil Maven arranque-rapido, con spring.context.exit=onRefresh), que corre sin base de datos.
+ * No basta con spring.flyway.enabled=false: con AOT las condiciones de la autoconfiguración
+ * se evalúan al compilar y Flyway queda registrado igualmente.
+ */
+@Configuration
+public class MigracionesConfig {
+
+    @Bean
+    public FlywayMigrationStrategy estrategiaMigraciones(Environment env) {
+        return flyway -> {
+            if (!"onRefresh".equals(env.getProperty("spring.context.exit"))) {
+                flyway.migrate();
+            }
+        };
+    }
+}
@@ -0,0 +1,151 @@
+package com.espe.micro_estudiantes.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estado de la réplica de lectura. Cada cierto intervalo pide una conexión al pool de la réplica y,
+ * si hay consulta de retraso, lee cuántos segundos va por detrás del primario. La réplica deja de
+ * usarse si no responde, si no informa retraso (replicación detenida) o si supera el retraso máximo,
+ * y vuelve a usarse en la primera verificación correcta.
+ * <p>
+ * La consulta de retraso debe devolver una fila: se lee la columna Seconds_Behind_Source
+ * (o Seconds_Behind_Master) si existe, como en SHOW REPLICA STATUS de MySQL, o la primera columna.
+ * Sin réplica configurada el monitor no hace nada y las lecturas van siempre al primario.
+ */
+public class MonitorReplica implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorReplica.class);
+
+    private final HikariDataSource replica;
+    private final long retrasoMaximoSegundos;
+    private final String consultaRetraso;
+    private final ScheduledExecutorService verificador;
+
+    private volatile boolean disponible;
+    private volatile double retrasoSegundos = Double.NaN;
+
+    /**
+     * @param replica pool de la réplica, o null si no hay réplica configurada
+     * @param intervalo tiempo entre verificaciones
+     * @param retrasoMaximo retraso a partir del cual las lecturas vuelven al primario
+     * @param consultaRetraso consulta que devuelve el retraso en segundos; vacía para no medirlo
+     */
+    public MonitorReplica(HikariDataSource replica, Duration intervalo, Duration retrasoMaximo, String consultaRetraso) {
+        this.replica = replica;
+        this.retrasoMaximoSegundos = retrasoMaximo.toSeconds();
+        this.consultaRetraso = consultaRetraso;
+        if (replica == null) {
+            this.verificador = null;
+            return;
+        }
+        this.verificador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "monitor-replica");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        verificador.scheduleWithFixedDelay(this::verificar, 0, intervalo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isConfigurada() {
+        return replica != null;
+    }
+
+    public boolean isDisponible() {
+        return disponible;
+    }
+
+    /**
+     * Último retraso medido en segundos; NaN si no se pudo medir.
+     */
+    public double getRetrasoSegundos() {
+        return retrasoSegundos;
+    }
+
+    DataSource getReplica() {
+        return replica;
+    }
+
+    /**
+     * Comprueba la réplica y actualiza su disponibilidad. La ejecuta el hilo del monitor;
+     * es pública para forzar una verificación (por ejemplo, en los tests).
+     */
+    public synchronized void verificar() {
+        if (replica == null) {
+            return;
+        }
+        try (Connection conexion = replica.getConnection()) {
+            Long retraso = StringUtils.hasText(consultaRetraso) ? leerRetraso(conexion) : Long.valueOf(0);
+            retrasoSegundos = retraso == null ? Double.NaN : retraso;
+            if (retraso == null) {
+                cambiarDisponibilidad(false, "la réplica no informa su retraso (replicación detenida)");
+            } else if (retraso > retrasoMaximoSegundos) {
+                cambiarDisponibilidad(false, "retraso de " + retraso + " s (máximo " + retrasoMaximoSegundos + " s)");
+            } else {
+                cambiarDisponibilidad(true, "retraso de " + retraso + " s");
+            }
+        } catch (SQLException | RuntimeException e) {
+            retrasoSegundos = Double.NaN;
+            cambiarDisponibilidad(false, e.getMessage());
+        }
+    }
+
+    /**
+     * La réplica falló al entregar una conexión: se deja de usar hasta la siguiente verificación correcta.
+     */
+    void marcarNoDisponible(SQLException causa) {
+        cambiarDisponibilidad(false, causa.getMessage());
+    }
+
+    private Long leerRetraso(Connection conexion) throws SQLException {
+        try (Statement sentencia = conexion.createStatement(); ResultSet filas = sentencia.executeQuery(consultaRetraso)) {
+            if (!filas.next()) {
+                return null;
+            }
+            long retraso = filas.getLong(columnaRetraso(filas.getMetaData()));
+            return filas.wasNull() ? null : retraso;
+        }
+    }
+
+    private static int columnaRetraso(ResultSetMetaData columnas) throws SQLException {
+        for (int i = 1; i <= columnas.getColumnCount(); i++) {
+            String nombre = columnas.getColumnLabel(i);
+            if ("Seconds_Behind_Source".equalsIgnoreCase(nombre) || "Seconds_Behind_Master".equalsIgnoreCase(nombre)) {
+                return i;
+            }
+        }
+        return 1;
+    }
+
+    private synchronized void cambiarDisponibilidad(boolean nueva, String motivo) {
+        if (nueva != disponible) {
+            if (nueva) {
+                log.info("Réplica de lectura disponible: {}", motivo);
+            } else {
+                log.warn("Réplica de lectura no disponible, las lecturas van al primario: {}", motivo);
+            }
+        }
+        disponible = nueva;
+    }
+
+    @Override
+    public void close() {
+        if (verificador != null) {
+            verificador.shutdownNow();
+            replica.close();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.espe.micro_estudiantes.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Métricas de las solicitudes HTTP: agrega a {@code http.server.requests} la etiqueta "handler"
+ * con el controlador y el método que atendió la solicitud (p. ej. "EstudianteController.obtenerEstudiante"),
+ * para tener el histograma de latencia por método además de por URI.
+ */
+@Configuration
+public class ObservabilidadConfig {
+
+    private static final KeyValue SIN_HANDLER = KeyValue.of("handler", "none");
+
+    @Bean
+    public ServerRequestObservationConvention convencionSolicitudesHttp() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(handler(context));
+            }
+        };
+    }
+
+    private static KeyValue handler(ServerRequestObservationContext context) {
+        Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod metodo) {
+            return KeyValue.of("handler", metodo.getBeanType().getSimpleName() + "." + metodo.getMethod().getName());
+        }
+        return SIN_HANDLER;
+    }
+}
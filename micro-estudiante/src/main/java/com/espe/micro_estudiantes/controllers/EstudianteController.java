@@ -1,97 +1,198 @@
 package com.espe.micro_estudiantes.controllers;
 
+import com.espe.contrato_estudiante.EstudianteDto;
+import com.espe.contrato_estudiante.Respuesta;
+import com.espe.micro_estudiantes.model.dto.EstudianteResumen;
 import com.espe.micro_estudiantes.model.entity.Estudiante;
+import com.espe.micro_estudiantes.pagination.KeysetCursor;
+import com.espe.micro_estudiantes.services.EstudianteModificadoException;
 import com.espe.micro_estudiantes.services.EstudianteService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/estudiantes")
-@CrossOrigin(origins = "${CORS_ALLOWED_ORIGINS:*}")
+@CrossOrigin(origins = "${CORS_ALLOWED_ORIGINS:*}", exposedHeaders = {HttpHeaders.ETAG, EstudianteController.NEXT_CURSOR_HEADER})
 public class EstudianteController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private EstudianteService estudianteService;
 
+    @Value("${estudiantes.resumen.limite-por-defecto:50}")
+    private int limitePorDefecto;
+
+    @Value("${estudiantes.resumen.limite-maximo:500}")
+    private int limiteMaximo;
+
+    @Value("${estudiantes.creacion-masiva.maximo-estudiantes:1000}")
+    private int maximoCreacionMasiva;
+
     /**
      * Endpoint para listar todos los estudiantes.
      *
      * @return ResponseEntity con la lista de estudiantes y código HTTP 200
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> listarEstudiantes() {
+    public ResponseEntity<Respuesta<List<EstudianteDto>>> listarEstudiantes() {
         List<Estudiante> estudiantes = estudianteService.listarTodos();
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Estudiantes obtenidos exitosamente.");
-        response.put("data", estudiantes);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(Respuesta.de("Estudiantes obtenidos exitosamente.", aDtos(estudiantes)));
+    }
+
+    /**
+     * Endpoint para listar los estudiantes en forma resumida (ID, nombre y apellido), paginado por keyset
+     * sobre el ID. Pensado para listas desplegables: no devuelve email, teléfono ni fechas. El cursor de
+     * la página siguiente viaja en la cabecera X-Next-Cursor; sin la cabecera no hay más páginas.
+     *
+     * @param limit Número máximo de estudiantes a devolver
+     * @param after Cursor opaco recibido en X-Next-Cursor de la página anterior
+     * @return ResponseEntity con los resúmenes y código HTTP 200, o 400 si el cursor no es válido
+     */
+    @GetMapping("/resumen")
+    public ResponseEntity<Respuesta<List<EstudianteResumen>>> listarResumenes(@RequestParam(required = false) Integer limit,
+                                                                             @RequestParam(required = false) String after) {
+        long despuesDeId;
+        try {
+            despuesDeId = KeysetCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Respuesta.mensaje("Cursor de paginación inválido."));
+        }
+        int limite = resolverLimite(limit);
+        List<EstudianteResumen> filas = estudianteService.listarResumenes(despuesDeId, limite);
+        if (filas.size() > limite) {
+            List<EstudianteResumen> pagina = filas.subList(0, limite);
+            return ResponseEntity.ok().header(NEXT_CURSOR_HEADER, KeysetCursor.encode(pagina.get(limite - 1).getId()))
+                    .body(Respuesta.de("Estudiantes obtenidos exitosamente.", pagina));
+        }
+        return ResponseEntity.ok(Respuesta.de("Estudiantes obtenidos exitosamente.", filas));
     }
 
     /**
-     * Endpoint para obtener un estudiante por su ID.
+     * Endpoint para buscar estudiantes en forma resumida por nombre o apellido (contiene, sin distinguir mayúsculas).
+     *
+     * @param q Texto a buscar
+     * @param limit Número máximo de estudiantes a devolver
+     * @return ResponseEntity con los resúmenes encontrados y código HTTP 200
+     */
+    @GetMapping("/resumen/buscar")
+    public ResponseEntity<Respuesta<List<EstudianteResumen>>> buscarResumenes(@RequestParam String q,
+                                                                             @RequestParam(required = false) Integer limit) {
+        List<EstudianteResumen> estudiantes = estudianteService.buscarResumenes(q.trim(), resolverLimite(limit));
+        return ResponseEntity.ok(Respuesta.de("Estudiantes encontrados para '" + q.trim() + "'.", estudiantes));
+    }
+
+    /**
+     * Endpoint para obtener un estudiante por su ID. Responde con un ETag basado en la versión del
+     * estudiante; si el cliente envía If-None-Match con ese ETag se devuelve 304 sin cuerpo.
      *
      * @param id ID del estudiante
-     * @return ResponseEntity con el estudiante encontrado o código HTTP 404 si no existe
+     * @param ifNoneMatch ETag(s) que el cliente ya tiene en caché
+     * @return ResponseEntity con el estudiante encontrado, 304 si no cambió o código HTTP 404 si no existe
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> obtenerEstudiante(@PathVariable Long id) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<Respuesta<EstudianteDto>> obtenerEstudiante(@PathVariable Long id,
+                                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<Long> version = estudianteService.obtenerVersion(id);
+            if (version.isPresent() && ETags.coincide(ifNoneMatch, ETags.de(version.get()), false)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.de(version.get())).build();
+            }
+        }
         try {
             Estudiante estudiante = estudianteService.obtenerPorId(id);
-            response.put("message", "Estudiante encontrado exitosamente.");
-            response.put("data", estudiante);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(ETags.de(estudiante.getVersion()))
+                    .body(Respuesta.de("Estudiante encontrado exitosamente.", aDto(estudiante)));
         } catch (RuntimeException e) {
-            response.put("message", "Estudiante no encontrado con ID: " + id);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Respuesta.mensaje("Estudiante no encontrado con ID: " + id));
         }
     }
 
+    /**
+     * Endpoint para obtener varios estudiantes por sus IDs en una sola llamada.
+     * Los IDs que no existen simplemente no aparecen en la respuesta.
+     *
+     * @param ids IDs de los estudiantes
+     * @return ResponseEntity con los estudiantes encontrados y código HTTP 200
+     */
+    @PostMapping("/por-ids")
+    public ResponseEntity<Respuesta<List<EstudianteDto>>> obtenerEstudiantesPorIds(@RequestBody Collection<Long> ids) {
+        List<Estudiante> estudiantes = estudianteService.buscarPorIds(ids);
+        return ResponseEntity.ok(Respuesta.de("Estudiantes obtenidos exitosamente.", aDtos(estudiantes)));
+    }
+
     /**
      * Endpoint para crear un nuevo estudiante.
      *
-     * @param estudiante Objeto Estudiante enviado en el cuerpo de la solicitud
+     * @param estudiante datos del estudiante enviados en el cuerpo de la solicitud
      * @return ResponseEntity con el estudiante creado y código HTTP 201
      */
     @PostMapping
-    public ResponseEntity<Map<String, Object>> crearEstudiante(@RequestBody Estudiante estudiante) {
-        Estudiante estudianteCreado = estudianteService.guardarEstudiante(estudiante);
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Estudiante creado exitosamente.");
-        response.put("data", estudianteCreado);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<Respuesta<EstudianteDto>> crearEstudiante(@RequestBody EstudianteDto estudiante) {
+        Estudiante nuevo = new Estudiante(estudiante.getNombre(), estudiante.getApellido(), estudiante.getEmail(),
+                estudiante.getFechaNacimiento(), estudiante.getTelefono(), estudiante.getCreadoEn());
+        Estudiante estudianteCreado = estudianteService.guardarEstudiante(nuevo);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.de(estudianteCreado.getVersion()))
+                .body(Respuesta.de("Estudiante creado exitosamente.", aDto(estudianteCreado)));
+    }
+
+    /**
+     * Endpoint para crear varios estudiantes en una sola transacción; Hibernate envía los INSERT en lotes JDBC.
+     * Si algún email ya existe no se crea ninguno.
+     *
+     * @param estudiantes datos de los estudiantes enviados en el cuerpo de la solicitud
+     * @return ResponseEntity con los estudiantes creados y código HTTP 201, o 413 si superan el máximo por solicitud
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Respuesta<List<EstudianteDto>>> crearEstudiantes(@RequestBody List<EstudianteDto> estudiantes) {
+        if (estudiantes.size() > maximoCreacionMasiva) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(Respuesta.mensaje("Se permiten como máximo " + maximoCreacionMasiva + " estudiantes por solicitud."));
+        }
+        List<Estudiante> nuevos = estudiantes.stream()
+                .map(estudiante -> new Estudiante(estudiante.getNombre(), estudiante.getApellido(), estudiante.getEmail(),
+                        estudiante.getFechaNacimiento(), estudiante.getTelefono(), estudiante.getCreadoEn()))
+                .toList();
+        List<Estudiante> creados = estudianteService.guardarEstudiantes(nuevos);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(Respuesta.de(creados.size() + " estudiantes creados exitosamente.", aDtos(creados)));
     }
 
     /**
-     * Endpoint para actualizar un estudiante existente.
+     * Endpoint para actualizar un estudiante existente. Si se envía If-Match, el estudiante solo se
+     * actualiza cuando su versión actual coincide con el ETag indicado; si no, se responde 412.
      *
      * @param id ID del estudiante a actualizar
-     * @param estudiante Objeto Estudiante con los datos actualizados
-     * @return ResponseEntity con el estudiante actualizado o código HTTP 404 si no existe
+     * @param estudiante datos actualizados del estudiante
+     * @param ifMatch ETag de la versión sobre la que el cliente hizo sus cambios
+     * @return ResponseEntity con el estudiante actualizado, 412 si la versión no coincide o código HTTP 404 si no existe
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> actualizarEstudiante(@PathVariable Long id, @RequestBody Estudiante estudiante) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<Respuesta<EstudianteDto>> actualizarEstudiante(@PathVariable Long id, @RequestBody EstudianteDto estudiante,
+                                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Estudiante estudianteExistente = estudianteService.obtenerPorId(id);
-            estudianteExistente.setNombre(estudiante.getNombre());
-            estudianteExistente.setApellido(estudiante.getApellido());
-            estudianteExistente.setEmail(estudiante.getEmail());
-            estudianteExistente.setFechaNacimiento(estudiante.getFechaNacimiento());
-            estudianteExistente.setTelefono(estudiante.getTelefono());
-            Estudiante estudianteActualizado = estudianteService.guardarEstudiante(estudianteExistente);
-            response.put("message", "Estudiante actualizado exitosamente.");
-            response.put("data", estudianteActualizado);
-            return ResponseEntity.ok(response);
+            Estudiante datos = new Estudiante(estudiante.getNombre(), estudiante.getApellido(), estudiante.getEmail(),
+                    estudiante.getFechaNacimiento(), estudiante.getTelefono(), null);
+            Optional<Estudiante> estudianteActualizado = estudianteService.actualizarEstudiante(id, datos,
+                    version -> ifMatch == null || ETags.coincide(ifMatch, ETags.de(version), true));
+            if (estudianteActualizado.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Respuesta.mensaje("Estudiante no encontrado con ID: " + id));
+            }
+            return ResponseEntity.ok().eTag(ETags.de(estudianteActualizado.get().getVersion()))
+                    .body(Respuesta.de("Estudiante actualizado exitosamente.", aDto(estudianteActualizado.get())));
+        } catch (EstudianteModificadoException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(ETags.de(e.getVersionActual()))
+                    .body(Respuesta.mensaje("El estudiante fue modificado por otra solicitud; obtenga la versión actual."));
         } catch (RuntimeException e) {
-            response.put("message", "Estudiante no encontrado con ID: " + id);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Respuesta.mensaje("Estudiante no encontrado con ID: " + id));
         }
     }
 
@@ -102,15 +203,28 @@ public class EstudianteController {
      * @return ResponseEntity con mensaje de eliminación o código HTTP 404 si no existe
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> eliminarEstudiante(@PathVariable Long id) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<Respuesta<Void>> eliminarEstudiante(@PathVariable Long id) {
         try {
             estudianteService.eliminarPorId(id);
-            response.put("message", "Estudiante eliminado exitosamente.");
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(Respuesta.mensaje("Estudiante eliminado exitosamente."));
         } catch (RuntimeException e) {
-            response.put("message", "Estudiante no encontrado con ID: " + id);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Respuesta.mensaje("Estudiante no encontrado con ID: " + id));
+        }
+    }
+
+    private int resolverLimite(Integer solicitado) {
+        if (solicitado == null) {
+            return Math.min(limitePorDefecto, limiteMaximo);
         }
+        return Math.max(1, Math.min(solicitado, limiteMaximo));
+    }
+
+    private static EstudianteDto aDto(Estudiante estudiante) {
+        return new EstudianteDto(estudiante.getId(), estudiante.getNombre(), estudiante.getApellido(), estudiante.getEmail(),
+                estudiante.getFechaNacimiento(), estudiante.getTelefono(), estudiante.getCreadoEn(), estudiante.getVersion());
+    }
+
+    private static List<EstudianteDto> aDtos(List<Estudiante> estudiantes) {
+        return estudiantes.stream().map(EstudianteController::aDto).toList();
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.espe.micro_estudiantes.model.dto;
+
+/**
+ * Resumen de un estudiante para listas desplegables y selectores: solo ID, nombre y apellido.
+ * Se lee como proyección, sin cargar la entidad en el contexto de persistencia.
+ */
+public class EstudianteResumen {
+
+    private final long id;
+    private final String nombre;
+    private final String apellido;
+
+    public EstudianteResumen(long id, String nombre, String apellido) {
+        this.id = id;
+        this.nombre = nombre;
+        this.apellido = apellido;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getApellido() {
+        return apellido;
+    }
+}
@@ -1,14 +1,23 @@
 package com.espe.micro_estudiantes.model.entity;
 
+import com.espe.micro_estudiantes.config.CacheSegundoNivelConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.Date;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGION_ESTUDIANTE)
 @Table(name = "estudiantes")
 public class Estudiante {
 
+    // Generador de tabla pooled (generadores_id): reserva de a 50 IDs y permite agrupar los INSERT en lotes,
+    // cosa que IDENTITY impide porque Hibernate necesita el ID generado por la base al persistir cada fila
     @Id // Marca este campo como clave primaria
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Define que el ID se genera automáticamente
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "estudiante_id")
+    @TableGenerator(name = "estudiante_id", table = "generadores_id", pkColumnName = "entidad", valueColumnName = "siguiente",
+            pkColumnValue = "estudiantes", allocationSize = 50)
     private Long id;
 
     private String nombre;
@@ -25,6 +34,10 @@ public class Estudiante {
     @Temporal(TemporalType.TIMESTAMP)
     private Date creadoEn;
 
+    @Version // Se incrementa en cada actualización; base del ETag
+    @Column(nullable = false)
+    private long version;
+
     // Constructor vacío (obligatorio para JPA)
     public Estudiante() {}
 
@@ -100,4 +113,12 @@ public class Estudiante {
     public void setCreadoEn(Date creadoEn) {
         this.creadoEn = creadoEn;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,55 @@
+package com.espe.micro_estudiantes.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Codifica y decodifica el cursor opaco usado en la paginación por keyset.
+ * El cursor representa el último ID entregado; la siguiente página busca
+ * los registros con ID estrictamente mayor.
+ */
+public final class KeysetCursor {
+
+    private static final String PREFIJO = "id:";
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Genera el cursor para continuar después del ID indicado.
+     *
+     * @param ultimoId ID del último elemento de la página actual
+     * @return cursor opaco en Base64 URL-safe
+     */
+    public static String encode(long ultimoId) {
+        byte[] raw = (PREFIJO + ultimoId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * Obtiene el ID desde el cual continuar. Un cursor nulo o vacío equivale al inicio de la tabla.
+     *
+     * @param cursor cursor recibido en el parámetro {@code after}
+     * @return último ID entregado, o 0 si no hay cursor
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIJO)) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+            long id = Long.parseLong(raw.substring(PREFIJO.length()));
+            if (id < 0) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+            return id;
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException y errores de Base64 también son IllegalArgumentException
+            throw new IllegalArgumentException("Cursor inválido: " + cursor, e);
+        }
+    }
+}
@@ -1,18 +1,38 @@
 package com.espe.micro_estudiantes.repositories;
 
+import com.espe.micro_estudiantes.config.CacheSegundoNivelConfig;
+import com.espe.micro_estudiantes.model.dto.EstudianteResumen;
 import com.espe.micro_estudiantes.model.entity.Estudiante;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EstudianteRepository extends JpaRepository<Estudiante, Long> {
-    // Buscar estudiante por email
+    // Buscar estudiante por email. Esta búsqueda y la de apellido quedan en la caché de consultas (IDs de
+    // los estudiantes) hasta la siguiente escritura en estudiantes; las entidades se leen de su región
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheSegundoNivelConfig.REGION_CONSULTAS)
+    })
     Estudiante findByEmail(String email);
 
     // Buscar estudiantes por apellido
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheSegundoNivelConfig.REGION_CONSULTAS)
+    })
     List<Estudiante> findByApellido(String apellido);
 
     // Buscar estudiantes nacidos después de una fecha específica
@@ -20,4 +40,26 @@ public interface EstudianteRepository extends JpaRepository<Estudiante, Long> {
 
     // Buscar estudiantes cuyo nombre contenga un texto específico
     List<Estudiante> findByNombreContaining(String texto);
+
+    // Resúmenes (ID, nombre y apellido) por keyset: IDs mayores al último entregado, en orden de ID.
+    // Solo esas columnas, sin entidades gestionadas
+    @Query("select new com.espe.micro_estudiantes.model.dto.EstudianteResumen(e.id, e.nombre, e.apellido) from Estudiante e"
+            + " where e.id > :id order by e.id")
+    List<EstudianteResumen> findResumenesDespuesDe(@Param("id") long id, Limit limit);
+
+    // Resúmenes de los estudiantes cuyo nombre o apellido contiene el texto, sin distinguir mayúsculas
+    @Query("select new com.espe.micro_estudiantes.model.dto.EstudianteResumen(e.id, e.nombre, e.apellido) from Estudiante e"
+            + " where lower(e.nombre) like lower(concat('%', :texto, '%')) or lower(e.apellido) like lower(concat('%', :texto, '%'))"
+            + " order by e.apellido, e.nombre, e.id")
+    List<EstudianteResumen> buscarResumenes(@Param("texto") String texto, Limit limit);
+
+    // Solo la versión del estudiante, para responder lecturas condicionales sin cargar la entidad
+    @Query("select e.version from Estudiante e where e.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Estudiante a actualizar, bloqueado hasta el fin de la transacción (SELECT ... FOR UPDATE). Con un bloqueo
+    // Hibernate lo lee de la base, no de la caché de segundo nivel
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from Estudiante e where e.id = :id")
+    Optional<Estudiante> findParaActualizar(@Param("id") Long id);
 }
@@ -0,0 +1,18 @@
+package com.espe.micro_estudiantes.services;
+
+/**
+ * La versión actual del estudiante no es la que el cliente indicó (If-Match); no se modificó nada.
+ */
+public class EstudianteModificadoException extends RuntimeException {
+
+    private final long versionActual;
+
+    public EstudianteModificadoException(Long id, long versionActual) {
+        super("El estudiante " + id + " está en la versión " + versionActual);
+        this.versionActual = versionActual;
+    }
+
+    public long getVersionActual() {
+        return versionActual;
+    }
+}
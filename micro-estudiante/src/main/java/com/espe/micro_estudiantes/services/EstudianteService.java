@@ -1,23 +1,47 @@
 package com.espe.micro_estudiantes.services;
 
+import com.espe.micro_estudiantes.model.dto.EstudianteResumen;
 import com.espe.micro_estudiantes.model.entity.Estudiante;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.LongPredicate;
 
 public interface EstudianteService {
     // Método para listar todos los estudiantes
     List<Estudiante> listarTodos();
 
+    // Resúmenes (ID, nombre y apellido) con ID mayor a despuesDeId, en orden de ID; hasta limite + 1 filas,
+    // la fila extra solo indica que existe una página siguiente
+    List<EstudianteResumen> listarResumenes(long despuesDeId, int limite);
+
+    // Resúmenes de los estudiantes cuyo nombre o apellido contiene el texto
+    List<EstudianteResumen> buscarResumenes(String texto, int limite);
+
     // Método para guardar un estudiante
     Estudiante guardarEstudiante(Estudiante estudiante);
 
+    // Crea varios estudiantes en una sola transacción (INSERT en lotes JDBC)
+    List<Estudiante> guardarEstudiantes(List<Estudiante> estudiantes);
+
+    // Actualiza los datos del estudiante si versionAceptada acepta la versión actual (si no, EstudianteModificadoException);
+    // vacío si el estudiante no existe
+    Optional<Estudiante> actualizarEstudiante(Long id, Estudiante datos, LongPredicate versionAceptada);
+
     // Método para obtener un estudiante por su ID
     Estudiante obtenerPorId(Long id);
 
+    // Versión actual del estudiante (base de su ETag), vacía si no existe
+    Optional<Long> obtenerVersion(Long id);
+
     // Método para eliminar un estudiante por su ID
     void eliminarPorId(Long id);
 
+    // Método para obtener en una sola consulta los estudiantes de una lista de IDs
+    List<Estudiante> buscarPorIds(Collection<Long> ids);
+
     // Métodos adicionales para búsquedas personalizadas
     Estudiante buscarPorEmail(String email);
 
@@ -1,12 +1,18 @@
 package com.espe.micro_estudiantes.services;
 
+import com.espe.micro_estudiantes.model.dto.EstudianteResumen;
 import com.espe.micro_estudiantes.model.entity.Estudiante;
 import com.espe.micro_estudiantes.repositories.EstudianteRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.LongPredicate;
 
 @Service
 public class EstudianteServiceImpl implements EstudianteService {
@@ -15,21 +21,69 @@ public class EstudianteServiceImpl implements EstudianteService {
     private EstudianteRepository estudianteRepository;
 
     @Override
+    @Transactional(readOnly = true)
     public List<Estudiante> listarTodos() {
         return estudianteRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<EstudianteResumen> listarResumenes(long despuesDeId, int limite) {
+        return estudianteRepository.findResumenesDespuesDe(despuesDeId, Limit.of(limite + 1));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EstudianteResumen> buscarResumenes(String texto, int limite) {
+        return estudianteRepository.buscarResumenes(texto, Limit.of(limite));
+    }
+
     @Override
     public Estudiante guardarEstudiante(Estudiante estudiante) {
         return estudianteRepository.save(estudiante);
     }
 
     @Override
+    public List<Estudiante> guardarEstudiantes(List<Estudiante> estudiantes) {
+        // saveAll corre en una transacción: al hacer flush Hibernate agrupa los INSERT según hibernate.jdbc.batch_size
+        return estudianteRepository.saveAll(estudiantes);
+    }
+
+    @Override
+    @Transactional
+    public Optional<Estudiante> actualizarEstudiante(Long id, Estudiante datos, LongPredicate versionAceptada) {
+        // Transacción de escritura: la versión se compara con la del primario, no con la de una réplica
+        // atrasada ni la de la caché de segundo nivel, y nadie la cambia hasta el commit
+        Optional<Estudiante> existente = estudianteRepository.findParaActualizar(id);
+        if (existente.isEmpty()) {
+            return Optional.empty();
+        }
+        Estudiante estudiante = existente.get();
+        if (!versionAceptada.test(estudiante.getVersion())) {
+            throw new EstudianteModificadoException(id, estudiante.getVersion());
+        }
+        estudiante.setNombre(datos.getNombre());
+        estudiante.setApellido(datos.getApellido());
+        estudiante.setEmail(datos.getEmail());
+        estudiante.setFechaNacimiento(datos.getFechaNacimiento());
+        estudiante.setTelefono(datos.getTelefono());
+        // flush para devolver la versión nueva (el ETag de la respuesta)
+        return Optional.of(estudianteRepository.saveAndFlush(estudiante));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Estudiante obtenerPorId(Long id) {
         return estudianteRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Estudiante no encontrado con ID: " + id));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> obtenerVersion(Long id) {
+        return estudianteRepository.findVersionById(id);
+    }
+
     @Override
     public void eliminarPorId(Long id) {
         if (!estudianteRepository.existsById(id)) {
@@ -39,21 +93,31 @@ public class EstudianteServiceImpl implements EstudianteService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<Estudiante> buscarPorIds(Collection<Long> ids) {
+        return estudianteRepository.findAllById(ids);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Estudiante buscarPorEmail(String email) {
         return estudianteRepository.findByEmail(email);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Estudiante> buscarPorApellido(String apellido) {
         return estudianteRepository.findByApellido(apellido);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Estudiante> buscarPorFechaNacimientoPosterior(Date fecha) {
         return estudianteRepository.findByFechaNacimientoAfter(fecha);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Estudiante> buscarPorNombreContiene(String texto) {
         return estudianteRepository.findByNombreContaining(texto);
     }
@@ -0,0 +1,16 @@
+-- Esquema que generaba Hibernate con ddl-auto=update hasta esta versión.
+-- En una base existente sin historial de Flyway esta migración se marca como aplicada (baseline-on-migrate).
+
+create table estudiantes (
+    id bigint not null auto_increment,
+    nombre varchar(255),
+    apellido varchar(255),
+    email varchar(255),
+    fecha_nacimiento date,
+    telefono varchar(255),
+    creado_en datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+alter table estudiantes
+    add constraint uk_estudiantes_email unique (email);
@@ -0,0 +1,6 @@
+-- Índices para las búsquedas de EstudianteRepository.
+-- (apellido, nombre) atiende findByApellido y el orden de los resúmenes; junto con el id,
+-- que InnoDB agrega a todo índice secundario, los resúmenes se leen solo del índice.
+create index idx_estudiantes_apellido_nombre on estudiantes (apellido, nombre);
+create index idx_estudiantes_fecha_nacimiento on estudiantes (fecha_nacimiento);
+create index idx_estudiantes_nombre on estudiantes (nombre);
@@ -0,0 +1,12 @@
+-- IDs asignados por Hibernate con un generador de tabla y optimizador pooled en lugar de AUTO_INCREMENT:
+-- con IDENTITY Hibernate necesita el ID de cada fila al persistirla y no puede agrupar los INSERT en lotes JDBC.
+-- Cada instancia reserva un bloque de IDs (allocationSize de @TableGenerator) con un único UPDATE sobre esta tabla.
+-- El optimizador toma "siguiente" como el extremo superior del primer bloque: se inicia en el mayor ID existente
+-- + allocationSize - 1 (50) para que ese bloque empiece justo después. La columna id conserva auto_increment.
+create table generadores_id (
+    entidad varchar(255) not null,
+    siguiente bigint,
+    primary key (entidad)
+) engine=InnoDB;
+
+insert into generadores_id (entidad, siguiente) select 'estudiantes', coalesce(max(id), 0) + 49 from estudiantes;
@@ -0,0 +1,3 @@
+-- Versión de Estudiante (@Version, ETag e If-Match), agregada después del esquema inicial.
+-- Las filas existentes parten de 0.
+alter table estudiantes add column version bigint not null default 0;
@@ -0,0 +1,78 @@
+package com.espe.micro_estudiantes.config;
+
+import com.espe.micro_estudiantes.model.entity.Estudiante;
+import com.espe.micro_estudiantes.services.EstudianteService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CacheSegundoNivelTest {
+
+    @Autowired
+    private EstudianteService estudianteService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    private Estudiante estudiante;
+
+    @BeforeEach
+    void setUp() {
+        String email = UUID.randomUUID() + "@universidad.edu";
+        estudiante = estudianteService.guardarEstudiante(new Estudiante("Juan", "Pérez", email, new Date(), "0999999999", null));
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testObtenerPorIdRepetidoSinConsultas() {
+        estudianteService.obtenerPorId(estudiante.getId());
+        estadisticas.clear();
+
+        assertThat(estudianteService.obtenerPorId(estudiante.getId()).getNombre()).isEqualTo("Juan");
+
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+        assertThat(estadisticas.getCacheRegionStatistics(CacheSegundoNivelConfig.REGION_ESTUDIANTE).getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testActualizarYEliminarInvalidan() {
+        Estudiante cambios = estudianteService.obtenerPorId(estudiante.getId());
+        cambios.setNombre("Juan Carlos");
+        estudianteService.guardarEstudiante(cambios);
+        assertThat(estudianteService.obtenerPorId(estudiante.getId()).getNombre()).isEqualTo("Juan Carlos");
+
+        estudianteService.eliminarPorId(estudiante.getId());
+        assertThatThrownBy(() -> estudianteService.obtenerPorId(estudiante.getId())).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void testBusquedaPorEmailCacheada() {
+        estudianteService.buscarPorEmail(estudiante.getEmail());
+        estadisticas.clear();
+
+        assertThat(estudianteService.buscarPorEmail(estudiante.getEmail()).getId()).isEqualTo(estudiante.getId());
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+        assertThat(estadisticas.getQueryCacheHitCount()).isEqualTo(1);
+
+        // Cambiar el email invalida el resultado cacheado
+        Estudiante cambios = estudianteService.obtenerPorId(estudiante.getId());
+        cambios.setEmail("otro-" + estudiante.getEmail());
+        estudianteService.guardarEstudiante(cambios);
+        assertThat(estudianteService.buscarPorEmail(estudiante.getEmail())).isNull();
+    }
+}
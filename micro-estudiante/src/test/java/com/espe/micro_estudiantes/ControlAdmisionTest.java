@@ -0,0 +1,115 @@
+package com.espe.micro_estudiantes.admision;
+
+import com.espe.micro_estudiantes.model.entity.Estudiante;
+import com.espe.micro_estudiantes.services.EstudianteService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "estudiantes.admision.grupos.por-ids.rafaga=2",
+        "estudiantes.admision.grupos.por-ids.solicitudes-por-segundo=0.5"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ControlAdmisionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private EstudianteService estudianteService;
+
+    @Test
+    void testClienteQueAgotaSuCubetaRecibe429() throws Exception {
+        when(estudianteService.buscarPorIds(anyCollection())).thenReturn(List.of());
+        Estudiante estudiante = new Estudiante("Juan", "Pérez", "juan.perez@universidad.edu", new Date(), null, null);
+        estudiante.setId(1L);
+        when(estudianteService.obtenerPorId(1L)).thenReturn(estudiante);
+
+        porIds().andExpect(status().isOk());
+        porIds().andExpect(status().isOk());
+        porIds()
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(jsonPath("$.message").exists());
+
+        // El resto de los endpoints tiene su propio límite
+        mockMvc.perform(get("/api/estudiantes/1")).andExpect(status().isOk());
+        assertThat(meterRegistry.get("http.admision.rechazos").tag("grupo", "por-ids").tag("motivo", "cliente")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testRechazoPorConcurrenciaNoGastaElTokenDelCliente() throws Exception {
+        GrupoAdmision grupo = new GrupoAdmision("unitario", new GrupoAdmision.Limites(0, List.of(), List.of(), 1, 0.01, 1));
+        ControlAdmisionFilter filtro = new ControlAdmisionFilter(List.of(grupo), Duration.ofSeconds(1), meterRegistry, objectMapper);
+
+        assertThat(grupo.entrar()).isTrue();
+        assertThat(filtrar(filtro, (solicitud, respuesta) -> { }).getStatus()).isEqualTo(429);
+        grupo.salir();
+
+        // Su único token sigue disponible
+        assertThat(filtrar(filtro, (solicitud, respuesta) -> { }).getStatus()).isEqualTo(200);
+        assertThat(grupo.getEnCurso()).isZero();
+    }
+
+    @Test
+    void testRespuestaAsincronaOcupaSuLugarHastaCompletarse() throws Exception {
+        GrupoAdmision grupo = new GrupoAdmision("unitario", new GrupoAdmision.Limites(0, List.of(), List.of(), 1, 100, 100));
+        ControlAdmisionFilter filtro = new ControlAdmisionFilter(List.of(grupo), Duration.ofSeconds(1), meterRegistry, objectMapper);
+        MockHttpServletRequest solicitud = new MockHttpServletRequest("GET", "/api/export");
+        solicitud.setAsyncSupported(true);
+
+        filtro.doFilter(solicitud, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        // El hilo que inició la respuesta ya volvió, pero la respuesta sigue en curso
+        assertThat(grupo.getEnCurso()).isEqualTo(1);
+        assertThat(filtrar(filtro, (req, res) -> { }).getStatus()).isEqualTo(429);
+
+        ((MockAsyncContext) solicitud.getAsyncContext()).complete();
+        assertThat(grupo.getEnCurso()).isZero();
+    }
+
+    private ResultActions porIds() throws Exception {
+        return mockMvc.perform(post("/api/estudiantes/por-ids").contentType(MediaType.APPLICATION_JSON).content("[1, 2]"));
+    }
+
+    private static MockHttpServletResponse filtrar(ControlAdmisionFilter filtro, FilterChain cadena) throws Exception {
+        MockHttpServletResponse respuesta = new MockHttpServletResponse();
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/unitario"), respuesta, cadena);
+        return respuesta;
+    }
+}
@@ -1,6 +1,9 @@
 package com.espe.micro_estudiantes.controllers;
 
+import com.espe.micro_estudiantes.model.dto.EstudianteResumen;
 import com.espe.micro_estudiantes.model.entity.Estudiante;
+import com.espe.micro_estudiantes.pagination.KeysetCursor;
+import com.espe.micro_estudiantes.services.EstudianteModificadoException;
 import com.espe.micro_estudiantes.services.EstudianteService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,11 +16,17 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.LongPredicate;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -75,6 +84,70 @@ public class EstudianteControllerTest {
         verify(estudianteService, times(1)).listarTodos();
     }
 
+    @Test
+    void testListarResumenes() throws Exception {
+        when(estudianteService.listarResumenes(0L, 50)).thenReturn(Arrays.asList(
+                new EstudianteResumen(1L, "Juan", "Pérez"), new EstudianteResumen(2L, "María", "González")));
+
+        mockMvc.perform(get("/api/estudiantes/resumen"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[1].id").value(2))
+                .andExpect(jsonPath("$.data[1].apellido").value("González"))
+                .andExpect(jsonPath("$.data[0].email").doesNotExist())
+                .andExpect(jsonPath("$.data[0].telefono").doesNotExist());
+    }
+
+    @Test
+    void testListarResumenesPaginado() throws Exception {
+        // El servicio devuelve limite + 1 filas: existe página siguiente
+        when(estudianteService.listarResumenes(0L, 1)).thenReturn(Arrays.asList(
+                new EstudianteResumen(1L, "Juan", "Pérez"), new EstudianteResumen(2L, "María", "González")));
+        when(estudianteService.listarResumenes(1L, 1)).thenReturn(List.of(new EstudianteResumen(2L, "María", "González")));
+
+        mockMvc.perform(get("/api/estudiantes/resumen").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", KeysetCursor.encode(1L)))
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].id").value(1));
+
+        mockMvc.perform(get("/api/estudiantes/resumen").param("limit", "1").param("after", KeysetCursor.encode(1L)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$.data[0].id").value(2));
+    }
+
+    @Test
+    void testListarResumenesCursorInvalido() throws Exception {
+        mockMvc.perform(get("/api/estudiantes/resumen").param("after", "no-es-un-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor de paginación inválido."));
+
+        verifyNoInteractions(estudianteService);
+    }
+
+    @Test
+    void testListarResumenesLimiteAcotado() throws Exception {
+        when(estudianteService.listarResumenes(0L, 500)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/estudiantes/resumen").param("limit", "100000"))
+                .andExpect(status().isOk());
+
+        verify(estudianteService).listarResumenes(0L, 500);
+    }
+
+    @Test
+    void testBuscarResumenes() throws Exception {
+        when(estudianteService.buscarResumenes("pér", 10)).thenReturn(List.of(new EstudianteResumen(1L, "Juan", "Pérez")));
+
+        mockMvc.perform(get("/api/estudiantes/resumen/buscar").param("q", " pér ").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Estudiantes encontrados para 'pér'."))
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].nombre").value("Juan"));
+    }
+
     @Test
     void testObtenerEstudianteExistente() throws Exception {
         when(estudianteService.obtenerPorId(1L)).thenReturn(estudiante1);
@@ -91,13 +164,26 @@ public class EstudianteControllerTest {
         verify(estudianteService, times(1)).obtenerPorId(1L);
     }
 
+    @Test
+    void testObtenerEstudianteNoModificado() throws Exception {
+        when(estudianteService.obtenerVersion(1L)).thenReturn(Optional.of(2L));
+
+        mockMvc.perform(get("/api/estudiantes/1").header("If-None-Match", "\"2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"2\""))
+                .andExpect(content().string(""));
+
+        verify(estudianteService, never()).obtenerPorId(anyLong());
+    }
+
     @Test
     void testObtenerEstudianteNoExistente() throws Exception {
         when(estudianteService.obtenerPorId(99L)).thenThrow(new RuntimeException("Estudiante no encontrado"));
 
         mockMvc.perform(get("/api/estudiantes/99"))
                 .andExpect(status().isNotFound())
-                .andExpect(jsonPath("$.message").value("Estudiante no encontrado con ID: 99"));
+                .andExpect(jsonPath("$.message").value("Estudiante no encontrado con ID: 99"))
+                .andExpect(jsonPath("$.data").doesNotExist());
 
         verify(estudianteService, times(1)).obtenerPorId(99L);
     }
@@ -135,6 +221,33 @@ public class EstudianteControllerTest {
         verify(estudianteService, times(1)).guardarEstudiante(any(Estudiante.class));
     }
 
+    @Test
+    void testCrearEstudiantesEnLote() throws Exception {
+        Estudiante estudianteCreado = new Estudiante("Carlos", "López", "carlos.lopez@universidad.edu", new Date(), "0977777777", new Date());
+        estudianteCreado.setId(3L);
+
+        when(estudianteService.guardarEstudiantes(anyList())).thenReturn(List.of(estudianteCreado));
+
+        mockMvc.perform(post("/api/estudiantes/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"nombre\": \"Carlos\", \"apellido\": \"López\", \"email\": \"carlos.lopez@universidad.edu\"}]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.message").value("1 estudiantes creados exitosamente."))
+                .andExpect(jsonPath("$.data[0].id").value(3));
+    }
+
+    @Test
+    void testCrearEstudiantesEnLoteExcedeMaximo() throws Exception {
+        String estudiantes = "[" + String.join(",", Collections.nCopies(1001, "{\"nombre\": \"Carlos\"}")) + "]";
+
+        mockMvc.perform(post("/api/estudiantes/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(estudiantes))
+                .andExpect(status().isPayloadTooLarge());
+
+        verify(estudianteService, never()).guardarEstudiantes(anyList());
+    }
+
     @Test
     void testActualizarEstudianteExistente() throws Exception {
         Estudiante estudianteActualizado = new Estudiante();
@@ -144,8 +257,7 @@ public class EstudianteControllerTest {
         estudianteActualizado.setTelefono("0966666666");
         estudianteActualizado.setFechaNacimiento(new Date());
 
-        when(estudianteService.obtenerPorId(1L)).thenReturn(estudiante1);
-        when(estudianteService.guardarEstudiante(any(Estudiante.class))).thenReturn(estudianteActualizado);
+        when(estudianteService.actualizarEstudiante(eq(1L), any(Estudiante.class), any())).thenReturn(Optional.of(estudianteActualizado));
 
         mockMvc.perform(put("/api/estudiantes/1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -155,8 +267,27 @@ public class EstudianteControllerTest {
                 .andExpect(jsonPath("$.data.nombre").value("Juan Carlos"))
                 .andExpect(jsonPath("$.data.apellido").value("Pérez García"));
 
-        verify(estudianteService, times(1)).obtenerPorId(1L);
-        verify(estudianteService, times(1)).guardarEstudiante(any(Estudiante.class));
+        verify(estudianteService, times(1)).actualizarEstudiante(eq(1L), any(Estudiante.class), any());
+    }
+
+    @Test
+    void testActualizarEstudianteConETagDesactualizado() throws Exception {
+        estudiante1.setVersion(3);
+        // Como EstudianteServiceImpl.actualizarEstudiante: compara la versión actual con la que acepta el controlador
+        when(estudianteService.actualizarEstudiante(eq(1L), any(Estudiante.class), any())).thenAnswer(invocacion -> {
+            LongPredicate versionAceptada = invocacion.getArgument(2);
+            if (!versionAceptada.test(estudiante1.getVersion())) {
+                throw new EstudianteModificadoException(1L, estudiante1.getVersion());
+            }
+            return Optional.of(estudiante1);
+        });
+
+        mockMvc.perform(put("/api/estudiantes/1")
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(estudiante2)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string("ETag", "\"3\""));
     }
 
     @Test
@@ -165,16 +296,13 @@ public class EstudianteControllerTest {
         estudianteActualizado.setNombre("Estudiante");
         estudianteActualizado.setApellido("No Existe");
 
-        when(estudianteService.obtenerPorId(99L)).thenThrow(new RuntimeException("Estudiante no encontrado"));
+        when(estudianteService.actualizarEstudiante(eq(99L), any(Estudiante.class), any())).thenReturn(Optional.empty());
 
         mockMvc.perform(put("/api/estudiantes/99")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(estudianteActualizado)))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value("Estudiante no encontrado con ID: 99"));
-
-        verify(estudianteService, times(1)).obtenerPorId(99L);
-        verify(estudianteService, never()).guardarEstudiante(any(Estudiante.class));
     }
 
     @Test
@@ -210,4 +338,20 @@ public class EstudianteControllerTest {
 
         verify(estudianteService, times(1)).listarTodos();
     }
+
+    @Test
+    void testObtenerEstudiantesPorIds() throws Exception {
+        when(estudianteService.buscarPorIds(anyCollection())).thenReturn(Arrays.asList(estudiante1, estudiante2));
+
+        mockMvc.perform(post("/api/estudiantes/por-ids")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2, 99]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Estudiantes obtenidos exitosamente."))
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].id").value(1))
+                .andExpect(jsonPath("$.data[1].id").value(2));
+
+        verify(estudianteService, times(1)).buscarPorIds(anyCollection());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.espe.micro_estudiantes.repositories;
+
+import com.espe.micro_estudiantes.config.CacheSegundoNivelConfig;
+import com.espe.micro_estudiantes.model.dto.EstudianteResumen;
+import com.espe.micro_estudiantes.model.entity.Estudiante;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(CacheSegundoNivelConfig.class)
+public class EstudianteRepositoryTest {
+
+    @Autowired
+    private EstudianteRepository estudianteRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        estudianteRepository.saveAndFlush(new Estudiante("Juan", "Pérez", "juan.perez@universidad.edu", new Date(), "0999999999", null));
+        estudianteRepository.saveAndFlush(new Estudiante("María", "González", "maria.gonzalez@universidad.edu", new Date(), "0988888888", null));
+        estudianteRepository.saveAndFlush(new Estudiante("Pedro", "Andrade", "pedro.andrade@universidad.edu", new Date(), "0977777777", null));
+        entityManager.clear();
+    }
+
+    @Test
+    void testResumenesPorKeysetSinEntidadesGestionadas() {
+        List<EstudianteResumen> primera = estudianteRepository.findResumenesDespuesDe(0L, Limit.of(2));
+        List<EstudianteResumen> siguiente = estudianteRepository.findResumenesDespuesDe(primera.get(1).getId(), Limit.of(2));
+
+        assertThat(primera).extracting(EstudianteResumen::getApellido).containsExactly("Pérez", "González");
+        assertThat(siguiente).extracting(EstudianteResumen::getApellido).containsExactly("Andrade");
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void testGuardarVariosAgrupaLosInsert() {
+        Statistics estadisticas = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        List<Estudiante> nuevos = IntStream.range(0, 250)
+                .mapToObj(i -> new Estudiante("Estudiante", "Lote " + i, "lote" + i + "@universidad.edu", new Date(), null, null))
+                .toList();
+        estadisticas.clear();
+
+        estudianteRepository.saveAll(nuevos);
+        entityManager.flush();
+
+        // Un único INSERT preparado, reutilizado en lotes de hibernate.jdbc.batch_size filas
+        assertThat(estadisticas.getEntityInsertCount()).isEqualTo(250);
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testBuscarResumenesPorNombreOApellido() {
+        assertThat(estudianteRepository.buscarResumenes("EZ", Limit.of(10)))
+                .extracting(EstudianteResumen::getNombre)
+                .containsExactly("María", "Juan");
+        assertThat(estudianteRepository.buscarResumenes("ped", Limit.of(10)))
+                .extracting(EstudianteResumen::getApellido)
+                .containsExactly("Andrade");
+    }
+}
@@ -0,0 +1,77 @@
+package com.espe.micro_estudiantes.repositories;
+
+import com.espe.micro_estudiantes.config.CacheSegundoNivelConfig;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El esquema lo crean las migraciones de Flyway (ddl-auto=validate en los tests comprueba que
+ * coincide con las entidades). Aquí se verifica con EXPLAIN que las búsquedas usan sus índices
+ * y que una base creada antes de Flyway recibe las migraciones posteriores a V1.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(CacheSegundoNivelConfig.class)
+public class MigracionesTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testMigracionesAplicadas() {
+        assertThat(jdbcTemplate.queryForList("select version from flyway_schema_history where success and version is not null order by installed_rank", String.class))
+                .containsExactly("1", "2", "3", "4");
+    }
+
+    @Test
+    void testBuscarPorApellidoUsaIndice() {
+        assertThat(plan("select * from estudiantes where apellido = 'Pérez'")).contains("idx_estudiantes_apellido_nombre");
+    }
+
+    @Test
+    void testBuscarPorFechaNacimientoUsaIndice() {
+        assertThat(plan("select * from estudiantes where fecha_nacimiento > date '2000-01-01'")).contains("idx_estudiantes_fecha_nacimiento");
+    }
+
+    @Test
+    void testBuscarPorNombreUsaIndice() {
+        assertThat(plan("select * from estudiantes where nombre = 'Juan'")).contains("idx_estudiantes_nombre");
+    }
+
+    @Test
+    void testBaseExistenteSeTomaComoV1YRecibeLasMigracionesSiguientes() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate existente = new JdbcTemplate(dataSource);
+        // Esquema que dejaba Hibernate con ddl-auto=update antes de Flyway, con datos
+        existente.execute("create table estudiantes (id bigint not null auto_increment, nombre varchar(255), "
+                + "apellido varchar(255), email varchar(255) unique, fecha_nacimiento date, telefono varchar(255), "
+                + "creado_en datetime(6), primary key (id))");
+        existente.update("insert into estudiantes (id, nombre, apellido, email) values (3, 'Juan', 'Pérez', 'juan@universidad.edu')");
+
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        assertThat(existente.queryForList("select version from flyway_schema_history where success and version is not null order by installed_rank", String.class))
+                .containsExactly("1", "2", "3", "4");
+        assertThat(existente.queryForObject("select type from flyway_schema_history where version = '1'", String.class))
+                .isEqualTo("BASELINE");
+        assertThat(existente.queryForObject("select version from estudiantes where id = 3", Long.class)).isZero();
+        assertThat(existente.queryForObject("select siguiente from generadores_id where entidad = 'estudiantes'", Long.class))
+                .isEqualTo(3 + 49);
+        existente.execute("shutdown");
+    }
+
+    private String plan(String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class);
+    }
+}
@@ -0,0 +1,136 @@
+package com.espe.micro_estudiantes.config;
+
+import com.espe.micro_estudiantes.model.dto.EstudianteResumen;
+import com.espe.micro_estudiantes.model.entity.Estudiante;
+import com.espe.micro_estudiantes.repositories.EstudianteRepository;
+import com.espe.micro_estudiantes.services.EstudianteService;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Réplica de lectura con dos bases H2 (primario del perfil de test y réplica en memoria);
+ * retraso_replica simula el retraso de replicación.
+ */
+@SpringBootTest(properties = {
+        "estudiantes.datasource.replica.url=" + ReplicaLecturaTest.URL_REPLICA,
+        "estudiantes.datasource.replica.consulta-retraso=SELECT segundos FROM retraso_replica",
+        "estudiantes.datasource.replica.retraso-maximo=5s",
+        "estudiantes.datasource.replica.intervalo-verificacion=1h"
+})
+@ActiveProfiles("test")
+public class ReplicaLecturaTest {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:replica-estudiantes;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(URL_REPLICA, "sa", ""));
+
+    @Autowired
+    private EstudianteService estudianteService;
+
+    @Autowired
+    private MonitorReplica monitorReplica;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EstudianteRepository estudianteRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void crearReplica() {
+        Flyway.configure().dataSource(URL_REPLICA, "sa", "").load().migrate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        replica.execute("CREATE TABLE IF NOT EXISTS retraso_replica (segundos BIGINT)");
+        replica.update("DELETE FROM retraso_replica");
+        replica.update("INSERT INTO retraso_replica VALUES (0)");
+        replica.update("DELETE FROM estudiantes");
+        replica.update("INSERT INTO estudiantes (id, nombre, apellido, email, version) "
+                + "VALUES (1000, 'Réplica', 'Lectura', 'replica@universidad.edu', 0)");
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM estudiantes WHERE nombre = 'Primario'", Long.class) == 0) {
+            estudianteService.guardarEstudiante(new Estudiante("Primario", "Escritura", "primario@universidad.edu", new Date(), null, null));
+        }
+        monitorReplica.verificar();
+    }
+
+    @Test
+    void testLecturasDeSoloLecturaVanALaReplica() {
+        assertThat(nombres()).containsExactly("Réplica");
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM estudiantes WHERE nombre = 'Primario'", Long.class)).isZero();
+    }
+
+    @Test
+    void testReplicaAtrasadaUsaPrimario() {
+        replica.update("UPDATE retraso_replica SET segundos = 60");
+        monitorReplica.verificar();
+
+        assertThat(monitorReplica.isDisponible()).isFalse();
+        assertThat(nombres()).containsExactly("Primario");
+    }
+
+    @Test
+    void testReplicaSinEstadoUsaPrimario() {
+        replica.execute("DROP TABLE retraso_replica");
+        monitorReplica.verificar();
+
+        assertThat(monitorReplica.isDisponible()).isFalse();
+        assertThat(nombres()).containsExactly("Primario");
+    }
+
+    @Test
+    void testLecturasDeLaReplicaNoLlenanLaCacheDeSegundoNivel() {
+        entityManagerFactory.getCache().evict(Estudiante.class);
+
+        // Una fila atrasada de la réplica quedaría en la caché hasta el TTL
+        assertThat(estudianteService.obtenerPorId(1000L).getNombre()).isEqualTo("Réplica");
+        assertThat(entityManagerFactory.getCache().contains(Estudiante.class, 1000L)).isFalse();
+
+        // Las transacciones de escritura leen del primario y sí la llenan
+        Long idPrimario = jdbcTemplate.queryForObject("SELECT id FROM estudiantes WHERE nombre = 'Primario'", Long.class);
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado -> estudianteRepository.findById(idPrimario));
+        assertThat(entityManagerFactory.getCache().contains(Estudiante.class, idPrimario)).isTrue();
+    }
+
+    @Test
+    void testActualizarComparaLaVersionDelPrimario() {
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM estudiantes WHERE nombre = 'Primario'", Long.class);
+        Estudiante datos = new Estudiante("Primario", "Escritura", "primario@universidad.edu", new Date(), "0990000001", null);
+        long version = estudianteService.actualizarEstudiante(id, datos, v -> true).orElseThrow().getVersion();
+        // La réplica todavía tiene la versión anterior
+        replica.update("INSERT INTO estudiantes (id, nombre, apellido, email, version) "
+                + "VALUES (?, 'Primario', 'Escritura', 'primario@universidad.edu', ?)", id, version - 1);
+        assertThat(estudianteService.obtenerVersion(id)).contains(version - 1);
+
+        // El cliente envía la versión que recibió del PUT anterior: no es un 412
+        datos.setTelefono("0990000002");
+        Estudiante actualizado = estudianteService.actualizarEstudiante(id, datos, v -> v == version).orElseThrow();
+        assertThat(actualizado.getVersion()).isEqualTo(version + 1);
+    }
+
+    private List<String> nombres() {
+        return estudianteService.listarResumenes(0L, 100).stream().map(EstudianteResumen::getNombre).toList();
+    }
+}
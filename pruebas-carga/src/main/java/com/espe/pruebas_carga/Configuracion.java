@@ -0,0 +1,86 @@
+package com.espe.pruebas_carga;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parámetros de la prueba, leídos de las propiedades del sistema (-Dcarga.*). Con los mismos valores y la
+ * misma semilla se siembran los mismos datos y se genera la misma secuencia de solicitudes.
+ */
+public record Configuracion(
+        boolean iniciar,
+        Path raiz,
+        List<String> maven,
+        List<String> argsCursos,
+        List<String> argsEstudiantes,
+        boolean admision,
+        String urlCursos,
+        String urlEstudiantes,
+        int cursos,
+        int estudiantes,
+        int inscritosPorCurso,
+        List<Integer> tasas,
+        int duracionSegundos,
+        int calentamientoSegundos,
+        Map<Escenario, Integer> mezcla,
+        long semilla,
+        Path salida) {
+
+    public static Configuracion desdePropiedades() {
+        return new Configuracion(
+                Boolean.parseBoolean(System.getProperty("carga.iniciar", "true")),
+                Path.of(System.getProperty("carga.raiz", "..")).toAbsolutePath().normalize(),
+                palabras(System.getProperty("carga.maven", mavenPorDefecto())),
+                palabras(System.getProperty("carga.args-cursos", "")),
+                palabras(System.getProperty("carga.args-estudiantes", "")),
+                Boolean.parseBoolean(System.getProperty("carga.admision", "false")),
+                System.getProperty("carga.url-cursos", "http://localhost:8003"),
+                System.getProperty("carga.url-estudiantes", "http://localhost:8002"),
+                Integer.getInteger("carga.cursos", 500),
+                Integer.getInteger("carga.estudiantes", 5000),
+                Integer.getInteger("carga.inscritos-por-curso", 20),
+                Arrays.stream(System.getProperty("carga.tasas", "25,50,100").split(","))
+                        .map(String::trim).map(Integer::valueOf).toList(),
+                Integer.getInteger("carga.duracion", 30),
+                Integer.getInteger("carga.calentamiento", 10),
+                mezcla(System.getProperty("carga.mezcla", "leer:70,inscribir:10,buscar:20")),
+                Long.getLong("carga.semilla", 42L),
+                Path.of(System.getProperty("carga.salida", "target/carga")).toAbsolutePath());
+    }
+
+    private static String mavenPorDefecto() {
+        // El wrapper se versiona sin permiso de ejecución; se invoca a través del intérprete
+        return System.getProperty("os.name").startsWith("Windows") ? "cmd /c mvnw.cmd" : "sh mvnw";
+    }
+
+    private static List<String> palabras(String texto) {
+        return texto.isBlank() ? List.of() : List.of(texto.trim().split("\\s+"));
+    }
+
+    // "leer:70,inscribir:10,buscar:20" -> peso relativo de cada escenario; los que no aparecen no se ejecutan
+    private static Map<Escenario, Integer> mezcla(String texto) {
+        Map<Escenario, Integer> pesos = new LinkedHashMap<>();
+        for (String parte : texto.split(",")) {
+            String[] claveValor = parte.trim().split(":");
+            if (claveValor.length != 2) {
+                throw new IllegalArgumentException("Mezcla inválida: '" + parte + "'. Use escenario:peso, por ejemplo leer:70");
+            }
+            pesos.put(Escenario.valueOf(claveValor[0].trim().toUpperCase()), Integer.valueOf(claveValor[1].trim()));
+        }
+        if (pesos.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("La mezcla debe tener al menos un escenario con peso mayor que cero.");
+        }
+        return pesos;
+    }
+
+    @Override
+    public String toString() {
+        return "cursos=" + cursos + " estudiantes=" + estudiantes + " inscritos-por-curso=" + inscritosPorCurso
+                + " tasas=" + tasas + " duracion=" + duracionSegundos + "s calentamiento=" + calentamientoSegundos
+                + "s mezcla=" + mezcla + " semilla=" + semilla + " admision=" + admision
+                + " args-cursos=" + argsCursos + " args-estudiantes=" + argsEstudiantes;
+    }
+}
@@ -0,0 +1,30 @@
+package com.espe.pruebas_carga;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * IDs creados por la siembra y lo necesario para generar solicitudes válidas sobre ellos.
+ * El curso de índice c tiene inscritos a los estudiantes de índice (c * inscritosPorCurso + j) % estudiantes,
+ * j en [0, inscritosPorCurso); las inscripciones nuevas continúan esa secuencia para no repetir pares.
+ */
+public record DatosCarga(
+        String urlCursos,
+        String urlEstudiantes,
+        List<Long> cursoIds,
+        List<Long> estudianteIds,
+        int inscritosPorCurso,
+        AtomicLong inscripcionesNuevas) {
+
+    /**
+     * Siguiente par (cursoId, estudianteId) sin inscribir: recorre los cursos en orden y en cada vuelta
+     * toma el estudiante que sigue al último inscrito. Se repiten pares solo tras estudiantes - inscritosPorCurso vueltas.
+     */
+    public long[] siguienteInscripcion() {
+        long n = inscripcionesNuevas.getAndIncrement();
+        int curso = (int) (n % cursoIds.size());
+        long desplazamiento = inscritosPorCurso + n / cursoIds.size();
+        int estudiante = (int) ((curso * (long) inscritosPorCurso + desplazamiento) % estudianteIds.size());
+        return new long[]{cursoIds.get(curso), estudianteIds.get(estudiante)};
+    }
+}
@@ -0,0 +1,82 @@
+package com.espe.pruebas_carga;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Escenarios de la mezcla de carga. Cada llegada elige un escenario según los pesos de carga.mezcla
+ * y el escenario elige al azar uno de sus endpoints; el nombre del endpoint agrupa las latencias en el reporte.
+ */
+public enum Escenario {
+
+    /** Lecturas por ID, incluido el listado de inscritos que consulta a micro-estudiante. */
+    LEER {
+        @Override
+        Solicitud generar(DatosCarga datos, Random aleatorio) {
+            return switch (aleatorio.nextInt(3)) {
+                case 0 -> get("GET /api/cursos/{id}",
+                        datos.urlCursos() + "/api/cursos/" + alAzar(datos.cursoIds(), aleatorio));
+                case 1 -> get("GET /api/cursos/{id}/estudiantes",
+                        datos.urlCursos() + "/api/cursos/" + alAzar(datos.cursoIds(), aleatorio) + "/estudiantes?limit=20");
+                default -> get("GET /api/estudiantes/{id}",
+                        datos.urlEstudiantes() + "/api/estudiantes/" + alAzar(datos.estudianteIds(), aleatorio));
+            };
+        }
+    },
+
+    /** Inscripción de un estudiante que aún no está en el curso. */
+    INSCRIBIR {
+        @Override
+        Solicitud generar(DatosCarga datos, Random aleatorio) {
+            long[] par = datos.siguienteInscripcion();
+            return new Solicitud("POST /api/curso-estudiante", base(datos.urlCursos() + "/api/curso-estudiante")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"cursoId\": " + par[0] + ", \"estudianteId\": " + par[1] + "}"))
+                    .build());
+        }
+    },
+
+    /** Búsquedas por texto de cursos y estudiantes con términos que aparecen en los datos sembrados. */
+    BUSCAR {
+        @Override
+        Solicitud generar(DatosCarga datos, Random aleatorio) {
+            return switch (aleatorio.nextInt(3)) {
+                case 0 -> get("GET /api/cursos/buscar", datos.urlCursos() + "/api/cursos/buscar?limit=20&q="
+                        + codificar(alAzar(Siembra.TERMINOS_CURSOS, aleatorio)));
+                case 1 -> get("GET /api/cursos/resumen/buscar", datos.urlCursos() + "/api/cursos/resumen/buscar?limit=20&nombre="
+                        + codificar(alAzar(Siembra.TEMAS, aleatorio)));
+                default -> get("GET /api/estudiantes/resumen/buscar", datos.urlEstudiantes()
+                        + "/api/estudiantes/resumen/buscar?limit=20&q=" + codificar(alAzar(Siembra.APELLIDOS, aleatorio)));
+            };
+        }
+    };
+
+    static final Duration TIEMPO_MAXIMO = Duration.ofSeconds(30);
+
+    public record Solicitud(String endpoint, HttpRequest solicitud) {
+    }
+
+    abstract Solicitud generar(DatosCarga datos, Random aleatorio);
+
+    private static Solicitud get(String endpoint, String url) {
+        return new Solicitud(endpoint, base(url).GET().build());
+    }
+
+    private static HttpRequest.Builder base(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(TIEMPO_MAXIMO);
+    }
+
+    private static <T> T alAzar(List<T> valores, Random aleatorio) {
+        return valores.get(aleatorio.nextInt(valores.size()));
+    }
+
+    private static String codificar(String texto) {
+        return URLEncoder.encode(texto, StandardCharsets.UTF_8);
+    }
+}
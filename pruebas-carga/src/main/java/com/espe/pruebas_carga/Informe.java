@@ -0,0 +1,85 @@
+package com.espe.pruebas_carga;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resumen por fase y endpoint: solicitudes, errores, respuestas correctas por segundo y percentiles de latencia.
+ * El CSV tiene siempre las mismas columnas y el mismo orden de filas (tasa, endpoint), así que dos ejecuciones
+ * se comparan directamente con diff o en una hoja de cálculo. La primera línea (# ...) guarda la configuración.
+ */
+public final class Informe {
+
+    static final String TOTAL = "TOTAL";
+    private static final String CABECERA = "tasa_objetivo,endpoint,solicitudes,errores,rps,p50_ms,p95_ms,p99_ms,max_ms";
+
+    public record Estadistica(int tasaObjetivo, String endpoint, int solicitudes, int errores, double rps,
+                              double p50, double p95, double p99, double max) {
+    }
+
+    private Informe() {
+    }
+
+    /**
+     * @param porEndpoint Latencias de la fase por endpoint
+     * @param segundos Duración de la fase, desde la primera llegada hasta la última respuesta
+     */
+    public static List<Estadistica> resumir(int tasaObjetivo, Map<String, Latencias> porEndpoint, double segundos) {
+        List<Estadistica> estadisticas = new ArrayList<>();
+        Latencias todas = new Latencias();
+        for (Map.Entry<String, Latencias> entrada : new TreeMap<>(porEndpoint).entrySet()) {
+            estadisticas.add(estadistica(tasaObjetivo, entrada.getKey(), entrada.getValue(), segundos));
+            todas.agregar(entrada.getValue());
+        }
+        estadisticas.add(estadistica(tasaObjetivo, TOTAL, todas, segundos));
+        return estadisticas;
+    }
+
+    public static Path escribir(Configuracion configuracion, List<Estadistica> estadisticas) throws IOException {
+        List<String> lineas = new ArrayList<>();
+        lineas.add("# " + configuracion);
+        lineas.add(CABECERA);
+        for (Estadistica e : estadisticas) {
+            lineas.add(String.format(Locale.ROOT, "%d,%s,%d,%d,%.1f,%.1f,%.1f,%.1f,%.1f", e.tasaObjetivo(), e.endpoint(),
+                    e.solicitudes(), e.errores(), e.rps(), e.p50(), e.p95(), e.p99(), e.max()));
+        }
+        Files.createDirectories(configuracion.salida());
+        Path archivo = configuracion.salida().resolve(
+                "carga-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".csv");
+        return Files.write(archivo, lineas);
+    }
+
+    public static void imprimir(List<Estadistica> estadisticas) {
+        System.out.printf(Locale.ROOT, "%n%6s %-36s %8s %7s %9s %9s %9s %9s %9s%n",
+                "tasa", "endpoint", "solic.", "errores", "rps", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Estadistica e : estadisticas) {
+            System.out.printf(Locale.ROOT, "%6d %-36s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", e.tasaObjetivo(),
+                    e.endpoint(), e.solicitudes(), e.errores(), e.rps(), e.p50(), e.p95(), e.p99(), e.max());
+        }
+    }
+
+    private static Estadistica estadistica(int tasaObjetivo, String endpoint, Latencias latencias, double segundos) {
+        long[] ordenadas = latencias.ordenadas();
+        return new Estadistica(tasaObjetivo, endpoint, latencias.total(), latencias.errores(),
+                (latencias.total() - latencias.errores()) / segundos,
+                percentil(ordenadas, 50), percentil(ordenadas, 95), percentil(ordenadas, 99),
+                ordenadas.length == 0 ? 0 : ordenadas[ordenadas.length - 1] / 1e6);
+    }
+
+    // Percentil por rango más cercano, en milisegundos
+    private static double percentil(long[] ordenadas, int percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)] / 1e6;
+    }
+}
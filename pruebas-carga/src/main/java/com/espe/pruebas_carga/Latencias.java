@@ -0,0 +1,48 @@
+package com.espe.pruebas_carga;
+
+import java.util.Arrays;
+
+/**
+ * Latencias de un endpoint durante una fase, en nanosegundos, y cuántas respuestas no fueron 2xx
+ * (o fallaron por conexión o tiempo de espera). Se registran desde los hilos del HttpClient.
+ */
+public class Latencias {
+
+    private long[] valores = new long[1024];
+    private int total;
+    private int errores;
+
+    public synchronized void registrar(long nanos, boolean correcta) {
+        if (total == valores.length) {
+            valores = Arrays.copyOf(valores, total * 2);
+        }
+        valores[total++] = nanos;
+        if (!correcta) {
+            errores++;
+        }
+    }
+
+    public synchronized int total() {
+        return total;
+    }
+
+    public synchronized int errores() {
+        return errores;
+    }
+
+    /** Todas las latencias, ordenadas de menor a mayor. */
+    public synchronized long[] ordenadas() {
+        long[] copia = Arrays.copyOf(valores, total);
+        Arrays.sort(copia);
+        return copia;
+    }
+
+    public synchronized void agregar(Latencias otras) {
+        long[] suyas = otras.ordenadas();
+        int erroresSuyos = otras.errores();
+        for (long valor : suyas) {
+            registrar(valor, true);
+        }
+        errores += erroresSuyos;
+    }
+}
@@ -0,0 +1,162 @@
+package com.espe.pruebas_carga;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Prueba de carga local de micro-estudiante y micro-cursos.
+ * <ol>
+ *   <li>Levanta ambos servicios sobre H2 (perfil test) en puertos libres, o usa los que ya estén corriendo
+ *       con -Dcarga.iniciar=false -Dcarga.url-cursos=... -Dcarga.url-estudiantes=...</li>
+ *   <li>Siembra estudiantes, cursos e inscripciones por la API.</li>
+ *   <li>Por cada tasa de carga.tasas genera llegadas a intervalos fijos durante carga.duracion segundos,
+ *       repartidas entre los escenarios de carga.mezcla (modelo abierto: una respuesta lenta no frena las
+ *       llegadas siguientes). Antes de la primera fase hay un calentamiento de carga.calentamiento segundos
+ *       que no se reporta.</li>
+ *   <li>Escribe solicitudes, errores, rps y p50/p95/p99/max por tasa y endpoint en carga.salida/carga-&lt;fecha&gt;.csv.</li>
+ * </ol>
+ * La latencia se mide desde el instante programado de la llegada, no desde el envío: si el cliente o el
+ * servicio se atrasan, la espera acumulada cuenta en los percentiles.
+ * <p>
+ * Se ejecuta desde esta carpeta con {@code ./mvnw compile exec:java [-Dcarga.tasas=25,50,100 ...]}.
+ */
+public class PruebaCarga {
+
+    private static final Duration VACIADO_MAXIMO = Duration.ofMinutes(2);
+
+    private final Configuracion configuracion;
+    private final DatosCarga datos;
+    private final Random aleatorio;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public PruebaCarga(Configuracion configuracion, DatosCarga datos) {
+        this.configuracion = configuracion;
+        this.datos = datos;
+        this.aleatorio = new Random(configuracion.semilla());
+    }
+
+    public static void main(String[] args) throws Exception {
+        Configuracion configuracion = Configuracion.desdePropiedades();
+        System.out.println("Prueba de carga: " + configuracion);
+        List<ServicioLocal> servicios = new ArrayList<>();
+        // Si se interrumpe con Ctrl+C los servicios no deben quedar corriendo
+        Thread detenerServicios = new Thread(() -> servicios.forEach(ServicioLocal::close));
+        Runtime.getRuntime().addShutdownHook(detenerServicios);
+        try {
+            String urlCursos = configuracion.urlCursos();
+            String urlEstudiantes = configuracion.urlEstudiantes();
+            if (configuracion.iniciar()) {
+                ServicioLocal estudiantes = ServicioLocal.iniciar(configuracion, "micro-estudiante",
+                        "com.espe.micro_estudiantes.MicroEstudiantesApplication",
+                        argumentos(configuracion.argsEstudiantes(),
+                                "--estudiantes.admision.habilitada=" + configuracion.admision()));
+                servicios.add(estudiantes);
+                ServicioLocal cursos = ServicioLocal.iniciar(configuracion, "micro-cursos",
+                        "com.espe.micro_cursos.MicroCursosApplication",
+                        argumentos(configuracion.argsCursos(),
+                                "--cursos.estudiantes.url=" + estudiantes.url(),
+                                "--cursos.admision.habilitada=" + configuracion.admision()));
+                servicios.add(cursos);
+                System.out.println("Iniciando micro-estudiante y micro-cursos (logs en " + configuracion.salida() + ")...");
+                estudiantes.esperarListo("/api/estudiantes/resumen?limit=1");
+                cursos.esperarListo("/api/cursos/resumen?limit=1");
+                urlCursos = cursos.url();
+                urlEstudiantes = estudiantes.url();
+            }
+
+            long inicioSiembra = System.nanoTime();
+            DatosCarga datos = new Siembra(configuracion).sembrar(urlCursos, urlEstudiantes);
+            System.out.printf("Siembra: %d estudiantes, %d cursos, %d inscripciones en %d s%n",
+                    datos.estudianteIds().size(), datos.cursoIds().size(),
+                    (long) datos.cursoIds().size() * datos.inscritosPorCurso(),
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - inicioSiembra));
+
+            PruebaCarga prueba = new PruebaCarga(configuracion, datos);
+            if (configuracion.calentamientoSegundos() > 0) {
+                prueba.ejecutarFase(configuracion.tasas().get(0), configuracion.calentamientoSegundos());
+            }
+            List<Informe.Estadistica> estadisticas = new ArrayList<>();
+            for (int tasa : configuracion.tasas()) {
+                System.out.printf("Fase de %d solicitudes/s durante %d s...%n", tasa, configuracion.duracionSegundos());
+                estadisticas.addAll(prueba.ejecutarFase(tasa, configuracion.duracionSegundos()));
+            }
+            Informe.imprimir(estadisticas);
+            Path archivo = Informe.escribir(configuracion, estadisticas);
+            System.out.println("\nResultados en " + archivo);
+        } finally {
+            servicios.forEach(ServicioLocal::close);
+            Runtime.getRuntime().removeShutdownHook(detenerServicios);
+        }
+    }
+
+    /**
+     * Genera tasa * segundos llegadas a intervalos de 1/tasa s y espera a que terminen todas.
+     *
+     * @return Estadísticas por endpoint y la fila TOTAL de la fase
+     */
+    List<Informe.Estadistica> ejecutarFase(int tasa, int segundos) {
+        Map<String, Latencias> porEndpoint = new ConcurrentHashMap<>();
+        long periodo = TimeUnit.SECONDS.toNanos(1) / tasa;
+        long llegadas = (long) tasa * segundos;
+        List<CompletableFuture<Void>> enCurso = new ArrayList<>();
+        long inicio = System.nanoTime();
+        for (long i = 0; i < llegadas; i++) {
+            long programada = inicio + i * periodo;
+            esperarHasta(programada);
+            Escenario.Solicitud solicitud = elegirEscenario().generar(datos, aleatorio);
+            Latencias latencias = porEndpoint.computeIfAbsent(solicitud.endpoint(), endpoint -> new Latencias());
+            enCurso.add(http.sendAsync(solicitud.solicitud(), HttpResponse.BodyHandlers.discarding())
+                    .handle((respuesta, error) -> {
+                        latencias.registrar(System.nanoTime() - programada,
+                                error == null && respuesta.statusCode() / 100 == 2);
+                        return null;
+                    }));
+        }
+        try {
+            CompletableFuture.allOf(enCurso.toArray(CompletableFuture[]::new))
+                    .get(VACIADO_MAXIMO.toSeconds(), TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Quedaron solicitudes sin respuesta tras " + VACIADO_MAXIMO.toSeconds() + " s", e);
+        }
+        double duracion = (System.nanoTime() - inicio) / 1e9;
+        return Informe.resumir(tasa, porEndpoint, duracion);
+    }
+
+    private Escenario elegirEscenario() {
+        int total = configuracion.mezcla().values().stream().mapToInt(Integer::intValue).sum();
+        int valor = aleatorio.nextInt(total);
+        for (Map.Entry<Escenario, Integer> entrada : configuracion.mezcla().entrySet()) {
+            valor -= entrada.getValue();
+            if (valor < 0) {
+                return entrada.getKey();
+            }
+        }
+        throw new IllegalStateException("Mezcla sin escenarios");
+    }
+
+    private static void esperarHasta(long instante) {
+        for (long restante = instante - System.nanoTime(); restante > 0; restante = instante - System.nanoTime()) {
+            LockSupport.parkNanos(restante);
+        }
+    }
+
+    private static List<String> argumentos(List<String> adicionales, String... propios) {
+        List<String> argumentos = new ArrayList<>(List.of(propios));
+        // Los adicionales van al final para poder sobrescribir los propios
+        argumentos.addAll(adicionales);
+        return argumentos;
+    }
+}
@@ -0,0 +1,119 @@
+package com.espe.pruebas_carga;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Un microservicio levantado en un proceso propio con {@code spring-boot:test-run} y el perfil test,
+ * que ya trae H2 en modo MySQL y ejecuta las mismas migraciones de Flyway que producción.
+ * La salida de Maven y de la aplicación queda en {@code <salida>/<modulo>.log}.
+ */
+public class ServicioLocal implements AutoCloseable {
+
+    private static final Duration ESPERA_MAXIMA = Duration.ofMinutes(5);
+
+    private final String modulo;
+    private final int puerto;
+    private final Path log;
+    private final Process proceso;
+
+    private ServicioLocal(String modulo, int puerto, Path log, Process proceso) {
+        this.modulo = modulo;
+        this.puerto = puerto;
+        this.log = log;
+        this.proceso = proceso;
+    }
+
+    /**
+     * Lanza el módulo sin esperar a que arranque; ver {@link #esperarListo(String)}.
+     *
+     * @param modulo Carpeta del microservicio bajo la raíz del repositorio (micro-cursos, micro-estudiante)
+     * @param claseMain Clase @SpringBootApplication del módulo
+     * @param argumentos Propiedades adicionales (--clave=valor), con precedencia sobre los .properties
+     */
+    public static ServicioLocal iniciar(Configuracion configuracion, String modulo, String claseMain,
+                                        List<String> argumentos) throws IOException {
+        int puerto = puertoLibre();
+        List<String> argumentosApp = new ArrayList<>();
+        argumentosApp.add("--server.port=" + puerto);
+        // Una base en memoria por servicio; el nombre fijo la comparte entre las conexiones del pool
+        argumentosApp.add("--spring.datasource.url=jdbc:h2:mem:carga;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        argumentosApp.add("--spring.jpa.show-sql=false");
+        argumentosApp.add("--spring.h2.console.enabled=false");
+        argumentosApp.add("--logging.level.root=WARN");
+        argumentosApp.addAll(argumentos);
+
+        List<String> comando = new ArrayList<>(configuracion.maven());
+        comando.add("spring-boot:test-run");
+        comando.add("-Dspring-boot.run.main-class=" + claseMain);
+        comando.add("-Dspring-boot.run.profiles=test");
+        // devtools (dependencia opcional del módulo) solo lee esta propiedad del sistema, no de los argumentos
+        comando.add("-Dspring-boot.run.jvmArguments=-Dspring.devtools.restart.enabled=false");
+        comando.add("-Dspring-boot.run.arguments=" + String.join(" ", argumentosApp));
+
+        Files.createDirectories(configuracion.salida());
+        Path log = configuracion.salida().resolve(modulo + ".log");
+        Process proceso = new ProcessBuilder(comando)
+                .directory(configuracion.raiz().resolve(modulo).toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        return new ServicioLocal(modulo, puerto, log, proceso);
+    }
+
+    /**
+     * Espera hasta que la ruta responda 200; falla si el proceso termina antes o se supera la espera máxima.
+     *
+     * @param rutaLista Ruta GET barata que solo responde cuando el contexto terminó de arrancar
+     */
+    public void esperarListo(String rutaLista) throws InterruptedException {
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        HttpRequest solicitud = HttpRequest.newBuilder(URI.create(url() + rutaLista))
+                .timeout(Duration.ofSeconds(5)).GET().build();
+        long limite = System.nanoTime() + ESPERA_MAXIMA.toNanos();
+        while (System.nanoTime() < limite) {
+            if (!proceso.isAlive()) {
+                throw new IllegalStateException(modulo + " terminó antes de arrancar (código " + proceso.exitValue()
+                        + "). Revise " + log);
+            }
+            try {
+                if (http.send(solicitud, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Todavía no escucha en el puerto
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException(modulo + " no respondió en " + ESPERA_MAXIMA.toMinutes() + " minutos. Revise " + log);
+    }
+
+    public String url() {
+        return "http://localhost:" + puerto;
+    }
+
+    /**
+     * Detiene la aplicación y Maven. spring-boot:test-run ejecuta la aplicación en un proceso hijo,
+     * así que primero se detienen los descendientes.
+     */
+    @Override
+    public void close() {
+        proceso.descendants().forEach(ProcessHandle::destroy);
+        proceso.destroy();
+    }
+
+    private static int puertoLibre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.espe.pruebas_carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Siembra los datos de la prueba a través de la API pública: estudiantes y cursos con los endpoints /batch
+ * y las inscripciones con PUT /api/cursos/{id}/estudiantes:bulk, que las valida contra micro-estudiante.
+ */
+public class Siembra {
+
+    // Máximo por solicitud de los endpoints /batch (cursos.creacion-masiva y estudiantes.creacion-masiva)
+    private static final int TAMANO_LOTE = 1000;
+    private static final int INSCRIPCIONES_EN_PARALELO = 8;
+
+    static final List<String> TEMAS = List.of("Programación", "Bases de Datos", "Redes", "Cálculo", "Álgebra Lineal",
+            "Estadística", "Física", "Sistemas Operativos", "Ingeniería de Software", "Inteligencia Artificial",
+            "Seguridad Informática", "Compiladores", "Economía", "Contabilidad", "Química", "Gestión de Proyectos");
+    static final List<String> TERMINOS_CURSOS = List.of("programación", "datos", "redes", "java", "laboratorio",
+            "avanzado", "seguridad", "proyectos", "software", "fundamentos prácticos");
+    static final List<String> NOMBRES = List.of("Juan", "María", "Carlos", "Ana", "Luis", "Sofía", "Diego", "Valeria",
+            "Andrés", "Camila", "José", "Daniela", "Miguel", "Gabriela", "Pedro", "Lucía");
+    static final List<String> APELLIDOS = List.of("Pérez", "González", "Rodríguez", "López", "Martínez", "Sánchez",
+            "Ramírez", "Torres", "Flores", "Rivera", "Gómez", "Díaz", "Cruz", "Morales", "Vásquez", "Herrera");
+    private static final List<String> NIVELES = List.of("I", "II", "III", "Avanzado", "Aplicado");
+    private static final List<String> ENFOQUES = List.of("fundamentos prácticos y ejercicios semanales",
+            "proyectos en equipo con Java y Spring", "teoría y laboratorio", "casos de estudio reales",
+            "lecturas dirigidas y evaluación continua");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final Configuracion configuracion;
+    private final Random aleatorio;
+
+    public Siembra(Configuracion configuracion) {
+        this.configuracion = configuracion;
+        this.aleatorio = new Random(configuracion.semilla());
+    }
+
+    public DatosCarga sembrar(String urlCursos, String urlEstudiantes) throws Exception {
+        List<Long> estudianteIds = crearEnLotes(urlEstudiantes + "/api/estudiantes/batch", configuracion.estudiantes(), this::estudiante);
+        List<Long> cursoIds = crearEnLotes(urlCursos + "/api/cursos/batch", configuracion.cursos(), this::curso);
+        int inscritosPorCurso = Math.min(configuracion.inscritosPorCurso(), estudianteIds.size());
+        inscribir(urlCursos, cursoIds, estudianteIds, inscritosPorCurso);
+        return new DatosCarga(urlCursos, urlEstudiantes, cursoIds, estudianteIds, inscritosPorCurso, new AtomicLong());
+    }
+
+    private List<Long> crearEnLotes(String url, int total, Fabrica fabrica) throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>(total);
+        for (int inicio = 0; inicio < total; inicio += TAMANO_LOTE) {
+            List<Map<String, Object>> lote = new ArrayList<>();
+            for (int i = inicio; i < Math.min(total, inicio + TAMANO_LOTE); i++) {
+                lote.add(fabrica.crear(i));
+            }
+            JsonNode respuesta = enviar(HttpRequest.newBuilder(URI.create(url)).POST(cuerpo(lote)), 201);
+            respuesta.get("data").forEach(creado -> ids.add(creado.get("id").asLong()));
+        }
+        return ids;
+    }
+
+    private void inscribir(String urlCursos, List<Long> cursoIds, List<Long> estudianteIds, int inscritosPorCurso)
+            throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(INSCRIPCIONES_EN_PARALELO);
+        try {
+            List<Future<JsonNode>> pendientes = new ArrayList<>();
+            for (int c = 0; c < cursoIds.size(); c++) {
+                List<Long> inscritos = new ArrayList<>(inscritosPorCurso);
+                for (int j = 0; j < inscritosPorCurso; j++) {
+                    inscritos.add(estudianteIds.get((int) (((long) c * inscritosPorCurso + j) % estudianteIds.size())));
+                }
+                URI uri = URI.create(urlCursos + "/api/cursos/" + cursoIds.get(c) + "/estudiantes:bulk");
+                pendientes.add(hilos.submit(() -> enviar(HttpRequest.newBuilder(uri).PUT(cuerpo(inscritos)), 200)));
+            }
+            for (Future<JsonNode> pendiente : pendientes) {
+                pendiente.get();
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    private Map<String, Object> estudiante(int i) {
+        String nombre = NOMBRES.get(aleatorio.nextInt(NOMBRES.size()));
+        String apellido = APELLIDOS.get(aleatorio.nextInt(APELLIDOS.size()));
+        Map<String, Object> estudiante = new LinkedHashMap<>();
+        estudiante.put("nombre", nombre);
+        estudiante.put("apellido", apellido);
+        estudiante.put("email", sinTildes(nombre + "." + apellido).toLowerCase() + "." + i + "@universidad.edu");
+        estudiante.put("fechaNacimiento", LocalDate.of(1995, 1, 1).plusDays(aleatorio.nextInt(3650)).toString());
+        estudiante.put("telefono", String.format("09%08d", aleatorio.nextInt(100_000_000)));
+        return estudiante;
+    }
+
+    private Map<String, Object> curso(int i) {
+        String tema = TEMAS.get(aleatorio.nextInt(TEMAS.size()));
+        String nivel = NIVELES.get(aleatorio.nextInt(NIVELES.size()));
+        Map<String, Object> curso = new LinkedHashMap<>();
+        curso.put("nombre", tema + " " + nivel + " - Paralelo " + (i + 1));
+        curso.put("descripcion", "Curso de " + tema.toLowerCase() + " nivel " + nivel + ": "
+                + ENFOQUES.get(aleatorio.nextInt(ENFOQUES.size())) + ".");
+        curso.put("creditos", 1 + aleatorio.nextInt(6));
+        return curso;
+    }
+
+    private HttpRequest.BodyPublisher cuerpo(Object valor) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(valor));
+    }
+
+    private JsonNode enviar(HttpRequest.Builder solicitud, int estadoEsperado) throws IOException, InterruptedException {
+        HttpRequest request = solicitud.header("Content-Type", "application/json").timeout(Escenario.TIEMPO_MAXIMO).build();
+        HttpResponse<byte[]> respuesta = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (respuesta.statusCode() != estadoEsperado) {
+            throw new IllegalStateException("La siembra falló en " + request.method() + " " + request.uri() + ": "
+                    + respuesta.statusCode() + " " + new String(respuesta.body()));
+        }
+        return objectMapper.readTree(respuesta.body());
+    }
+
+    private static String sinTildes(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    }
+
+    @FunctionalInterface
+    private interface Fabrica {
+        Map<String, Object> crear(int indice);
+    }
+}
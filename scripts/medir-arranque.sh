@@ -0,0 +1,91 @@
+#!/usr/bin/env bash
+# Tiempo hasta la primera solicitud exitosa de un servicio: fat jar frente a AOT + AppCDS
+# (perfil Maven arranque-rapido). Cada modo se arranca varias veces en una JVM nueva y se mide
+# desde el lanzamiento hasta que el endpoint responde 200, incluida la primera consulta a la base.
+#
+# Uso:
+#   cd micro-cursos && ./mvnw package -DskipTests -Parranque-rapido && cd ..
+#   scripts/medir-arranque.sh micro-cursos [repeticiones]
+#
+# La base de datos debe estar disponible (p. ej. docker compose up -d mysql-micro-curso) y se
+# indica con SPRING_DATASOURCE_URL / _USERNAME / _PASSWORD (y _DRIVER_CLASS_NAME si no es MySQL).
+# JAVA_OPTS se agrega a ambos modos.
+# Los resultados se agregan a <servicio>/target/medicion-arranque.csv.
+set -euo pipefail
+
+SERVICIO=${1:?"Uso: $0 <micro-cursos|micro-estudiante> [repeticiones]"}
+REPETICIONES=${2:-5}
+RAIZ=$(cd "$(dirname "$0")/.." && pwd)
+DIR="$RAIZ/$SERVICIO"
+
+case "$SERVICIO" in
+  micro-cursos)     PUERTO=${PUERTO:-8003}; RUTA="/api/cursos?limit=1" ;;
+  micro-estudiante) PUERTO=${PUERTO:-8002}; RUTA="/api/estudiantes/resumen?limit=1" ;;
+  *) echo "Servicio desconocido: $SERVICIO" >&2; exit 1 ;;
+esac
+PLAZO_S=${PLAZO_S:-120}
+
+FAT_JAR=$(ls "$DIR"/target/*.jar 2>/dev/null | head -n 1 || true)
+EXTRAIDO="$DIR/target/arranque-rapido"
+ARCHIVO_CDS="$EXTRAIDO/aplicacion.jsa"
+if [[ -z "$FAT_JAR" || ! -f "$ARCHIVO_CDS" ]]; then
+  echo "Falta el build: cd $SERVICIO && ./mvnw package -DskipTests -Parranque-rapido" >&2
+  exit 1
+fi
+# El archivo CDS guarda el classpath del entrenamiento (relativo a target/arranque-rapido):
+# el modo aot-cds se lanza desde ese directorio con el mismo nombre de jar
+JAR_EXTRAIDO=$(basename "$FAT_JAR")
+
+ahora_ms() { echo $(( $(date +%s%N) / 1000000 )); }
+
+# Arranca el servicio desde el directorio dado y devuelve los ms hasta el primer 200 en $RUTA
+medir() {
+  local directorio=$1 inicio pid fin
+  shift
+  inicio=$(ahora_ms)
+  # shellcheck disable=SC2086
+  (cd "$directorio" && exec java ${JAVA_OPTS:-} "$@" --server.port="$PUERTO" --management.server.port=0 \
+    --spring.jpa.show-sql=false --logging.level.root=WARN) > "$DIR/target/medicion-arranque.log" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "http://localhost:$PUERTO$RUTA"; do
+    if ! kill -0 "$pid" 2>/dev/null || (( $(ahora_ms) - inicio > PLAZO_S * 1000 )); then
+      kill "$pid" 2>/dev/null || true
+      echo "El servicio no respondió; ver $DIR/target/medicion-arranque.log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  fin=$(ahora_ms)
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  # Con un archivo CDS que no corresponde la JVM arranca igual, sin él: la medición no serviría
+  if grep -q "Unable to use shared archive" "$DIR/target/medicion-arranque.log"; then
+    echo "La JVM no pudo usar $ARCHIVO_CDS (¿otra versión de Java o de la aplicación?)" >&2
+    exit 1
+  fi
+  echo $(( fin - inicio ))
+}
+
+mediana() { sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'; }
+
+declare -A TIEMPOS
+for modo in fat-jar aot-cds; do
+  TIEMPOS[$modo]=""
+  for ((i = 1; i <= REPETICIONES; i++)); do
+    if [[ $modo == fat-jar ]]; then
+      ms=$(medir "$DIR" -jar "$FAT_JAR")
+    else
+      ms=$(medir "$EXTRAIDO" -XX:SharedArchiveFile=aplicacion.jsa -Dspring.aot.enabled=true -jar "$JAR_EXTRAIDO")
+    fi
+    echo "$modo #$i: $ms ms"
+    TIEMPOS[$modo]+="$ms"$'\n'
+    echo "$(date -u +%Y-%m-%dT%H:%M:%SZ),$SERVICIO,$modo,$i,$ms" >> "$DIR/target/medicion-arranque.csv"
+  done
+done
+
+printf '\n%-10s %10s %10s %10s\n' "modo" "mín ms" "mediana" "máx ms"
+for modo in fat-jar aot-cds; do
+  valores=$(printf '%s' "${TIEMPOS[$modo]}" | sed '/^$/d')
+  printf '%-10s %10s %10s %10s\n' "$modo" \
+    "$(echo "$valores" | sort -n | head -n 1)" "$(echo "$valores" | mediana)" "$(echo "$valores" | sort -n | tail -n 1)"
+done